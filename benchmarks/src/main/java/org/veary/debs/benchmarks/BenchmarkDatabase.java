@@ -0,0 +1,292 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.veary.debs.Messages;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.PostingMode;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.core.dao.PostingCoordinator;
+import org.veary.debs.dao.Registry;
+import org.veary.debs.exceptions.DebsException;
+import org.veary.debs.facade.AccountFacade;
+import org.veary.debs.facade.AdminFacade;
+import org.veary.debs.model.Account;
+
+/**
+ * <b>Purpose:</b> An in-memory H2 database initialized the same way as a new installation.
+ *
+ * <p><b>Responsibility:</b> Creates the injector for a benchmark trial, seeds the database
+ * through {@link AdminFacade#initializeDatabase()} and provides the fixtures used by the
+ * benchmarks.
+ *
+ * <p>The SQL registry files are read from the directory named by the {@code debs.sql.dir}
+ * system property, which defaults to the web application's {@code WEB-INF/sql} directory.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final String SQL_DIR_PROPERTY = "debs.sql.dir"; //$NON-NLS-1$
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(1000, 2);
+
+    private static final String SEED_ENTRIES = "INSERT INTO DEBS.ENTRY" //$NON-NLS-1$
+        + "(ID,AMOUNT,ETYPE,ACCOUNT_ID,CLEARED_TS) SELECT" //$NON-NLS-1$
+        + " CAST(? AS BIGINT)+X-1," //$NON-NLS-1$
+        + "CASEWHEN(MOD(X,2)=1,CAST(? AS DECIMAL),CAST(? AS DECIMAL)),2-MOD(X,2)," //$NON-NLS-1$
+        + "CASEWHEN(MOD(X,2)=1,CAST(? AS BIGINT),CAST(? AS BIGINT)),CURRENT_TIMESTAMP()" //$NON-NLS-1$
+        + " FROM SYSTEM_RANGE(1,?)"; //$NON-NLS-1$
+    private static final String SEED_TRANSACTIONS = "INSERT INTO DEBS.TRANSACTION" //$NON-NLS-1$
+        + "(ID,TDATE,REFERENCE,NARRATIVE,EID_FROM,EID_TO) SELECT" //$NON-NLS-1$
+        + " CAST(? AS BIGINT)+X-1," //$NON-NLS-1$
+        + "DATEADD('DAY',MOD(X,CAST(? AS INT)),CAST(? AS DATE)),'REF-'||X," //$NON-NLS-1$
+        + "'Seeded transaction',CAST(? AS BIGINT)+2*X-1,CAST(? AS BIGINT)+2*X" //$NON-NLS-1$
+        + " FROM SYSTEM_RANGE(1,?)"; //$NON-NLS-1$
+
+    private final JdbcConnectionPool pool;
+    private final Injector injector;
+
+    private BenchmarkDatabase(BalanceMode balanceMode, PostingMode postingMode) {
+        this.pool = JdbcConnectionPool.create("jdbc:h2:mem:debs-bench-" //$NON-NLS-1$
+            + COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1", "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        this.injector = Guice
+            .createInjector(new GuiceBenchmarkModule(this.pool, getSqlDir(), balanceMode,
+                postingMode));
+
+        final AdminFacade adminFacade = this.injector.getInstance(AdminFacade.class);
+        adminFacade.initializeDatabase();
+        adminFacade.migrateDatabase();
+    }
+
+    /**
+     * Creates a new, initialized, database using the default {@link BalanceMode}.
+     *
+     * @return {@link BenchmarkDatabase}
+     */
+    public static BenchmarkDatabase create() {
+        return create(BalanceMode.MATERIALIZED);
+    }
+
+    /**
+     * Creates a new, initialized, database.
+     *
+     * @param balanceMode the {@link BalanceMode} to run with
+     * @return {@link BenchmarkDatabase}
+     */
+    public static BenchmarkDatabase create(BalanceMode balanceMode) {
+        return create(balanceMode, PostingMode.IMMEDIATE);
+    }
+
+    /**
+     * Creates a new, initialized, database.
+     *
+     * @param balanceMode the {@link BalanceMode} to run with
+     * @param postingMode the {@link PostingMode} to run with
+     * @return {@link BenchmarkDatabase}
+     */
+    public static BenchmarkDatabase create(BalanceMode balanceMode, PostingMode postingMode) {
+        return new BenchmarkDatabase(balanceMode, postingMode);
+    }
+
+    /**
+     * Returns the instance bound to the referenced type.
+     *
+     * @param <T> the type
+     * @param type the {@code Class} of the type
+     * @return the instance
+     */
+    public <T> T getInstance(Class<T> type) {
+        return this.injector.getInstance(type);
+    }
+
+    /**
+     * Creates a chain of {@code depth} group accounts below the referenced parent, and an actual
+     * account below the last of them.
+     *
+     * @param prefix the prefix of the account names
+     * @param parentId the unique identifier of the top of the chain's parent
+     * @param depth the number of group accounts in the chain
+     * @param groupType the type of the group accounts
+     * @param type the type of the actual account
+     * @return the actual {@link Account}
+     */
+    public Account createAccountChain(String prefix, Long parentId, int depth,
+        Account.Types groupType, Account.Types type) {
+        Objects.requireNonNull(prefix, Messages.getParameterIsNull("prefix")); //$NON-NLS-1$
+        Objects.requireNonNull(parentId, Messages.getParameterIsNull("parentId")); //$NON-NLS-1$
+
+        final AccountFacade facade = getInstance(AccountFacade.class);
+
+        Long id = parentId;
+        for (int i = 1; i <= depth; i++) {
+            final String name = prefix + " Group " + i; //$NON-NLS-1$
+            id = facade.create(Account.newInstance(name, name, id, groupType));
+        }
+        final String name = prefix + " Account"; //$NON-NLS-1$
+        facade.create(Account.newInstance(name, name, id, type));
+        return facade.getByName(name).orElseThrow();
+    }
+
+    /**
+     * Returns the built-in account with the referenced name.
+     *
+     * @param account {@link AccountFacade.BuiltInAccounts}
+     * @return {@link Account}
+     */
+    public Account getBuiltInAccount(AccountFacade.BuiltInAccounts account) {
+        return getInstance(AccountFacade.class).getByName(account.toString()).orElseThrow();
+    }
+
+    /**
+     * Inserts {@code count} transactions between the two accounts, spread over the days of the
+     * referenced period. The rows are generated by the database in two statements rather than
+     * being posted through the facade, so that large data sets can be seeded quickly. The
+     * account balances are not updated, but the monthly balance snapshots are rebuilt.
+     *
+     * @param period the period in which the transactions are dated
+     * @param from the {@code FROM} account
+     * @param to the {@code TO} account
+     * @param count the number of transactions
+     */
+    public void seedTransactions(YearMonth period, Account from, Account to, int count) {
+        Objects.requireNonNull(period, Messages.getParameterIsNull("period")); //$NON-NLS-1$
+        Objects.requireNonNull(from, Messages.getParameterIsNull("from")); //$NON-NLS-1$
+        Objects.requireNonNull(to, Messages.getParameterIsNull("to")); //$NON-NLS-1$
+
+        try (Connection conn = this.pool.getConnection()) {
+            conn.setAutoCommit(false);
+            final long entryId = reserveIds(conn, "ENTRY", 2L * count); //$NON-NLS-1$
+            final long transactionId = reserveIds(conn, "TRANSACTION", count); //$NON-NLS-1$
+
+            try (PreparedStatement entries = conn.prepareStatement(SEED_ENTRIES)) {
+                entries.setLong(1, entryId);
+                entries.setBigDecimal(2, AMOUNT.negate());
+                entries.setBigDecimal(3, AMOUNT);
+                entries.setLong(4, from.getId().longValue());
+                entries.setLong(5, to.getId().longValue());
+                entries.setLong(6, 2L * count);
+                entries.executeUpdate();
+            }
+
+            try (PreparedStatement transactions = conn.prepareStatement(SEED_TRANSACTIONS)) {
+                transactions.setLong(1, transactionId);
+                transactions.setInt(2, period.lengthOfMonth());
+                transactions.setObject(3, period.atDay(1));
+                transactions.setLong(4, entryId - 1);
+                transactions.setLong(5, entryId - 1);
+                transactions.setLong(6, count);
+                transactions.executeUpdate();
+            }
+
+            final Registry registry = getInstance(Registry.class);
+            try (Statement snapshots = conn.createStatement()) {
+                snapshots.executeUpdate(registry.getSql("clearAccountPeriodBalance")); //$NON-NLS-1$
+                snapshots.executeUpdate(registry.getSql("populateAccountPeriodBalance")); //$NON-NLS-1$
+            }
+            conn.commit();
+
+            try (Statement analyze = conn.createStatement()) {
+                analyze.execute("ANALYZE"); //$NON-NLS-1$
+            }
+        } catch (SQLException e) {
+            throw new DebsException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.injector.getInstance(PostingCoordinator.class).shutdown();
+        this.injector.getInstance(BalanceMaterializer.class).shutdown();
+        try (Connection conn = this.pool.getConnection();
+            Statement shutdown = conn.createStatement()) {
+            shutdown.execute("SHUTDOWN"); //$NON-NLS-1$
+        } catch (SQLException e) {
+            throw new DebsException(e);
+        } finally {
+            this.pool.dispose();
+        }
+    }
+
+    /**
+     * Reserves a range of identifiers of the table's id sequence, above every block already
+     * handed out to the {@code IdAllocator}, by restarting the sequence after the range, and
+     * returns the first identifier of the range.
+     */
+    private static long reserveIds(Connection conn, String table, long count)
+        throws SQLException {
+        final String sequence = "DEBS." + table + "_ID_SEQ"; //$NON-NLS-1$ //$NON-NLS-2$
+        final long first;
+        try (Statement select = conn.createStatement();
+            ResultSet rs = select.executeQuery("SELECT GREATEST(NEXT VALUE FOR " //$NON-NLS-1$
+                + sequence + ",(SELECT COALESCE(MAX(ID),0)+1 FROM DEBS." + table //$NON-NLS-1$
+                + ")) FROM DUAL")) { //$NON-NLS-1$
+            rs.next();
+            first = rs.getLong(1);
+        }
+        try (PreparedStatement restart = conn.prepareStatement("ALTER SEQUENCE " //$NON-NLS-1$
+            + sequence + " RESTART WITH ?")) { //$NON-NLS-1$
+            restart.setLong(1, first + count);
+            restart.execute();
+        }
+        return first;
+    }
+
+    private static String getSqlDir() {
+        final String sqlDir = System.getProperty(SQL_DIR_PROPERTY);
+        if (sqlDir != null) {
+            return sqlDir;
+        }
+
+        final Properties properties = new Properties();
+        try (InputStream in = BenchmarkDatabase.class
+            .getResourceAsStream("/benchmarks.properties")) { //$NON-NLS-1$
+            if (in == null) {
+                throw new DebsException("Unable to locate benchmarks.properties"); //$NON-NLS-1$
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new DebsException(e);
+        }
+        return properties.getProperty("sql.dir"); //$NON-NLS-1$
+    }
+}
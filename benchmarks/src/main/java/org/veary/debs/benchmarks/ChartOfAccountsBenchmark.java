@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.facade.RealAccountFacade;
+import org.veary.debs.dao.AccountDao;
+import org.veary.debs.facade.AccountFacade;
+import org.veary.debs.facade.AccountFacade.BuiltInAccounts;
+import org.veary.debs.model.Account;
+import org.veary.tree.TreeNode;
+
+/**
+ * <b>Purpose:</b> Measures {@link AccountFacade#getChartOfAccounts()}.
+ *
+ * <p><b>Responsibility:</b> Builds a chart with {@code accounts} actual accounts, split
+ * between the assets and expenses groups in chains of {@code depth} group accounts. The chart
+ * is measured both as served from the cache and as built by a facade without one.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChartOfAccountsBenchmark {
+
+    @Param({ "50", "500" })
+    public int accounts;
+
+    @Param({ "1", "4" })
+    public int depth;
+
+    @Param({ "MATERIALIZED", "LEAF_ONLY" })
+    public BalanceMode balanceMode;
+
+    private BenchmarkDatabase database;
+    private AccountFacade accountFacade;
+    private AccountFacade uncachedFacade;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.database = BenchmarkDatabase.create(this.balanceMode);
+        this.accountFacade = this.database.getInstance(AccountFacade.class);
+        this.uncachedFacade = new RealAccountFacade(
+            this.database.getInstance(AccountDao.class));
+
+        final Long assetsId = this.database.getBuiltInAccount(BuiltInAccounts.ASSETS_GROUP)
+            .getId();
+        final Long expensesId = this.database.getBuiltInAccount(BuiltInAccounts.EXPENSES_GROUP)
+            .getId();
+
+        for (int i = 0; i < this.accounts / 2; i++) {
+            this.database.createAccountChain("Bench Asset " + i, assetsId, //$NON-NLS-1$
+                this.depth, Account.Types.ASSETS_GROUP, Account.Types.ASSET);
+            this.database.createAccountChain("Bench Expense " + i, expensesId, //$NON-NLS-1$
+                this.depth, Account.Types.EXPENSE_GROUP, Account.Types.EXPENSE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.database.close();
+    }
+
+    @Benchmark
+    public TreeNode<Account> getChartOfAccounts() {
+        return this.accountFacade.getChartOfAccounts();
+    }
+
+    @Benchmark
+    public TreeNode<Account> buildChartOfAccounts() {
+        return this.uncachedFacade.getChartOfAccounts();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.benchmarks;
+
+import com.google.inject.multibindings.OptionalBinder;
+import com.google.inject.name.Names;
+
+import java.util.Objects;
+
+import javax.sql.DataSource;
+
+import org.veary.debs.Messages;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.GuiceDebsCoreModule;
+import org.veary.debs.core.PostingMode;
+
+/**
+ * <b>Purpose:</b> Guice module used by the benchmarks.
+ *
+ * <p><b>Responsibility:</b> Binds the core module to an in-memory database and the SQL
+ * registry files of the web application.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class GuiceBenchmarkModule extends GuiceDebsCoreModule {
+
+    private final DataSource dataSource;
+    private final String sqlDir;
+    private final BalanceMode balanceMode;
+    private final PostingMode postingMode;
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource the {@code DataSource} of the benchmark database
+     * @param sqlDir the directory holding the SQL registry files
+     * @param balanceMode the {@link BalanceMode} to run with
+     */
+    public GuiceBenchmarkModule(DataSource dataSource, String sqlDir, BalanceMode balanceMode) {
+        this(dataSource, sqlDir, balanceMode, PostingMode.IMMEDIATE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource the {@code DataSource} of the benchmark database
+     * @param sqlDir the directory holding the SQL registry files
+     * @param balanceMode the {@link BalanceMode} to run with
+     * @param postingMode the {@link PostingMode} to run with
+     */
+    public GuiceBenchmarkModule(DataSource dataSource, String sqlDir, BalanceMode balanceMode,
+        PostingMode postingMode) {
+        this.dataSource = Objects.requireNonNull(dataSource,
+            Messages.getParameterIsNull("dataSource")); //$NON-NLS-1$
+        this.sqlDir = Objects.requireNonNull(sqlDir,
+            Messages.getParameterIsNull("sqlDir")); //$NON-NLS-1$
+        this.balanceMode = Objects.requireNonNull(balanceMode,
+            Messages.getParameterIsNull("balanceMode")); //$NON-NLS-1$
+        this.postingMode = Objects.requireNonNull(postingMode,
+            Messages.getParameterIsNull("postingMode")); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void configure() {
+        bindConstant().annotatedWith(Names.named("SQL_DIR")).to(this.sqlDir); //$NON-NLS-1$
+        bind(DataSource.class).toInstance(this.dataSource);
+        super.configure();
+
+        OptionalBinder.newOptionalBinder(binder(), BalanceMode.class).setBinding()
+            .toInstance(this.balanceMode);
+        OptionalBinder.newOptionalBinder(binder(), PostingMode.class).setBinding()
+            .toInstance(this.postingMode);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.MoneyAccumulator;
+
+/**
+ * <b>Purpose:</b> Measures the {@link Money} arithmetic used when posting transactions and
+ * building balances.
+ *
+ * <p><b>Responsibility:</b> The {@code bigDecimal} benchmarks repeat the same work the way the
+ * {@code BigDecimal} backed {@code Money} did, as a baseline for the {@code long} minor units
+ * representation and the {@link MoneyAccumulator}.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int VALUES = 1000;
+
+    private Money left;
+    private Money right;
+    private Money[] values;
+    private BigDecimal leftValue;
+    private BigDecimal rightValue;
+    private BigDecimal[] decimalValues;
+
+    @Setup
+    public void setUp() {
+        this.left = new Money(new BigDecimal("123456.78")); //$NON-NLS-1$
+        this.right = new Money(new BigDecimal("987.65")); //$NON-NLS-1$
+        this.values = new Money[VALUES];
+        this.decimalValues = new BigDecimal[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            this.values[i] = new Money(BigDecimal.valueOf(i * 37L + 1, 2));
+            this.decimalValues[i] = this.values[i].getValue();
+        }
+        this.leftValue = this.left.getValue();
+        this.rightValue = this.right.getValue();
+    }
+
+    @Benchmark
+    public Money plus() {
+        return this.left.plus(this.right);
+    }
+
+    @Benchmark
+    public Money minus() {
+        return this.left.minus(this.right);
+    }
+
+    @Benchmark
+    public Money negate() {
+        return this.left.negate();
+    }
+
+    @Benchmark
+    public Money times() {
+        return this.left.times(1.15);
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return this.left.eq(this.right);
+    }
+
+    /**
+     * Sums a column of values, as is done when rolling balances up the account hierarchy.
+     *
+     * @return the total
+     */
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public Money sum() {
+        Money total = new Money(BigDecimal.ZERO);
+        for (Money value : this.values) {
+            total = total.plus(value);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public Money accumulatorSum() {
+        final MoneyAccumulator total = new MoneyAccumulator();
+        for (Money value : this.values) {
+            total.add(value);
+        }
+        return total.toMoney();
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalPlus() {
+        return this.leftValue.add(this.rightValue).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalNegate() {
+        return this.leftValue.multiply(BigDecimal.valueOf(-1.0)).setScale(2,
+            RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public BigDecimal bigDecimalSum() {
+        BigDecimal total = BigDecimal.ZERO.setScale(2);
+        for (BigDecimal value : this.decimalValues) {
+            total = total.add(value).setScale(2, RoundingMode.HALF_EVEN);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public String toText() {
+        return this.left.toString();
+    }
+
+    @Benchmark
+    public String bigDecimalToText() {
+        return String.format("%.2f", this.leftValue); //$NON-NLS-1$
+    }
+}
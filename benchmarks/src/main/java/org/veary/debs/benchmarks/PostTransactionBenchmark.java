@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.Posting;
+import org.veary.debs.core.PostingMode;
+import org.veary.debs.facade.AccountFacade.BuiltInAccounts;
+import org.veary.debs.facade.SystemFacade;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Measures the throughput of {@link SystemFacade#postTransaction} and of
+ * {@link SystemFacade#postTransactions}.
+ *
+ * <p><b>Responsibility:</b> Posts between two actual accounts which sit {@code depth} group
+ * accounts below the built-in groups, so that the cost of the balance rollup can be seen for
+ * each {@link BalanceMode}. In {@link PostingMode#DEFERRED} mode the rollup is left to the
+ * background materializer.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostTransactionBenchmark {
+
+    private static final Money AMOUNT = new Money(BigDecimal.valueOf(2500, 2));
+    private static final int BATCH = 100;
+
+    @Param({ "0", "4", "16" })
+    public int depth;
+
+    @Param({ "MATERIALIZED", "LEAF_ONLY" })
+    public BalanceMode balanceMode;
+
+    @Param({ "IMMEDIATE", "DEFERRED" })
+    public PostingMode postingMode;
+
+    private BenchmarkDatabase database;
+    private SystemFacade systemFacade;
+    private Account fromAccount;
+    private Account toAccount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.database = BenchmarkDatabase.create(this.balanceMode, this.postingMode);
+        this.systemFacade = this.database.getInstance(SystemFacade.class);
+        this.fromAccount = this.database.createAccountChain("Bench Asset", //$NON-NLS-1$
+            this.database.getBuiltInAccount(BuiltInAccounts.ASSETS_GROUP).getId(), this.depth,
+            Account.Types.ASSETS_GROUP, Account.Types.ASSET);
+        this.toAccount = this.database.createAccountChain("Bench Expense", //$NON-NLS-1$
+            this.database.getBuiltInAccount(BuiltInAccounts.EXPENSES_GROUP).getId(), this.depth,
+            Account.Types.EXPENSE_GROUP, Account.Types.EXPENSE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.database.close();
+    }
+
+    @Benchmark
+    public Long postTransaction() {
+        return this.systemFacade.postTransaction(newTransaction(),
+            Entry.newInstance(Entry.Types.FROM, this.fromAccount),
+            Entry.newInstance(Entry.Types.TO, this.toAccount));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Long> postTransactions() {
+        final List<Posting> postings = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            postings.add(Posting.of(newTransaction(),
+                Entry.newInstance(Entry.Types.FROM, this.fromAccount),
+                Entry.newInstance(Entry.Types.TO, this.toAccount)));
+        }
+        return this.systemFacade.postTransactions(postings);
+    }
+
+    private static Transaction newTransaction() {
+        return Transaction.newInstance(LocalDate.now(), "Benchmark", //$NON-NLS-1$
+            "BENCH", AMOUNT, false, false); //$NON-NLS-1$
+    }
+}
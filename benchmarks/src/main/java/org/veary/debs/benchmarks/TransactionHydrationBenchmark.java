@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.veary.debs.core.model.RowMapper;
+import org.veary.debs.core.model.TransactionEntity;
+import org.veary.debs.core.model.TransactionEntitySelect;
+import org.veary.debs.core.model.TransactionEntitySelect.Fields;
+
+/**
+ * <b>Purpose:</b> Measures the hydration of {@link TransactionEntity} objects from the rows of
+ * the transaction {@code SELECT} statements.
+ *
+ * <p><b>Responsibility:</b> Compares the {@code Map} based path used by the persistence
+ * library with the column position based {@link RowMapper}. The rows are held in memory so that
+ * only the mapping is measured.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionHydrationBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private List<Map<String, Object>> maps;
+    private SimpleResultSet resultSet;
+
+    @Setup
+    public void setUp() {
+        this.maps = new ArrayList<>(ROWS);
+        this.resultSet = new SimpleResultSet();
+        this.resultSet.setAutoClose(false);
+
+        for (Fields field : Fields.values()) {
+            this.resultSet.addColumn(field.toString(), getSqlType(field), 0, 0);
+        }
+
+        final Timestamp created = Timestamp.valueOf(LocalDateTime.now());
+        final Date date = Date.valueOf(LocalDate.now());
+        final BigDecimal amount = BigDecimal.valueOf(12345, 2);
+
+        for (int i = 0; i < ROWS; i++) {
+            final Map<String, Object> row = new HashMap<>();
+            row.put(Fields.ID.toString(), Long.valueOf(i + 1L));
+            row.put(Fields.CREATED.toString(), created);
+            row.put(Fields.DELETED.toString(), Boolean.FALSE);
+            row.put(Fields.TDATE.toString(), date);
+            row.put(Fields.REFERENCE.toString(), "REF-" + i); //$NON-NLS-1$
+            row.put(Fields.NARRATIVE.toString(), "Hydration benchmark"); //$NON-NLS-1$
+            row.put(Fields.VERSION.toString(), Integer.valueOf(0));
+            row.put(Fields.FROM_ID.toString(), Long.valueOf(2L * i + 1));
+            row.put(Fields.FROM_CREATED.toString(), created);
+            row.put(Fields.FROM_DELETED.toString(), Boolean.FALSE);
+            row.put(Fields.FROM_AMOUNT.toString(), amount.negate());
+            row.put(Fields.FROM_ETYPE.toString(), Integer.valueOf(1));
+            row.put(Fields.FROM_ACCOUNT_ID.toString(), Long.valueOf(10));
+            row.put(Fields.FROM_CLEARED.toString(), Boolean.FALSE);
+            row.put(Fields.FROM_CLEARED_TS.toString(), created);
+            row.put(Fields.TO_ID.toString(), Long.valueOf(2L * i + 2));
+            row.put(Fields.TO_CREATED.toString(), created);
+            row.put(Fields.TO_DELETED.toString(), Boolean.FALSE);
+            row.put(Fields.TO_AMOUNT.toString(), amount);
+            row.put(Fields.TO_ETYPE.toString(), Integer.valueOf(2));
+            row.put(Fields.TO_ACCOUNT_ID.toString(), Long.valueOf(11));
+            row.put(Fields.TO_CLEARED.toString(), Boolean.FALSE);
+            row.put(Fields.TO_CLEARED_TS.toString(), created);
+            this.maps.add(row);
+
+            final Object[] values = new Object[Fields.values().length];
+            for (Fields field : Fields.values()) {
+                values[field.ordinal()] = row.get(field.toString());
+            }
+            this.resultSet.addRow(values);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromMap(Blackhole blackhole) {
+        for (Map<String, Object> row : this.maps) {
+            blackhole.consume(new TransactionEntity(TransactionEntitySelect.newInstance(row)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromResultSet(Blackhole blackhole) throws SQLException {
+        final ResultSet rs = this.resultSet;
+        rs.beforeFirst();
+        final RowMapper<TransactionEntitySelect> mapper = TransactionEntitySelect
+            .rowMapper(rs.getMetaData());
+        while (rs.next()) {
+            blackhole.consume(new TransactionEntity(mapper.mapRow(rs)));
+        }
+    }
+
+    private static int getSqlType(Fields field) {
+        switch (field) {
+            case ID:
+            case FROM_ID:
+            case FROM_ACCOUNT_ID:
+            case TO_ID:
+            case TO_ACCOUNT_ID:
+                return Types.BIGINT;
+            case CREATED:
+            case FROM_CREATED:
+            case FROM_CLEARED_TS:
+            case TO_CREATED:
+            case TO_CLEARED_TS:
+                return Types.TIMESTAMP;
+            case DELETED:
+            case FROM_DELETED:
+            case FROM_CLEARED:
+            case TO_DELETED:
+            case TO_CLEARED:
+                return Types.BOOLEAN;
+            case TDATE:
+                return Types.DATE;
+            case FROM_AMOUNT:
+            case TO_AMOUNT:
+                return Types.DECIMAL;
+            case VERSION:
+            case FROM_ETYPE:
+            case TO_ETYPE:
+                return Types.INTEGER;
+            default:
+                return Types.VARCHAR;
+        }
+    }
+}
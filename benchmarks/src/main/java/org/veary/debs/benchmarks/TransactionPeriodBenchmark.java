@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.benchmarks;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.TransactionCriteria;
+import org.veary.debs.facade.AccountFacade.BuiltInAccounts;
+import org.veary.debs.facade.SystemFacade;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Measures {@link SystemFacade#getAllTransactionsOverPeriod} against a period
+ * holding {@code rows} transactions.
+ *
+ * <p><b>Responsibility:</b> Seeds the period, and the month either side of it, then reads the
+ * period both as a list and through the cursor based
+ * {@link SystemFacade#forEachTransaction} scan.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransactionPeriodBenchmark {
+
+    private static final YearMonth PERIOD = YearMonth.of(2020, 6);
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private SystemFacade systemFacade;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.database = BenchmarkDatabase.create();
+        this.systemFacade = this.database.getInstance(SystemFacade.class);
+
+        final Account from = this.database.createAccountChain("Bench Asset", //$NON-NLS-1$
+            this.database.getBuiltInAccount(BuiltInAccounts.ASSETS_GROUP).getId(), 0,
+            Account.Types.ASSETS_GROUP, Account.Types.ASSET);
+        final Account to = this.database.createAccountChain("Bench Expense", //$NON-NLS-1$
+            this.database.getBuiltInAccount(BuiltInAccounts.EXPENSES_GROUP).getId(), 0,
+            Account.Types.EXPENSE_GROUP, Account.Types.EXPENSE);
+
+        final int neighbours = Math.max(1, this.rows / 10);
+        this.database.seedTransactions(PERIOD.minusMonths(1), from, to, neighbours);
+        this.database.seedTransactions(PERIOD, from, to, this.rows);
+        this.database.seedTransactions(PERIOD.plusMonths(1), from, to, neighbours);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.database.close();
+    }
+
+    @Benchmark
+    public List<Transaction> getAllTransactionsOverPeriod() {
+        return this.systemFacade.getAllTransactionsOverPeriod(PERIOD, false);
+    }
+
+    @Benchmark
+    public void forEachTransactionOverPeriod(Blackhole blackhole) {
+        this.systemFacade.forEachTransaction(
+            TransactionCriteria.newInstance().withRange(DateRange.of(PERIOD)),
+            blackhole::consume);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+
+/**
+ * <b>Purpose:</b> Defines how monetary amounts ({@code ACCOUNT.BALANCE} and
+ * {@code ENTRY.AMOUNT}) are stored in the database.
+ *
+ * <p><b>Responsibility:</b> Converts a {@link Money} to the statement parameter expected by
+ * the schema, and a column value back to a {@code Money}. Switching an existing database to
+ * {@link #MINOR_UNITS} is done in place by {@code AdminDao#migrateDatabase()}; the change
+ * cannot be reverted.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public enum AmountStorage {
+
+    /**
+     * Amounts are stored as {@code DECIMAL} values. This is the default.
+     */
+    DECIMAL {
+        @Override
+        public Object toParameter(Money amount) {
+            return Objects.requireNonNull(amount, Messages.getParameterIsNull(AMOUNT_PARAM))
+                .getValue();
+        }
+
+        @Override
+        public Money fromSum(Object value) {
+            return new Money(toBigDecimal(value));
+        }
+    },
+
+    /**
+     * Amounts are stored as {@code BIGINT} values holding the number of minor units (cents),
+     * which are cheaper to store, compare and sum than variable length numerics.
+     */
+    MINOR_UNITS {
+        @Override
+        public Object toParameter(Money amount) {
+            return Long.valueOf(Objects
+                .requireNonNull(amount, Messages.getParameterIsNull(AMOUNT_PARAM))
+                .getMinorUnits());
+        }
+
+        @Override
+        public Money fromSum(Object value) {
+            return Money.ofMinorUnits(toBigDecimal(value).longValueExact());
+        }
+    };
+
+    private static final String AMOUNT_PARAM = "amount"; //$NON-NLS-1$
+
+    /**
+     * Returns the value to be bound to a statement parameter for the referenced amount.
+     *
+     * @param amount {@link Money}
+     * @return {@code BigDecimal} or {@code Long}
+     */
+    public abstract Object toParameter(Money amount);
+
+    /**
+     * Converts the result of a {@code SUM} over amount columns to {@link Money}. Unlike a plain
+     * column, the type of an aggregate is widened by the database ({@code BIGINT} is summed to
+     * {@code DECIMAL}), so the configured storage decides how the value is interpreted.
+     *
+     * @param value the aggregate value
+     * @return {@link Money}
+     */
+    public abstract Money fromSum(Object value);
+
+    /**
+     * Converts an amount column value, as returned by the driver, to {@link Money}. A
+     * {@code DECIMAL} column is returned as a {@code BigDecimal}, a {@code BIGINT} column as a
+     * {@code Long} holding minor units. This makes the conversion independent of the
+     * configured storage.
+     *
+     * @param value the column value
+     * @return {@link Money}
+     */
+    public static Money toMoney(Object value) {
+        Objects.requireNonNull(value, Messages.getParameterIsNull("value")); //$NON-NLS-1$
+
+        if (value instanceof BigDecimal) {
+            return new Money((BigDecimal) value);
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return Money.ofMinorUnits(((Number) value).longValue());
+        }
+        throw new IllegalArgumentException(Messages.getString(
+            "AmountStorage.toMoney.type", value.getClass().getName())); //$NON-NLS-1$
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        Objects.requireNonNull(value, Messages.getParameterIsNull("value")); //$NON-NLS-1$
+
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        throw new IllegalArgumentException(Messages.getString(
+            "AmountStorage.toMoney.type", value.getClass().getName())); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+/**
+ * <b>Purpose:</b> Defines how the balances of the <b>Group Accounts</b> are maintained.
+ *
+ * <p><b>Responsibility:</b> Selects between updating the group balances on every posting and
+ * deriving them whenever the accounts are read.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public enum BalanceMode {
+
+    /**
+     * Every posting updates the balance of the account and of all its parent group accounts.
+     * This is the default. The group balances are recomputed when the database is migrated, so
+     * that a database previously used in {@link #LEAF_ONLY} mode is corrected.
+     */
+    MATERIALIZED,
+
+    /**
+     * Only the <b>Actual Accounts</b> store a balance. The balances of the group accounts are
+     * derived from the actual accounts below them whenever they are read. The stored balance of
+     * a group account is not maintained in this mode.
+     */
+    LEAF_ONLY
+}
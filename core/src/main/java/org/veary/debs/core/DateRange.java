@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+
+/**
+ * <b>Purpose:</b> Represents a half-open range of dates: the start date is <i>inclusive</i>
+ * and the end date is <i>exclusive</i>.
+ *
+ * <p><b>Responsibility:</b> Allows a period to be queried as
+ * {@code TDATE >= start AND TDATE < end}, which can be served by an index on the date
+ * column.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class DateRange {
+
+    private final LocalDate start;
+    private final LocalDate end;
+
+    private DateRange(LocalDate start, LocalDate end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Static factory method.
+     *
+     * @param start the first date in the range (inclusive)
+     * @param end the date following the last date in the range (exclusive)
+     * @return a new {@code DateRange}
+     */
+    public static DateRange of(LocalDate start, LocalDate end) {
+        Objects.requireNonNull(start, Messages.getParameterIsNull("start")); //$NON-NLS-1$
+        Objects.requireNonNull(end, Messages.getParameterIsNull("end")); //$NON-NLS-1$
+
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException(
+                Messages.getString("DateRange.of.endbeforestart", end, start)); //$NON-NLS-1$
+        }
+
+        return new DateRange(start, end);
+    }
+
+    /**
+     * Static factory method. Returns the range covering every day of the referenced
+     * {@link YearMonth}.
+     *
+     * @param period {@link YearMonth} defining the year and month
+     * @return a new {@code DateRange}
+     */
+    public static DateRange of(YearMonth period) {
+        Objects.requireNonNull(period, Messages.getParameterIsNull("period")); //$NON-NLS-1$
+        return new DateRange(period.atDay(1), period.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Returns the first date in the range (inclusive).
+     *
+     * @return {@link LocalDate}
+     */
+    public LocalDate getStart() {
+        return this.start;
+    }
+
+    /**
+     * Returns the date following the last date in the range (exclusive).
+     *
+     * @return {@link LocalDate}
+     */
+    public LocalDate getEnd() {
+        return this.end;
+    }
+
+    /**
+     * Returns {@code true} if the referenced date falls within this range.
+     *
+     * @param date {@link LocalDate}
+     * @return {@code true} if {@code start <= date < end}
+     */
+    public boolean contains(LocalDate date) {
+        Objects.requireNonNull(date, Messages.getParameterIsNull("date")); //$NON-NLS-1$
+        return !date.isBefore(this.start) && date.isBefore(this.end);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DateRange)) {
+            return false;
+        }
+        DateRange that = (DateRange) obj;
+        return this.start.equals(that.start) && this.end.equals(that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.start, this.end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + this.start + ", " + this.end + ")"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
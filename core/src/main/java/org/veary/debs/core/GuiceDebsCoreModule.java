@@ -25,8 +25,10 @@
 package org.veary.debs.core;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.multibindings.OptionalBinder;
 
-import org.veary.debs.core.dao.RealAccountDao;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.core.dao.CachingAccountDao;
 import org.veary.debs.core.dao.RealAdminDao;
 import org.veary.debs.core.dao.RealEmployeeDao;
 import org.veary.debs.core.dao.RealRegistry;
@@ -60,7 +62,7 @@ public class GuiceDebsCoreModule extends AbstractModule {
     protected void configure() {
         bind(PersistenceManagerFactory.class);
         bind(Registry.class).to(RealRegistry.class);
-        bind(AccountDao.class).to(RealAccountDao.class);
+        bind(AccountDao.class).to(CachingAccountDao.class);
         bind(TransactionDao.class).to(RealTransactionDao.class);
         bind(AdminDao.class).to(RealAdminDao.class);
         bind(EmployeeDao.class).to(RealEmployeeDao.class);
@@ -68,5 +70,15 @@ public class GuiceDebsCoreModule extends AbstractModule {
         bind(SystemFacade.class).to(RealSystemFacade.class);
         bind(AdminFacade.class).to(RealAdminFacade.class);
         bind(EmployeeFacade.class).to(RealEmployeeFacade.class);
+        bind(BalanceMaterializer.class).asEagerSingleton();
+
+        OptionalBinder.newOptionalBinder(binder(), BalanceMode.class).setDefault()
+            .toInstance(BalanceMode.MATERIALIZED);
+        OptionalBinder.newOptionalBinder(binder(), PostingMode.class).setDefault()
+            .toInstance(PostingMode.IMMEDIATE);
+        OptionalBinder.newOptionalBinder(binder(), AmountStorage.class).setDefault()
+            .toInstance(AmountStorage.DECIMAL);
+        OptionalBinder.newOptionalBinder(binder(), RetryPolicy.class).setDefault()
+            .toInstance(new RetryPolicy());
     }
 }
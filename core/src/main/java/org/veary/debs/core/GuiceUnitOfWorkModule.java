@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.matcher.Matchers;
+
+import javax.sql.DataSource;
+
+import org.veary.debs.core.dao.TransactionalInterceptor;
+import org.veary.debs.core.dao.UnitOfWorkDataSource;
+
+/**
+ * <b>Purpose:</b> Guice module for units of work.
+ *
+ * <p><b>Responsibility:</b> Binds the {@code DataSource} to the {@link UnitOfWorkDataSource}, so
+ * that the DAOs join the unit of work active on the calling thread, and runs the methods marked
+ * {@link Transactional} within one. The database's own {@code DataSource} must be bound
+ * elsewhere with the name {@value UnitOfWorkDataSource#TARGET}.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class GuiceUnitOfWorkModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        bind(DataSource.class).to(UnitOfWorkDataSource.class);
+        bindInterceptor(Matchers.any(), Matchers.annotatedWith(Transactional.class),
+            new TransactionalInterceptor(getProvider(UnitOfWorkDataSource.class)));
+        bindInterceptor(Matchers.annotatedWith(Transactional.class), Matchers.any(),
+            new TransactionalInterceptor(getProvider(UnitOfWorkDataSource.class)));
+    }
+}
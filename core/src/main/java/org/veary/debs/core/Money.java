@@ -31,9 +31,12 @@ import java.util.Objects;
 import org.veary.debs.Messages;
 
 /**
- * <b>Purpose:</b> Represents a monetary value. Internally, the value is stored as a
- * {@link BigDecimal} with a <i>scale</i> of 2 and <i>rounding</i> set to
- * {@link RoundingMode#HALF_EVEN}.
+ * <b>Purpose:</b> Represents a monetary value with a <i>scale</i> of 2. Values given as a
+ * {@link BigDecimal} are rounded using {@link RoundingMode#HALF_EVEN}.
+ *
+ * <p>Internally, the value is stored as a {@code long} number of minor units (cents), so the
+ * arithmetic does not allocate anything other than the resulting {@code Money}. An
+ * {@link ArithmeticException} is thrown if a value does not fit.
  *
  * @author Marc L. Veary
  * @since 1.0
@@ -42,19 +45,36 @@ public final class Money {
 
     private static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
     private static final int SCALE = 2;
+    private static final int MINOR_UNITS = 100;
     private static final String THAT_PARAM = "that"; //$NON-NLS-1$
 
-    private final BigDecimal value;
+    private final long minorUnits;
 
     /**
      * Constructor. The given {@link BigDecimal} will be have it's scale set to in the
      * constructor.
      *
      * @param value {@link BigDecimal}
+     * @throws ArithmeticException if the value does not fit into a {@code long} number of minor
+     *     units
      */
     public Money(BigDecimal value) {
-        this.value = Objects.requireNonNull(value,
-            Messages.getParameterIsNull("value")).setScale(SCALE, ROUNDING); //$NON-NLS-1$
+        this(Objects.requireNonNull(value, Messages.getParameterIsNull("value")) //$NON-NLS-1$
+            .setScale(SCALE, ROUNDING).unscaledValue().longValueExact());
+    }
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Returns a {@code Money} for the given number of minor units (cents).
+     *
+     * @param minorUnits the value in minor units
+     * @return {@code Money}
+     */
+    public static Money ofMinorUnits(long minorUnits) {
+        return new Money(minorUnits);
     }
 
     /**
@@ -63,7 +83,16 @@ public final class Money {
      * @return {@link BigDecimal}
      */
     public BigDecimal getValue() {
-        return this.value;
+        return BigDecimal.valueOf(this.minorUnits, SCALE);
+    }
+
+    /**
+     * Return the value as a number of minor units (cents).
+     *
+     * @return long
+     */
+    public long getMinorUnits() {
+        return this.minorUnits;
     }
 
     /**
@@ -72,7 +101,7 @@ public final class Money {
      * @return boolean
      */
     public boolean isPlus() {
-        return this.value.compareTo(BigDecimal.ZERO) > 0;
+        return this.minorUnits > 0;
     }
 
     /**
@@ -81,7 +110,7 @@ public final class Money {
      * @return boolean
      */
     public boolean isMinus() {
-        return this.value.compareTo(BigDecimal.ZERO) < 0;
+        return this.minorUnits < 0;
     }
 
     /**
@@ -90,7 +119,7 @@ public final class Money {
      * @return boolean
      */
     public boolean isZero() {
-        return this.value.compareTo(BigDecimal.ZERO) == 0;
+        return this.minorUnits == 0;
     }
 
     /**
@@ -99,7 +128,7 @@ public final class Money {
      * @return a new <code>Money</code> object.
      */
     public Money negate() {
-        return times(-1);
+        return new Money(Math.negateExact(this.minorUnits));
     }
 
     /**
@@ -109,9 +138,8 @@ public final class Money {
      * @return a new {@code Money} object instance.
      */
     public Money plus(Money that) {
-        return new Money(
-            this.value.add(
-                Objects.requireNonNull(that, Messages.getParameterIsNull(THAT_PARAM)).value));
+        return new Money(Math.addExact(this.minorUnits,
+            Objects.requireNonNull(that, Messages.getParameterIsNull(THAT_PARAM)).minorUnits));
     }
 
     /**
@@ -121,9 +149,8 @@ public final class Money {
      * @return a new {@code Money} object instance.
      */
     public Money minus(Money that) {
-        return new Money(
-            this.value.subtract(
-                Objects.requireNonNull(that, Messages.getParameterIsNull(THAT_PARAM)).value));
+        return new Money(Math.subtractExact(this.minorUnits,
+            Objects.requireNonNull(that, Messages.getParameterIsNull(THAT_PARAM)).minorUnits));
     }
 
     /**
@@ -134,7 +161,7 @@ public final class Money {
      * @return a new <code>Money</code> object.
      */
     public Money times(double factor) {
-        return new Money(this.value.multiply(BigDecimal.valueOf(factor)));
+        return new Money(getValue().multiply(BigDecimal.valueOf(factor)));
     }
 
     /**
@@ -145,8 +172,8 @@ public final class Money {
      * @return {@code true} if amounts are equal, otherwise {@code false}
      */
     public boolean eq(Money that) {
-        return this.value.equals(
-            Objects.requireNonNull(that, Messages.getParameterIsNull(THAT_PARAM)).value);
+        return this.minorUnits == Objects.requireNonNull(that,
+            Messages.getParameterIsNull(THAT_PARAM)).minorUnits;
     }
 
     /**
@@ -155,6 +182,17 @@ public final class Money {
      */
     @Override
     public String toString() {
-        return String.format("%.2f", this.value); //$NON-NLS-1$
+        final long units = Math.abs(this.minorUnits / MINOR_UNITS);
+        final long cents = Math.abs(this.minorUnits % MINOR_UNITS);
+
+        final StringBuilder sb = new StringBuilder(24);
+        if (this.minorUnits < 0) {
+            sb.append('-');
+        }
+        sb.append(units).append('.');
+        if (cents < 10) {
+            sb.append('0');
+        }
+        return sb.append(cents).toString();
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core;
+
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+
+/**
+ * <b>Purpose:</b> A mutable running total of {@link Money} values.
+ *
+ * <p><b>Responsibility:</b> Sums amounts in place, as a {@code long} number of minor units, so
+ * that totalling a column or rolling balances up a hierarchy does not create a {@code Money}
+ * object per step. Instances are not thread safe.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class MoneyAccumulator {
+
+    private static final String AMOUNT_PARAM = "amount"; //$NON-NLS-1$
+
+    private long total;
+
+    /**
+     * Adds the referenced amount to the total.
+     *
+     * @param amount {@link Money}
+     * @return this {@code MoneyAccumulator}
+     * @throws ArithmeticException if the total overflows
+     */
+    public MoneyAccumulator add(Money amount) {
+        this.total = Math.addExact(this.total,
+            Objects.requireNonNull(amount, Messages.getParameterIsNull(AMOUNT_PARAM))
+                .getMinorUnits());
+        return this;
+    }
+
+    /**
+     * Subtracts the referenced amount from the total.
+     *
+     * @param amount {@link Money}
+     * @return this {@code MoneyAccumulator}
+     * @throws ArithmeticException if the total overflows
+     */
+    public MoneyAccumulator subtract(Money amount) {
+        this.total = Math.subtractExact(this.total,
+            Objects.requireNonNull(amount, Messages.getParameterIsNull(AMOUNT_PARAM))
+                .getMinorUnits());
+        return this;
+    }
+
+    /**
+     * Adds the absolute value of the referenced amount to the total.
+     *
+     * @param amount {@link Money}
+     * @return this {@code MoneyAccumulator}
+     * @throws ArithmeticException if the total overflows
+     */
+    public MoneyAccumulator addAbsolute(Money amount) {
+        Objects.requireNonNull(amount, Messages.getParameterIsNull(AMOUNT_PARAM));
+        return amount.isMinus() ? subtract(amount) : add(amount);
+    }
+
+    /**
+     * Returns {@code true} if the total is <i>negative</i>.
+     *
+     * @return boolean
+     */
+    public boolean isMinus() {
+        return this.total < 0;
+    }
+
+    /**
+     * Resets the total to zero.
+     *
+     * @return this {@code MoneyAccumulator}
+     */
+    public MoneyAccumulator reset() {
+        this.total = 0;
+        return this;
+    }
+
+    /**
+     * Returns the current total.
+     *
+     * @return {@link Money}
+     */
+    public Money toMoney() {
+        return Money.ofMinorUnits(this.total);
+    }
+
+    @Override
+    public String toString() {
+        return toMoney().toString();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+
+/**
+ * <b>Purpose:</b> The position of a transaction in the ledger's display order, which is
+ * {@code TDATE DESC, ID DESC}.
+ *
+ * <p><b>Responsibility:</b> Acts as the cursor for keyset pagination. A page is fetched
+ * relative to a key with {@code (TDATE, ID)} comparisons, so the cost of fetching a page does
+ * not depend on how far into the ledger the page lies.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class PageKey {
+
+    private static final String SEPARATOR = "_"; //$NON-NLS-1$
+
+    private final LocalDate date;
+    private final Long id;
+
+    private PageKey(LocalDate date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    /**
+     * Static factory method.
+     *
+     * @param date the transaction date
+     * @param id the transaction's unique identifier
+     * @return a new {@code PageKey}
+     */
+    public static PageKey of(LocalDate date, Long id) {
+        Objects.requireNonNull(date, Messages.getParameterIsNull("date")); //$NON-NLS-1$
+        Objects.requireNonNull(id, Messages.getParameterIsNull("id")); //$NON-NLS-1$
+        return new PageKey(date, id);
+    }
+
+    /**
+     * Static factory method. Parses the form produced by {@link #toString()}, e.g.
+     * {@code 2019-05-31_1234}.
+     *
+     * @param value the {@code String} to parse
+     * @return a new {@code PageKey}
+     * @throws IllegalArgumentException if the value is not a valid key
+     */
+    public static PageKey parse(String value) {
+        Objects.requireNonNull(value, Messages.getParameterIsNull("value")); //$NON-NLS-1$
+
+        final int index = value.indexOf(SEPARATOR);
+        if (index < 1) {
+            throw new IllegalArgumentException(
+                Messages.getString("PageKey.parse.invalid", value)); //$NON-NLS-1$
+        }
+
+        try {
+            return new PageKey(LocalDate.parse(value.substring(0, index)),
+                Long.valueOf(value.substring(index + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException(
+                Messages.getString("PageKey.parse.invalid", value), e); //$NON-NLS-1$
+        }
+    }
+
+    public LocalDate getDate() {
+        return this.date;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PageKey)) {
+            return false;
+        }
+        PageKey that = (PageKey) obj;
+        return this.date.equals(that.date) && this.id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.date, this.id);
+    }
+
+    @Override
+    public String toString() {
+        return this.date + SEPARATOR + this.id;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+
+/**
+ * <b>Purpose:</b> Describes which page of transactions to fetch.
+ *
+ * <p><b>Responsibility:</b> Pairs a page size with a direction relative to a {@link PageKey}.
+ * Transactions are listed most recent first, so <i>older</i> moves forward through the ledger
+ * (the next page) and <i>newer</i> moves backward (the previous page).
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class PageRequest {
+
+    /**
+     * The page size used when none has been configured.
+     */
+    public static final int DEFAULT_SIZE = 50;
+
+    /**
+     * <b>Purpose:</b> The direction in which to read from the key.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    public enum Direction {
+        /**
+         * The most recent transactions. The key is not used.
+         */
+        FIRST,
+        /**
+         * The transactions which follow the key in display order.
+         */
+        OLDER,
+        /**
+         * The transactions which precede the key in display order.
+         */
+        NEWER
+    }
+
+    private final Direction direction;
+    private final PageKey key;
+    private final int size;
+
+    private PageRequest(Direction direction, PageKey key, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException(
+                Messages.getString("PageRequest.size.invalid", size)); //$NON-NLS-1$
+        }
+        this.direction = direction;
+        this.key = key;
+        this.size = size;
+    }
+
+    /**
+     * Static factory method. Requests the page holding the most recent transactions.
+     *
+     * @param size the maximum number of transactions on the page
+     * @return a new {@code PageRequest}
+     */
+    public static PageRequest first(int size) {
+        return new PageRequest(Direction.FIRST, null, size);
+    }
+
+    /**
+     * Static factory method. Requests the page following the referenced key.
+     *
+     * @param key the key of the last transaction on the current page
+     * @param size the maximum number of transactions on the page
+     * @return a new {@code PageRequest}
+     */
+    public static PageRequest older(PageKey key, int size) {
+        Objects.requireNonNull(key, Messages.getParameterIsNull("key")); //$NON-NLS-1$
+        return new PageRequest(Direction.OLDER, key, size);
+    }
+
+    /**
+     * Static factory method. Requests the page preceding the referenced key.
+     *
+     * @param key the key of the first transaction on the current page
+     * @param size the maximum number of transactions on the page
+     * @return a new {@code PageRequest}
+     */
+    public static PageRequest newer(PageKey key, int size) {
+        Objects.requireNonNull(key, Messages.getParameterIsNull("key")); //$NON-NLS-1$
+        return new PageRequest(Direction.NEWER, key, size);
+    }
+
+    public Direction getDirection() {
+        return this.direction;
+    }
+
+    /**
+     * Returns the key to read from.
+     *
+     * @return {@link PageKey}, or {@code null} if the direction is {@link Direction#FIRST}
+     */
+    public PageKey getKey() {
+        return this.key;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core;
+
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> A {@link Transaction} together with the two entries to be posted with it.
+ *
+ * <p><b>Responsibility:</b> Carries the arguments of
+ * {@link org.veary.debs.facade.SystemFacade#postTransaction} for each element of a bulk
+ * posting, checking the type of each entry up front.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class Posting {
+
+    private final Transaction transaction;
+    private final Entry fromEntry;
+    private final Entry toEntry;
+
+    private Posting(Transaction transaction, Entry fromEntry, Entry toEntry) {
+        this.transaction = transaction;
+        this.fromEntry = fromEntry;
+        this.toEntry = toEntry;
+    }
+
+    /**
+     * Static factory method.
+     *
+     * @param transaction {@link Transaction}
+     * @param fromEntry {@link Entry} describing where the value came from
+     * @param toEntry {@link Entry} describing where the value went to
+     * @return a new {@code Posting}
+     */
+    public static Posting of(Transaction transaction, Entry fromEntry, Entry toEntry) {
+        Objects.requireNonNull(transaction,
+            Messages.getParameterIsNull("transaction")); //$NON-NLS-1$
+        Objects.requireNonNull(fromEntry, Messages.getParameterIsNull("fromEntry")); //$NON-NLS-1$
+        Objects.requireNonNull(toEntry, Messages.getParameterIsNull("toEntry")); //$NON-NLS-1$
+
+        if (fromEntry.getType() != Entry.Types.FROM) {
+            throw new IllegalArgumentException(
+                Messages.getString("Posting.of.fromEntry.type", fromEntry.getType())); //$NON-NLS-1$
+        }
+        if (toEntry.getType() != Entry.Types.TO) {
+            throw new IllegalArgumentException(
+                Messages.getString("Posting.of.toEntry.type", toEntry.getType())); //$NON-NLS-1$
+        }
+
+        return new Posting(transaction, fromEntry, toEntry);
+    }
+
+    /**
+     * Returns the transaction to be posted.
+     *
+     * @return {@link Transaction}
+     */
+    public Transaction getTransaction() {
+        return this.transaction;
+    }
+
+    /**
+     * Returns the entry describing where the value came from.
+     *
+     * @return {@link Entry}
+     */
+    public Entry getFromEntry() {
+        return this.fromEntry;
+    }
+
+    /**
+     * Returns the entry describing where the value went to.
+     *
+     * @return {@link Entry}
+     */
+    public Entry getToEntry() {
+        return this.toEntry;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+/**
+ * <b>Purpose:</b> Defines when the account balances are brought up to date with a posting.
+ *
+ * <p><b>Responsibility:</b> Selects between updating the balances within the posting's own
+ * database transaction and folding them in later, in batches, from an append-only journal.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public enum PostingMode {
+
+    /**
+     * Every posting updates the account balances and the monthly balance snapshots within the
+     * same database transaction. This is the default.
+     */
+    IMMEDIATE,
+
+    /**
+     * A posting only inserts its {@code ENTRY} and {@code TRANSACTION} rows and appends its
+     * balance changes to the {@code BALANCE_JOURNAL}. The journal is folded into the account
+     * balances and the monthly balance snapshots in the background, so the balances read show
+     * the postings materialized so far. Use {@code SystemFacade#awaitBalances} to wait for the
+     * postings made before the call.
+     */
+    DEFERRED
+}
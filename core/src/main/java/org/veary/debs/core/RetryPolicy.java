@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.core.dao.UnitOfWorkDataSource;
+
+/**
+ * <b>Purpose:</b> Defines how often, and after how long a pause, a write which failed because
+ * of contention for row locks is tried again.
+ *
+ * <p><b>Responsibility:</b> Under concurrent postings the database may give up waiting for a
+ * lock ({@code 50200}), detect a deadlock ({@code 40001}) or reject a concurrent update
+ * ({@code 90131}). Such a failure leaves nothing written, so {@link #execute(Supplier)} runs
+ * the work again in a new database transaction, up to the maximum number of attempts. Before
+ * each retry it sleeps for an exponentially growing backoff, of which a random half is taken
+ * so that the writers which collided do not collide again. Every other failure, a duplicate
+ * key included, is rethrown straight away.
+ *
+ * <p>Within a unit of work the work is tried again only if nothing has yet been written in
+ * it, since the failure rolls back the whole unit; see
+ * {@link UnitOfWorkDataSource#rollbackToStart()}.
+ *
+ * <p>The number of retries, and of writes which still failed on their last attempt, are
+ * counted for monitoring.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class RetryPolicy {
+
+    /** The default maximum number of attempts. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /** The default backoff before the first retry, in milliseconds. */
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 20L;
+
+    /** The default maximum backoff, in milliseconds. */
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 1000L;
+
+    private static final Logger LOG = LogManager.getLogger(RetryPolicy.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+
+    private static final int LOCK_TIMEOUT = 50200;
+    private static final int DEADLOCK = 40001;
+    private static final int CONCURRENT_UPDATE = 90131;
+    private static final String SERIALIZATION_FAILURE = "40001"; //$NON-NLS-1$
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * Constructor. Uses the default attempts and backoff.
+     */
+    public RetryPolicy() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxAttempts the maximum number of times the work is run, at least 1; 1 disables
+     *     retries
+     * @param initialBackoffMillis the backoff before the first retry, doubled for each further
+     *     retry
+     * @param maxBackoffMillis the maximum backoff, no less than the initial backoff
+     */
+    public RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException(Messages.getString(
+                "RetryPolicy.maxAttempts.invalid", Integer.valueOf(maxAttempts))); //$NON-NLS-1$
+        }
+        if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException(Messages.getString(
+                "RetryPolicy.backoff.invalid", Long.valueOf(initialBackoffMillis), //$NON-NLS-1$
+                Long.valueOf(maxBackoffMillis)));
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Runs the work, running it again if it fails because of lock contention and may be
+     * retried.
+     *
+     * <p>The work must write within its own database transaction and must have no effects
+     * outside it until it returns, so that a failed attempt can be discarded.
+     *
+     * @param <T> the type of the result
+     * @param work the work
+     * @return the result of the work
+     */
+    public <T> T execute(Supplier<T> work) {
+        LOG.trace(LOG_CALLED);
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                return work.get();
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                if (attempt >= this.maxAttempts || UnitOfWorkDataSource.isActive()
+                    && !UnitOfWorkDataSource.rollbackToStart()) {
+                    this.exhausted.increment();
+                    throw e;
+                }
+                this.retries.increment();
+                LOG.warn("Write attempt {} of {} failed on lock contention, retrying: {}",
+                    Integer.valueOf(attempt), Integer.valueOf(this.maxAttempts),
+                    e.getMessage());
+                if (!pause(attempt)) {
+                    this.exhausted.increment();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the exception, or one of its causes, is an {@code SQLException}
+     * reporting a lock timeout, a deadlock or a concurrent update. A duplicate key is not
+     * retried: the rows which postings may race to create are merged rather than inserted.
+     *
+     * @param e the exception
+     * @return boolean
+     */
+    public static boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                final SQLException sqlException = (SQLException) cause;
+                final int code = sqlException.getErrorCode();
+                if (code == LOCK_TIMEOUT || code == DEADLOCK || code == CONCURRENT_UPDATE
+                    || SERIALIZATION_FAILURE.equals(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the maximum number of attempts.
+     *
+     * @return int
+     */
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Returns the number of times a write has been tried again.
+     *
+     * @return long
+     */
+    public long getRetryCount() {
+        return this.retries.sum();
+    }
+
+    /**
+     * Returns the number of writes which failed because of lock contention and could not be
+     * tried again, either because their attempts were used up or because they were made within
+     * a unit of work which had already written.
+     *
+     * @return long
+     */
+    public long getExhaustedCount() {
+        return this.exhausted.sum();
+    }
+
+    /**
+     * Sleeps before the retry following the referenced attempt.
+     *
+     * @return {@code false} if the thread was interrupted, in which case it is not retried
+     */
+    private boolean pause(int attempt) {
+        final long ceiling = Math.min(this.maxBackoffMillis,
+            this.initialBackoffMillis << Math.min(attempt - 1, 30));
+        final long half = ceiling / 2;
+        final long backoff = half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+        if (backoff == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(backoff);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+import org.veary.debs.model.Account;
+
+/**
+ * <b>Purpose:</b> Selects the transactions visited by a full scan of the ledger.
+ *
+ * <p><b>Responsibility:</b> Optionally restricts the scan to a {@link DateRange} and/or to an
+ * {@link Account}, and carries the JDBC fetch size: the number of rows the driver is asked to
+ * hold in memory at any one time.
+ *
+ * <p>Instances are immutable; each {@code with...} method returns a new instance.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class TransactionCriteria {
+
+    /**
+     * The fetch size used when none has been set.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private final DateRange range;
+    private final Account account;
+    private final boolean includeDeleted;
+    private final int fetchSize;
+
+    private TransactionCriteria(DateRange range, Account account, boolean includeDeleted,
+        int fetchSize) {
+        this.range = range;
+        this.account = account;
+        this.includeDeleted = includeDeleted;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Static factory method. Selects every transaction which has not been deleted.
+     *
+     * @return a new {@code TransactionCriteria}
+     */
+    public static TransactionCriteria newInstance() {
+        return new TransactionCriteria(null, null, false, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Restricts the scan to the transactions posted within the referenced range.
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @return a new {@code TransactionCriteria}
+     */
+    public TransactionCriteria withRange(DateRange range) {
+        Objects.requireNonNull(range, Messages.getParameterIsNull("range")); //$NON-NLS-1$
+        return new TransactionCriteria(range, this.account, this.includeDeleted,
+            this.fetchSize);
+    }
+
+    /**
+     * Restricts the scan to the transactions relating to the referenced account.
+     *
+     * @param account the {@code Account}
+     * @return a new {@code TransactionCriteria}
+     */
+    public TransactionCriteria withAccount(Account account) {
+        Objects.requireNonNull(account, Messages.getParameterIsNull("account")); //$NON-NLS-1$
+        return new TransactionCriteria(this.range, account, this.includeDeleted,
+            this.fetchSize);
+    }
+
+    /**
+     * Sets whether deleted transactions are visited.
+     *
+     * @param includeDeleted indicates which records to include
+     * @return a new {@code TransactionCriteria}
+     */
+    public TransactionCriteria withDeleted(boolean includeDeleted) {
+        return new TransactionCriteria(this.range, this.account, includeDeleted,
+            this.fetchSize);
+    }
+
+    /**
+     * Sets the JDBC fetch size.
+     *
+     * @param fetchSize the number of rows to fetch per round trip
+     * @return a new {@code TransactionCriteria}
+     */
+    public TransactionCriteria withFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException(
+                Messages.getString("TransactionCriteria.fetchSize.invalid", //$NON-NLS-1$
+                    fetchSize));
+        }
+        return new TransactionCriteria(this.range, this.account, this.includeDeleted,
+            fetchSize);
+    }
+
+    /**
+     * Returns the range to which the scan is restricted.
+     *
+     * @return {@link DateRange}, or {@code null} for all dates
+     */
+    public DateRange getRange() {
+        return this.range;
+    }
+
+    /**
+     * Returns the account to which the scan is restricted.
+     *
+     * @return {@link Account}, or {@code null} for all accounts
+     */
+    public Account getAccount() {
+        return this.account;
+    }
+
+    public boolean isIncludeDeleted() {
+        return this.includeDeleted;
+    }
+
+    public int getFetchSize() {
+        return this.fetchSize;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.veary.debs.Messages;
+import org.veary.debs.model.TransactionSummary;
+
+/**
+ * <b>Purpose:</b> One page of {@link TransactionSummary} objects, most recent first.
+ *
+ * <p><b>Responsibility:</b> Carries the keys needed to request the adjacent pages and the
+ * total number of transactions which could be paged through. Only the first page is counted:
+ * the adjacent pages are detected by reading one row past the page, so that paging does not
+ * repeat the count.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class TransactionPage {
+
+    /**
+     * The total count of a page which was not counted.
+     */
+    public static final long UNCOUNTED = -1L;
+
+    private final List<TransactionSummary> content;
+    private final boolean hasNewer;
+    private final boolean hasOlder;
+    private final long totalCount;
+
+    /**
+     * Constructor.
+     *
+     * @param content the transactions on this page, most recent first
+     * @param hasNewer {@code true} if there is a page before this one
+     * @param hasOlder {@code true} if there is a page after this one
+     * @param totalCount the total number of transactions, or {@link #UNCOUNTED}
+     */
+    public TransactionPage(List<TransactionSummary> content, boolean hasNewer,
+        boolean hasOlder, long totalCount) {
+        Objects.requireNonNull(content, Messages.getParameterIsNull("content")); //$NON-NLS-1$
+        this.content = Collections.unmodifiableList(content);
+        this.hasNewer = hasNewer;
+        this.hasOlder = hasOlder;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Returns the transactions on this page.
+     *
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    public List<TransactionSummary> getContent() {
+        return this.content;
+    }
+
+    /**
+     * Returns {@code true} if there are more recent transactions than those on this page.
+     *
+     * @return boolean
+     */
+    public boolean hasNewer() {
+        return this.hasNewer;
+    }
+
+    /**
+     * Returns {@code true} if there are older transactions than those on this page.
+     *
+     * @return boolean
+     */
+    public boolean hasOlder() {
+        return this.hasOlder;
+    }
+
+    /**
+     * Returns the key with which to request the preceding page.
+     *
+     * @return {@link PageKey}, or {@code null} if there is no preceding page
+     */
+    public PageKey getNewerKey() {
+        if (!this.hasNewer || this.content.isEmpty()) {
+            return null;
+        }
+        return keyOf(this.content.get(0));
+    }
+
+    /**
+     * Returns the key with which to request the following page.
+     *
+     * @return {@link PageKey}, or {@code null} if there is no following page
+     */
+    public PageKey getOlderKey() {
+        if (!this.hasOlder || this.content.isEmpty()) {
+            return null;
+        }
+        return keyOf(this.content.get(this.content.size() - 1));
+    }
+
+    /**
+     * Returns {@code true} if the total number of transactions was counted for this page.
+     *
+     * @return boolean
+     */
+    public boolean isCounted() {
+        return this.totalCount != UNCOUNTED;
+    }
+
+    /**
+     * Returns the total number of transactions, across all pages.
+     *
+     * @return long, or {@link #UNCOUNTED} if only the first page was counted
+     */
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    private static PageKey keyOf(TransactionSummary summary) {
+        return PageKey.of(summary.getDate(), summary.getId());
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.dao;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.model.AccountEntity;
+import org.veary.debs.model.Account;
+
+/**
+ * <b>Purpose:</b> Process-wide snapshot of the {@code DEBS.ACCOUNT} table, indexed by id and by
+ * name.
+ *
+ * <p><b>Responsibility:</b> The snapshot is held in two parts, each loaded with a single query
+ * on first use. The structure of the accounts is discarded by {@link #invalidate()} only when an
+ * account is created or changed, while their balances are discarded separately by
+ * {@link #invalidateBalances()} whenever a balance is written, so posting transactions never
+ * reloads the structure. Lookups return copies, so callers are free to modify the returned
+ * objects.
+ *
+ * <p>An invalidation made within a unit of work (see {@link UnitOfWorkDataSource}) is repeated
+ * when the unit of work ends, and until then the unit of work loads the invalidated part of its
+ * own, so that rows it has not yet committed are never shared with other threads.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class AccountCache {
+
+    /**
+     * <b>Purpose:</b> Immutable id and name indexes over one load of the table, along with the
+     * accounts whose balances are striped.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, Account> byId;
+        private final Map<String, Account> byName;
+        private final Set<Long> striped;
+
+        Snapshot(List<Account> accounts, Set<Long> striped) {
+            final Map<Long, Account> ids = new HashMap<>();
+            final Map<String, Account> names = new HashMap<>();
+            for (Account account : accounts) {
+                ids.put(account.getId(), account);
+                names.put(account.getName(), account);
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.striped = Collections.unmodifiableSet(striped);
+        }
+    }
+
+    /**
+     * <b>Purpose:</b> One separately invalidated part of the cache.
+     *
+     * <p><b>Responsibility:</b> Holds the shared value, or the value private to the unit of work
+     * active on the calling thread once the part has been invalidated within it. The instance
+     * itself is the key of the unit of work resource.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    private final class Part<T> {
+
+        private final Supplier<T> loader;
+        private volatile T value;
+
+        Part(Supplier<T> loader) {
+            this.loader = loader;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get() {
+            final Object resource = UnitOfWorkDataSource.getResource(this);
+            if (resource != null) {
+                if (resource != STALE) {
+                    return (T) resource;
+                }
+                final T own = this.loader.get();
+                UnitOfWorkDataSource.bindResource(this, own);
+                return own;
+            }
+
+            T current = this.value;
+            if (current != null) {
+                return current;
+            }
+
+            final long loadGeneration = AccountCache.this.generation;
+            current = this.loader.get();
+
+            synchronized (AccountCache.this) {
+                // Do not install a value that was loaded across an invalidation
+                if (loadGeneration == AccountCache.this.generation) {
+                    this.value = current;
+                }
+            }
+
+            return current;
+        }
+
+        boolean isPrivate() {
+            return UnitOfWorkDataSource.getResource(this) != null;
+        }
+
+        void invalidate() {
+            final boolean first = UnitOfWorkDataSource.getResource(this) == null;
+            if (UnitOfWorkDataSource.bindResource(this, STALE) && first) {
+                UnitOfWorkDataSource.afterCompletion(this::discard);
+            }
+            discard();
+        }
+
+        private void discard() {
+            synchronized (AccountCache.this) {
+                AccountCache.this.generation++;
+                this.value = null;
+            }
+        }
+    }
+
+    private static final Logger LOG = LogManager.getLogger(AccountCache.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+    private static final Object STALE = new Object();
+
+    private final Part<Snapshot> structure;
+    private final Part<Map<Long, Money>> balances;
+
+    private volatile long generation;
+
+    /**
+     * Constructor.
+     *
+     * @param dao {@link RealAccountDao} used to load the snapshot
+     */
+    @Inject
+    public AccountCache(RealAccountDao dao) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(dao, Messages.getParameterIsNull("dao")); //$NON-NLS-1$
+        this.structure = new Part<>(
+            () -> new Snapshot(dao.getAllAccounts(true), dao.getStripedAccountIds()));
+        this.balances = new Part<>(dao::getAccountBalances);
+    }
+
+    /**
+     * Returns a copy of the cached {@code Account} with the referenced id.
+     *
+     * @param id the unique identifier of the account
+     * @return {@code Optional<Account>}, empty if the account is not in the snapshot
+     */
+    public Optional<Account> getById(Long id) {
+        LOG.trace(LOG_CALLED);
+        return copyOf(this.structure.get().byId.get(id));
+    }
+
+    /**
+     * Returns a copy of the cached {@code Account} with the referenced name.
+     *
+     * @param name the unique name of the account
+     * @return {@code Optional<Account>}, empty if the account is not in the snapshot
+     */
+    public Optional<Account> getByName(String name) {
+        LOG.trace(LOG_CALLED);
+        return copyOf(this.structure.get().byName.get(name));
+    }
+
+    /**
+     * Returns {@code true} if the balance of the referenced account is striped, so that
+     * postings to it update one of several rows rather than its {@code ACCOUNT} row.
+     *
+     * @param id the unique identifier of the account
+     * @return boolean
+     */
+    public boolean isStriped(Long id) {
+        LOG.trace(LOG_CALLED);
+        return this.structure.get().striped.contains(id);
+    }
+
+    /**
+     * Returns a counter which is incremented by every {@link #invalidate()} and
+     * {@link #invalidateBalances()}. Values derived from the accounts can be cached against it
+     * and discarded once it changes.
+     *
+     * @return the current generation
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Returns {@code true} if the accounts or balances have been changed within the unit of work
+     * active on the calling thread, in which case the lookups are answered from a snapshot of
+     * its own which may hold uncommitted rows. Values derived from the accounts must then be
+     * neither taken from, nor stored in, a cache shared with other threads.
+     *
+     * @return boolean
+     */
+    public boolean isPrivate() {
+        return this.structure.isPrivate() || this.balances.isPrivate();
+    }
+
+    /**
+     * Discards the whole snapshot, after an account has been created or changed. The next
+     * lookup reloads it.
+     */
+    public void invalidate() {
+        LOG.trace(LOG_CALLED);
+        this.structure.invalidate();
+        this.balances.invalidate();
+    }
+
+    /**
+     * Discards the cached balances, after the balance of an account has been written. The next
+     * lookup reloads them, but not the rest of the snapshot.
+     */
+    public void invalidateBalances() {
+        LOG.trace(LOG_CALLED);
+        this.balances.invalidate();
+    }
+
+    private Optional<Account> copyOf(Account account) {
+        if (account == null) {
+            return Optional.empty();
+        }
+
+        final Money balance = this.balances.get().get(account.getId());
+        if (balance == null) {
+            return Optional.empty();
+        }
+
+        final AccountEntity copy = new AccountEntity(account);
+        copy.setBalance(balance);
+        return Optional.of(copy);
+    }
+}
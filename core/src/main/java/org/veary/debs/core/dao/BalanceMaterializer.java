@@ -0,0 +1,233 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.dao;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.core.PostingMode;
+import org.veary.debs.dao.TransactionDao;
+
+/**
+ * <b>Purpose:</b> Background worker that folds the {@code BALANCE_JOURNAL} into the account
+ * balances in {@link PostingMode#DEFERRED} mode.
+ *
+ * <p><b>Responsibility:</b> A single daemon thread calls
+ * {@link TransactionDao#materializeBalances(int)} in batches of {@value #BATCH_SIZE} rows.
+ * The thread is started by the constructor but stays idle until the first call to
+ * {@link #request()}, so that the database can be initialized and migrated first. After that it
+ * runs whenever it is requested, and at least every {@value #INTERVAL_MILLIS}ms. In
+ * {@link PostingMode#IMMEDIATE} mode no thread is started and {@link #await(long, long)}
+ * folds any remaining journal rows on the caller's thread.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class BalanceMaterializer {
+
+    /**
+     * The maximum number of journal rows folded per database transaction.
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    /**
+     * The longest time the worker stays idle once it has been started.
+     */
+    public static final long INTERVAL_MILLIS = 50;
+
+    /**
+     * The longest time {@link #shutdown()} waits for the worker to finish its current pass.
+     */
+    public static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    private static final Logger LOG = LogManager.getLogger(BalanceMaterializer.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+
+    private final TransactionDao dao;
+    private final Thread worker;
+    private final Object monitor = new Object();
+
+    private boolean started;
+    private boolean requested;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor.
+     *
+     * @param dao {@link TransactionDao}
+     * @param postingMode {@link PostingMode}
+     */
+    @Inject
+    public BalanceMaterializer(TransactionDao dao, PostingMode postingMode) {
+        LOG.trace(LOG_CALLED);
+        this.dao = Objects.requireNonNull(dao, Messages.getParameterIsNull("dao")); //$NON-NLS-1$
+        Objects.requireNonNull(postingMode,
+            Messages.getParameterIsNull("postingMode")); //$NON-NLS-1$
+
+        if (postingMode == PostingMode.DEFERRED) {
+            this.worker = new Thread(this::run, "debs-balance-materializer"); //$NON-NLS-1$
+            this.worker.setDaemon(true);
+            this.worker.start();
+        } else {
+            this.worker = null;
+        }
+    }
+
+    /**
+     * Asks the worker to fold the journal as soon as possible. The first call also ends the
+     * initial idle period. Does nothing in {@link PostingMode#IMMEDIATE} mode. Within a unit of
+     * work (see {@link UnitOfWorkDataSource}) the request is held back until the unit of work
+     * ends, as the worker cannot see the journal rows before they are committed.
+     */
+    public void request() {
+        if (UnitOfWorkDataSource.afterCompletion(this::request)) {
+            return;
+        }
+        synchronized (this.monitor) {
+            this.started = true;
+            this.requested = true;
+            this.monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until every balance change up to the referenced sequence number has been folded
+     * into the account balances.
+     *
+     * <p>Without a worker the journal is folded on the caller's thread. A pass which folds
+     * nothing, as the rows are held by a pass elsewhere, is followed by a pause of up to
+     * {@value #INTERVAL_MILLIS}ms, and the wait still ends once the time has elapsed. A failure
+     * to fold is thrown to the caller.
+     *
+     * @param sequence a sequence number returned by {@link TransactionDao#getPostingSequence()}
+     * @param timeoutMillis the maximum time to wait
+     * @return {@code true} if the balances are up to date, {@code false} if the time elapsed
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public boolean await(long sequence, long timeoutMillis) throws InterruptedException {
+        LOG.trace(LOG_CALLED);
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!this.dao.isMaterialized(sequence)) {
+            final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            if (this.worker == null) {
+                if (this.dao.materializeBalances(BATCH_SIZE) == 0) {
+                    Thread.sleep(Math.min(INTERVAL_MILLIS, remaining));
+                }
+                continue;
+            }
+            synchronized (this.monitor) {
+                this.started = true;
+                this.requested = true;
+                this.monitor.notifyAll();
+                this.monitor.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the worker once its current pass is complete, waiting up to
+     * {@value #SHUTDOWN_TIMEOUT_MILLIS}ms for it to finish, and then folds the rest of the
+     * journal on the caller's thread. When this returns the balances are therefore up to date
+     * with the postings made so far, and no thread is left using the database, unless the
+     * worker failed to stop in time. Journal rows added afterwards stay in the journal until a
+     * worker is next started.
+     *
+     * <p>The worker is signalled rather than interrupted, as H2 closes the database file when
+     * a thread is interrupted during I/O.
+     */
+    public void shutdown() {
+        LOG.trace(LOG_CALLED);
+        synchronized (this.monitor) {
+            this.running = false;
+            this.monitor.notifyAll();
+        }
+
+        if (this.worker == null) {
+            return;
+        }
+
+        try {
+            this.worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (this.worker.isAlive()) {
+            LOG.warn("Balance materializer did not stop within {}ms", //$NON-NLS-1$
+                Long.valueOf(SHUTDOWN_TIMEOUT_MILLIS));
+            return;
+        }
+
+        int folded;
+        do {
+            folded = this.dao.materializeBalances(BATCH_SIZE);
+        } while (folded == BATCH_SIZE);
+    }
+
+    private void run() {
+        LOG.trace(LOG_CALLED);
+        try {
+            synchronized (this.monitor) {
+                while (!this.started && this.running) {
+                    this.monitor.wait();
+                }
+            }
+
+            while (this.running) {
+                int folded = 0;
+                try {
+                    folded = this.dao.materializeBalances(BATCH_SIZE);
+                } catch (RuntimeException e) {
+                    LOG.error("Unable to materialize the balance journal", e); //$NON-NLS-1$
+                }
+
+                synchronized (this.monitor) {
+                    this.monitor.notifyAll();
+                    if (folded < BATCH_SIZE && !this.requested && this.running) {
+                        this.monitor.wait(INTERVAL_MILLIS);
+                    }
+                    this.requested = false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.trace("Balance materializer stopped"); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.core.Money;
+import org.veary.debs.dao.AccountDao;
+import org.veary.debs.model.Account;
+
+/**
+ * <b>Purpose:</b> Caching decorator for {@link RealAccountDao}.
+ *
+ * <p><b>Responsibility:</b> Serves {@link #getAccountById(Long)} and
+ * {@link #getAccountByName(String)} from the {@link AccountCache}, so that resolving account
+ * names while rendering a list of transactions does not issue a query per row. All writes are
+ * passed through to the delegate and then invalidate the cache, or only its balances when just a
+ * balance is written. List queries are not cached.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class CachingAccountDao implements AccountDao {
+
+    private static final Logger LOG = LogManager.getLogger(CachingAccountDao.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+
+    private final RealAccountDao delegate;
+    private final AccountCache cache;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate {@link RealAccountDao}
+     * @param cache {@link AccountCache}
+     */
+    @Inject
+    public CachingAccountDao(RealAccountDao delegate, AccountCache cache) {
+        LOG.trace(LOG_CALLED);
+        this.delegate = Objects.requireNonNull(delegate,
+            Messages.getParameterIsNull("delegate")); //$NON-NLS-1$
+        this.cache = Objects.requireNonNull(cache,
+            Messages.getParameterIsNull("cache")); //$NON-NLS-1$
+    }
+
+    @Override
+    public Long createAccount(Account object) {
+        LOG.trace(LOG_CALLED);
+        try {
+            return this.delegate.createAccount(object);
+        } finally {
+            this.cache.invalidate();
+        }
+    }
+
+    @Override
+    public void updateAccount(Account original, Account updated) {
+        LOG.trace(LOG_CALLED);
+        try {
+            this.delegate.updateAccount(original, updated);
+        } finally {
+            this.cache.invalidate();
+        }
+    }
+
+    @Override
+    public void updateAccountBalance(Account object, Money amount) {
+        LOG.trace(LOG_CALLED);
+        try {
+            this.delegate.updateAccountBalance(object, amount);
+        } finally {
+            this.cache.invalidateBalances();
+        }
+    }
+
+    @Override
+    public void setBalanceStripes(Account object, int stripes) {
+        LOG.trace(LOG_CALLED);
+        try {
+            this.delegate.setBalanceStripes(object, stripes);
+        } finally {
+            this.cache.invalidate();
+        }
+    }
+
+    @Override
+    public Account getAccountById(Long id) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(id, Messages.getParameterIsNull("id")); //$NON-NLS-1$
+
+        final Optional<Account> result = this.cache.getById(id);
+        if (result.isPresent()) {
+            return result.get();
+        }
+        return this.delegate.getAccountById(id);
+    }
+
+    @Override
+    public Account getAccountByName(String name) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(name, Messages.getParameterIsNull("name")); //$NON-NLS-1$
+
+        final Optional<Account> result = this.cache.getByName(name);
+        if (result.isPresent()) {
+            return result.get();
+        }
+        return this.delegate.getAccountByName(name);
+    }
+
+    @Override
+    public List<Account> getAllAccounts(boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        return this.delegate.getAllAccounts(includeDeleted);
+    }
+
+    @Override
+    public List<Account> getGroupAccounts(boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        return this.delegate.getGroupAccounts(includeDeleted);
+    }
+
+    @Override
+    public List<Account> getActualAccounts(boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        return this.delegate.getActualAccounts(includeDeleted);
+    }
+
+    @Override
+    public List<Account> getAccountsByType(Account.Types type) {
+        LOG.trace(LOG_CALLED);
+        return this.delegate.getAccountsByType(type);
+    }
+
+    @Override
+    public Money getAccountBalanceAsOf(Account object, LocalDate date) {
+        LOG.trace(LOG_CALLED);
+        return this.delegate.getAccountBalanceAsOf(object, date);
+    }
+}
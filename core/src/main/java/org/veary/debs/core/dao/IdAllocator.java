@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.dao.Registry;
+
+/**
+ * <b>Purpose:</b> Assigns the unique identifiers of new rows before they are inserted.
+ *
+ * <p><b>Responsibility:</b> The {@code ENTRY} and {@code TRANSACTION} keys have no
+ * {@code IDENTITY}, so every row takes its identifier from here. Were the keys generated by the
+ * database, each {@code ENTRY} row would have to be inserted, and its key read back, before
+ * the {@code TRANSACTION} row which references it. Here each database sequence is incremented
+ * by a block of identifiers at a time: one {@code NEXT VALUE} reserves the identifiers from the
+ * returned value up to, but excluding, the value plus the sequence's increment, and they are
+ * then handed out from memory.
+ * The rows of a posting, or of many postings, can therefore be inserted together as JDBC
+ * batches. Identifiers left unused in a block when the application stops are not reused.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class IdAllocator {
+
+    /**
+     * <b>Purpose:</b> The database sequences from which identifiers are allocated.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    public enum Sequence {
+        /** {@code DEBS.ENTRY_ID_SEQ}. */
+        ENTRY("nextEntryIdBlock"), //$NON-NLS-1$
+        /** {@code DEBS.TRANSACTION_ID_SEQ}. */
+        TRANSACTION("nextTransactionIdBlock"); //$NON-NLS-1$
+
+        private final String key;
+
+        Sequence(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * <b>Purpose:</b> The identifiers remaining in the block last reserved from a sequence.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    private static final class Block {
+
+        private long next;
+        private long limit;
+    }
+
+    private static final Logger LOG = LogManager.getLogger(IdAllocator.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+
+    private final Registry registry;
+    private final JdbcCursor cursor;
+    private final Map<Sequence, Block> blocks = new EnumMap<>(Sequence.class);
+
+    /**
+     * Constructor.
+     *
+     * @param registry {@link Registry}
+     * @param cursor {@link JdbcCursor} used to reserve the blocks
+     */
+    @Inject
+    public IdAllocator(Registry registry, JdbcCursor cursor) {
+        LOG.trace(LOG_CALLED);
+        this.registry = Objects.requireNonNull(registry,
+            Messages.getParameterIsNull("registry")); //$NON-NLS-1$
+        this.cursor = Objects.requireNonNull(cursor,
+            Messages.getParameterIsNull("cursor")); //$NON-NLS-1$
+        for (Sequence sequence : Sequence.values()) {
+            this.blocks.put(sequence, new Block());
+        }
+    }
+
+    /**
+     * Returns the requested number of unused identifiers from the referenced sequence,
+     * reserving further blocks as required. The identifiers are ascending but not necessarily
+     * consecutive.
+     *
+     * @param sequence {@link Sequence}
+     * @param count the number of identifiers required
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    public synchronized List<Long> allocate(Sequence sequence, int count) {
+        LOG.trace(LOG_CALLED);
+
+        Objects.requireNonNull(sequence, Messages.getParameterIsNull("sequence")); //$NON-NLS-1$
+
+        final Block block = this.blocks.get(sequence);
+        final List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            if (block.next == block.limit) {
+                reserve(sequence, block);
+            }
+            ids.add(Long.valueOf(block.next++));
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    private void reserve(Sequence sequence, Block block) {
+        LOG.trace(LOG_CALLED);
+
+        final long[] reserved = this.cursor.list(this.registry.getSql(sequence.key),
+            Collections.emptyList(),
+            meta -> rs -> new long[] { rs.getLong(1), rs.getLong(2) }).get(0);
+
+        block.next = reserved[0];
+        block.limit = reserved[0] + reserved[1];
+        LOG.debug("Reserved {} ids {} to {}", sequence, block.next, block.limit - 1);
+    }
+}
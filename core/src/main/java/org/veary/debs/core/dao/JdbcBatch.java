@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.exceptions.DebsException;
+
+/**
+ * <b>Purpose:</b> Executes {@code INSERT} and {@code UPDATE} statements as JDBC batches,
+ * directly against the {@code DataSource}, within a single database transaction.
+ *
+ * <p><b>Responsibility:</b> {@code org.veary.persist} executes each statement on its own, one
+ * round trip per row. Here a statement is prepared once and all of its rows are sent with a
+ * single {@code executeBatch()}. The statements executed by one {@link Work} share a connection
+ * and are committed together, or rolled back together if any of them fails.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class JdbcBatch {
+
+    /**
+     * <b>Purpose:</b> The statements to be executed within one database transaction.
+     *
+     * @param <T> the type of the result
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+
+        /**
+         * Executes the statements on the referenced connection, which must not be committed,
+         * rolled back or closed.
+         *
+         * @param conn {@link Connection}
+         * @return the result
+         * @throws SQLException if a statement fails
+         */
+        T execute(Connection conn) throws SQLException;
+    }
+
+    private static final Logger LOG = LogManager.getLogger(JdbcBatch.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+
+    private final DataSource dataSource;
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource {@link DataSource}
+     */
+    @Inject
+    public JdbcBatch(DataSource dataSource) {
+        LOG.trace(LOG_CALLED);
+        this.dataSource = Objects.requireNonNull(dataSource,
+            Messages.getParameterIsNull("dataSource")); //$NON-NLS-1$
+    }
+
+    /**
+     * Executes the work within a single database transaction, which is committed if the work
+     * completes and rolled back if it throws.
+     *
+     * @param <T> the type of the result
+     * @param work {@link Work}
+     * @return the result of the work
+     */
+    public <T> T inTransaction(Work<T> work) {
+        LOG.trace(LOG_CALLED);
+
+        try (Connection conn = this.dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                final T result = work.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DebsException(e);
+        }
+    }
+
+    /**
+     * Executes a statement once per row as a single batch.
+     *
+     * @param conn {@link Connection}
+     * @param sql the statement
+     * @param rows the values of the statement's parameters, in order, one list per row
+     * @throws SQLException if the statement fails
+     */
+    public void execute(Connection conn, String sql, List<List<Object>> rows)
+        throws SQLException {
+        LOG.trace(LOG_CALLED);
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            addBatch(stmt, rows);
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Executes a statement once.
+     *
+     * @param conn {@link Connection}
+     * @param sql the statement
+     * @param row the values of the statement's parameters, in order
+     * @return the number of rows updated
+     * @throws SQLException if the statement fails
+     */
+    public int update(Connection conn, String sql, List<Object> row) throws SQLException {
+        LOG.trace(LOG_CALLED);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            setParameters(stmt, row);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static void addBatch(PreparedStatement stmt, List<List<Object>> rows)
+        throws SQLException {
+        for (List<Object> row : rows) {
+            setParameters(stmt, row);
+            stmt.addBatch();
+        }
+    }
+
+    private static void setParameters(PreparedStatement stmt, List<Object> row)
+        throws SQLException {
+        for (int i = 0; i < row.size(); i++) {
+            stmt.setObject(i + 1, toJdbc(row.get(i)));
+        }
+    }
+
+    private static Object toJdbc(Object value) {
+        if (value instanceof LocalDate) {
+            return Date.valueOf((LocalDate) value);
+        }
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.core.model.RowMapper;
+import org.veary.debs.exceptions.DebsException;
+
+/**
+ * <b>Purpose:</b> Executes {@code SELECT} statements directly against the {@code DataSource},
+ * building each entity from its row with a {@link RowMapper}.
+ *
+ * <p><b>Responsibility:</b> {@code org.veary.persist} copies every row into a
+ * {@code Map<String, Object>}, validates it and hydrates the entity from the map, and builds the
+ * complete result list before returning it. Here the column positions are resolved once per
+ * statement and each row is read by position. {@link #forEach} additionally hands each entity
+ * to the caller as it is read, through a forward-only, read-only {@code ResultSet} with the
+ * requested fetch size, so the memory used by a scan does not depend on the number of rows.
+ *
+ * <p>H2 materializes the whole result of a query before returning its first row unless lazy
+ * query execution is enabled on the session, so {@link #forEach} enables it for the duration of
+ * a scan with a fetch size. It is left disabled within a unit of work (see
+ * {@link UnitOfWorkDataSource}), where the action may issue further statements on the same
+ * connection while the scan is open.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class JdbcCursor {
+
+    private static final Logger LOG = LogManager.getLogger(JdbcCursor.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+    private static final String H2 = "H2"; //$NON-NLS-1$
+    private static final String LAZY_ON = "SET LAZY_QUERY_EXECUTION 1"; //$NON-NLS-1$
+    private static final String LAZY_OFF = "SET LAZY_QUERY_EXECUTION 0"; //$NON-NLS-1$
+
+    private final DataSource dataSource;
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource {@link DataSource}
+     */
+    @Inject
+    public JdbcCursor(DataSource dataSource) {
+        LOG.trace(LOG_CALLED);
+        this.dataSource = Objects.requireNonNull(dataSource,
+            Messages.getParameterIsNull("dataSource")); //$NON-NLS-1$
+    }
+
+    /**
+     * Executes the statement and passes each entity to {@code action} as its row is read. The
+     * connection is released when the last row has been processed, or if {@code action} throws.
+     *
+     * @param <T> the type of entity
+     * @param sql the statement
+     * @param parameters the values of the statement's parameters, in order
+     * @param fetchSize the number of rows to fetch per round trip
+     * @param factory creates the {@link RowMapper} for the statement
+     * @param action called once per row
+     */
+    public <T> void forEach(String sql, List<Object> parameters, int fetchSize,
+        RowMapper.Factory<T> factory, Consumer<? super T> action) {
+        LOG.trace(LOG_CALLED);
+
+        try (Connection conn = this.dataSource.getConnection()) {
+            final boolean lazy = fetchSize > 0 && !UnitOfWorkDataSource.isActive()
+                && H2.equals(conn.getMetaData().getDatabaseProductName());
+            if (lazy) {
+                execute(conn, LAZY_ON);
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                if (fetchSize > 0) {
+                    stmt.setFetchSize(fetchSize);
+                }
+                for (int i = 0; i < parameters.size(); i++) {
+                    stmt.setObject(i + 1, toJdbc(parameters.get(i)));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    final RowMapper<? extends T> mapper = factory.create(rs.getMetaData());
+                    while (rs.next()) {
+                        action.accept(mapper.mapRow(rs));
+                    }
+                }
+            } finally {
+                // The setting belongs to the session, which outlives a pooled connection
+                if (lazy) {
+                    execute(conn, LAZY_OFF);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DebsException(e);
+        }
+    }
+
+    /**
+     * Executes the statement and returns the entities in the order in which they were read.
+     *
+     * @param <T> the type of entity
+     * @param sql the statement
+     * @param parameters the values of the statement's parameters, in order
+     * @param factory creates the {@link RowMapper} for the statement
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    public <T> List<T> list(String sql, List<Object> parameters,
+        RowMapper.Factory<T> factory) {
+        LOG.trace(LOG_CALLED);
+
+        final List<T> list = new ArrayList<>();
+        forEach(sql, parameters, 0, factory, list::add);
+        return Collections.unmodifiableList(list);
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static Object toJdbc(Object value) {
+        if (value instanceof LocalDate) {
+            return Date.valueOf((LocalDate) value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.dao.TransactionDao;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Group commit for concurrent postings.
+ *
+ * <p><b>Responsibility:</b> Queues the transactions submitted by concurrent callers and writes
+ * them in batches with {@link TransactionDao#createTransactions(List)}, so that a batch pays
+ * for a single commit. A single writer thread, started on the first submission, takes the next
+ * posting and every other posting already queued. If that makes a batch of more than one, other
+ * callers are evidently posting too, so it waits up to {@value #WINDOW_MILLIS}ms for up to
+ * {@value #MAX_BATCH} postings in all. A lone caller is therefore written straight away.
+ *
+ * <p>If a batch fails, its postings are retried one at a time, so that only the offending
+ * posting fails. Whatever a batch throws, each of its callers is answered. Should the writer
+ * stop unexpectedly, the postings still queued are written on its way out and later
+ * submissions are written on the caller's thread.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class PostingCoordinator {
+
+    /**
+     * <b>Purpose:</b> A submitted posting and the future of its caller.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    private static final class Pending {
+
+        private final Transaction transaction;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        Pending(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+
+    /**
+     * The maximum number of postings written in one batch.
+     */
+    public static final int MAX_BATCH = 64;
+
+    /**
+     * The longest time a batch is held open for further postings.
+     */
+    public static final long WINDOW_MILLIS = 2;
+
+    private static final Logger LOG = LogManager.getLogger(PostingCoordinator.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+    private static final Pending STOP = new Pending(null);
+
+    private final TransactionDao dao;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private Thread writer;
+    private boolean running = true;
+
+    /**
+     * Constructor.
+     *
+     * @param dao {@link TransactionDao}
+     */
+    @Inject
+    public PostingCoordinator(TransactionDao dao) {
+        LOG.trace(LOG_CALLED);
+        this.dao = Objects.requireNonNull(dao, Messages.getParameterIsNull("dao")); //$NON-NLS-1$
+    }
+
+    /**
+     * Queues the referenced {@code Transaction} for the next batch. Once the coordinator has
+     * been shut down, or while the caller is within a unit of work (see
+     * {@link UnitOfWorkDataSource}), the transaction is created on the caller's thread instead,
+     * so that it belongs to the caller's database transaction. Callers which should be group
+     * committed must therefore post outside any unit of work.
+     *
+     * @param transaction {@link Transaction} with its entries set
+     * @return {@code CompletableFuture} completed with the unique identifier of the new
+     *     transaction, or exceptionally with the exception that prevented its creation
+     */
+    public CompletableFuture<Long> submit(Transaction transaction) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(transaction,
+            Messages.getParameterIsNull("transaction")); //$NON-NLS-1$
+
+        final Pending pending = new Pending(transaction);
+        synchronized (this) {
+            if (this.running && !UnitOfWorkDataSource.isActive()) {
+                if (this.writer == null) {
+                    this.writer = new Thread(this::run, "debs-posting-coordinator"); //$NON-NLS-1$
+                    this.writer.setDaemon(true);
+                    this.writer.start();
+                }
+                this.queue.add(pending);
+                return pending.future;
+            }
+        }
+
+        writeOneByOne(List.of(pending));
+        return pending.future;
+    }
+
+    /**
+     * Stops the writer once the postings already queued have been written, and waits for it to
+     * finish. The writer is signalled through the queue rather than interrupted, as H2 closes
+     * the database file when a thread is interrupted during I/O.
+     */
+    public void shutdown() {
+        LOG.trace(LOG_CALLED);
+        final Thread stopping;
+        synchronized (this) {
+            stopping = this.running ? this.writer : null;
+            if (stopping != null) {
+                this.queue.add(STOP);
+            }
+            this.running = false;
+        }
+
+        if (stopping != null) {
+            try {
+                stopping.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        LOG.trace(LOG_CALLED);
+        final List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                batch.add(this.queue.take());
+                collect(batch);
+                stopping = batch.remove(STOP);
+                try {
+                    write(batch);
+                } catch (Throwable e) {
+                    LOG.error("Batch of postings failed", e); //$NON-NLS-1$
+                    fail(batch, e);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped(batch);
+        }
+        LOG.trace("Posting coordinator stopped"); //$NON-NLS-1$
+    }
+
+    /**
+     * Called as the writer exits, normally or not. Later submissions are written on the
+     * caller's thread, and the postings left in the last batch or still queued are written
+     * here, so that no caller waits forever.
+     */
+    private void stopped(List<Pending> batch) {
+        synchronized (this) {
+            this.running = false;
+        }
+
+        final List<Pending> left = new ArrayList<>(batch);
+        this.queue.drainTo(left);
+        left.remove(STOP);
+        left.removeIf(pending -> pending.future.isDone());
+        if (!left.isEmpty()) {
+            LOG.warn("Posting coordinator stopped with {} postings queued", //$NON-NLS-1$
+                Integer.valueOf(left.size()));
+            writeOneByOne(left);
+        }
+    }
+
+    private static void fail(List<Pending> batch, Throwable e) {
+        for (Pending pending : batch) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private void collect(List<Pending> batch) throws InterruptedException {
+        this.queue.drainTo(batch, MAX_BATCH - batch.size());
+        if (batch.size() == 1 || batch.contains(STOP)) {
+            return;
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS);
+        while (batch.size() < MAX_BATCH) {
+            final Pending next = this.queue.poll(deadline - System.nanoTime(),
+                TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            this.queue.drainTo(batch, MAX_BATCH - batch.size());
+            if (batch.contains(STOP)) {
+                return;
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            writeOneByOne(batch);
+            return;
+        }
+
+        final List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            transactions.add(pending.transaction);
+        }
+
+        final List<Long> ids;
+        try {
+            ids = this.dao.createTransactions(transactions);
+        } catch (Throwable e) {
+            LOG.warn("Batch of {} postings failed, retrying one at a time: {}", //$NON-NLS-1$
+                Integer.valueOf(batch.size()), e.getMessage());
+            writeOneByOne(batch);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(ids.get(i));
+        }
+    }
+
+    private void writeOneByOne(List<Pending> batch) {
+        for (Pending pending : batch) {
+            try {
+                pending.future.complete(this.dao.createTransaction(pending.transaction));
+            } catch (Throwable e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -24,9 +24,15 @@
 
 package org.veary.debs.core.dao;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -34,21 +40,28 @@ import javax.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.veary.debs.Messages;
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.BalanceMode;
 import org.veary.debs.core.Money;
+import org.veary.debs.core.model.AccountEntity;
 import org.veary.debs.dao.AccountDao;
 import org.veary.debs.dao.Registry;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.model.Account;
 import org.veary.debs.model.Account.Types;
 import org.veary.persist.PersistenceManagerFactory;
 import org.veary.persist.SqlStatement;
 import org.veary.persist.TransactionManager;
-import org.veary.persist.exceptions.NoResultException;
 
 /**
  * <b>Purpose:</b> Concrete implementation of the {@code AccountDao} interface.
  *
  * <p><b>Responsibility:</b> Handling all CRUD actions for {@link Account} object.
  *
+ * <p>In {@link BalanceMode#LEAF_ONLY} mode the stored balance of a group account is not
+ * maintained, so every account read here has the balance of each group account replaced by
+ * the sum of the balances of the actual accounts below it.
+ *
  * <p><b>Note:</b> Annotated for JSR330.
  *
  * @author Marc L. Veary
@@ -60,21 +73,39 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
     private static final Logger LOG = LogManager.getLogger(RealAccountDao.class);
     private static final String LOG_CALLED = "called"; //$NON-NLS-1$
     private static final String PARAM_OBJECT = "object"; //$NON-NLS-1$
+    private static final int MAX_BALANCE_STRIPES = 64;
 
     private final Registry registry;
+    private final JdbcCursor cursor;
+    private final JdbcBatch batch;
+    private final AmountStorage amountStorage;
+    private final boolean deriveGroups;
 
     /**
      * Constructor.
      *
      * @param registry {@link Registry}
      * @param factory {@link PersistenceManagerFactory}
+     * @param cursor {@link JdbcCursor} used for list queries
+     * @param batch {@link JdbcBatch} used for the versioned updates
+     * @param amountStorage {@link AmountStorage} of the balance column
+     * @param balanceMode {@link BalanceMode}
      */
     @Inject
-    public RealAccountDao(Registry registry, PersistenceManagerFactory factory) {
+    public RealAccountDao(Registry registry, PersistenceManagerFactory factory, JdbcCursor cursor,
+        JdbcBatch batch, AmountStorage amountStorage, BalanceMode balanceMode) {
         super(factory);
         LOG.trace(LOG_CALLED);
         this.registry = Objects.requireNonNull(registry,
             Messages.getParameterIsNull("registry")); //$NON-NLS-1$
+        this.cursor = Objects.requireNonNull(cursor,
+            Messages.getParameterIsNull("cursor")); //$NON-NLS-1$
+        this.batch = Objects.requireNonNull(batch,
+            Messages.getParameterIsNull("batch")); //$NON-NLS-1$
+        this.amountStorage = Objects.requireNonNull(amountStorage,
+            Messages.getParameterIsNull("amountStorage")); //$NON-NLS-1$
+        this.deriveGroups = Objects.requireNonNull(balanceMode,
+            Messages.getParameterIsNull("balanceMode")) == BalanceMode.LEAF_ONLY; //$NON-NLS-1$
     }
 
     @Override
@@ -105,19 +136,19 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
         Objects.requireNonNull(original, Messages.getParameterIsNull("original")); //$NON-NLS-1$
         Objects.requireNonNull(updated, Messages.getParameterIsNull("updated")); //$NON-NLS-1$
 
-        final SqlStatement update = SqlStatement
-            .newInstance(this.registry.getSql("updateAccount")); //$NON-NLS-1$
-        update.setParameter(1, updated.getName());
-        update.setParameter(2, updated.getDescription());
-        update.setParameter(3, updated.getParentId());
-        update.setParameter(4, updated.getType().getId());
-        update.setParameter(5, Boolean.valueOf(updated.isDeleted()));
-        update.setParameter(6, original.getId());
-
-        final TransactionManager manager = this.factory.createTransactionManager();
-        manager.begin();
-        manager.persist(update);
-        manager.commit();
+        final List<Object> row = Arrays.asList(updated.getName(), updated.getDescription(),
+            updated.getParentId(), updated.getType().getId(),
+            Boolean.valueOf(updated.isDeleted()), original.getId(),
+            Integer.valueOf(original.getVersion()));
+
+        final int count = this.batch.inTransaction(conn -> Integer.valueOf(this.batch
+            .update(conn, this.registry.getSql("updateAccount"), row))) //$NON-NLS-1$
+            .intValue();
+        if (count == 0) {
+            throw new ConcurrentUpdateException(Messages.getString(
+                "RealAccountDao.updateAccount.conflict", //$NON-NLS-1$
+                original.getId(), Integer.valueOf(original.getVersion())));
+        }
     }
 
     @Override
@@ -127,9 +158,11 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
         Objects.requireNonNull(object, Messages.getParameterIsNull(PARAM_OBJECT));
         Objects.requireNonNull(amount, Messages.getParameterIsNull("amount")); //$NON-NLS-1$
 
+        final Object parameter = this.amountStorage.toParameter(amount);
+
         final SqlStatement update = SqlStatement
             .newInstance(this.registry.getSql("updateAccountBalance")); //$NON-NLS-1$
-        update.setParameter(1, amount.getValue());
+        update.setParameter(1, parameter);
         update.setParameter(2, object.getId());
 
         final TransactionManager manager = this.factory.createTransactionManager();
@@ -138,6 +171,70 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
         manager.commit();
     }
 
+    /**
+     * The deltas held by the existing stripes are folded into {@code ACCOUNT.BALANCE} before
+     * the stripes are replaced, so the balance of the account is unchanged. The stripes are
+     * locked first so that no concurrent posting can land in a stripe after it has been folded.
+     * The monthly deltas held by the {@code ACCOUNT_PERIOD_BALANCE_STRIPE} rows are likewise
+     * folded into the {@code ACCOUNT_PERIOD_BALANCE} snapshots, creating any that are missing
+     * and carrying each delta forward to the later months.
+     */
+    @Override
+    public void setBalanceStripes(Account object, int stripes) {
+        LOG.trace(LOG_CALLED);
+
+        Objects.requireNonNull(object, Messages.getParameterIsNull(PARAM_OBJECT));
+        if (stripes < 0 || stripes > MAX_BALANCE_STRIPES) {
+            throw new IllegalArgumentException(Messages.getString(
+                "RealAccountDao.setBalanceStripes.range", //$NON-NLS-1$
+                Integer.valueOf(stripes), Integer.valueOf(MAX_BALANCE_STRIPES)));
+        }
+
+        final SqlStatement lock = SqlStatement
+            .newInstance(this.registry.getSql("lockAccountBalanceStripes")); //$NON-NLS-1$
+        lock.setParameter(1, object.getId());
+
+        final SqlStatement fold = SqlStatement
+            .newInstance(this.registry.getSql("foldAccountBalanceStripes")); //$NON-NLS-1$
+        fold.setParameter(1, object.getId());
+        fold.setParameter(2, object.getId());
+
+        final SqlStatement delete = SqlStatement
+            .newInstance(this.registry.getSql("deleteAccountBalanceStripes")); //$NON-NLS-1$
+        delete.setParameter(1, object.getId());
+
+        final SqlStatement createPeriods = SqlStatement.newInstance(
+            this.registry.getSql("createAccountPeriodBalanceFromStripes")); //$NON-NLS-1$
+        createPeriods.setParameter(1, object.getId());
+
+        final SqlStatement foldPeriods = SqlStatement
+            .newInstance(this.registry.getSql("foldAccountPeriodBalanceStripes")); //$NON-NLS-1$
+        foldPeriods.setParameter(1, object.getId());
+
+        final SqlStatement deletePeriods = SqlStatement
+            .newInstance(this.registry.getSql("deleteAccountPeriodBalanceStripes")); //$NON-NLS-1$
+        deletePeriods.setParameter(1, object.getId());
+
+        final TransactionManager manager = this.factory.createTransactionManager();
+        manager.begin();
+        manager.persist(lock);
+        manager.persist(fold);
+        manager.persist(delete);
+        manager.persist(createPeriods);
+        manager.persist(foldPeriods);
+        manager.persist(deletePeriods);
+
+        if (stripes > 1) {
+            final SqlStatement insert = SqlStatement
+                .newInstance(this.registry.getSql("createAccountBalanceStripes")); //$NON-NLS-1$
+            insert.setParameter(1, object.getId());
+            insert.setParameter(2, Integer.valueOf(stripes));
+            manager.persist(insert);
+        }
+
+        manager.commit();
+    }
+
     @Override
     public Account getAccountById(Long id) {
         LOG.trace(LOG_CALLED);
@@ -148,7 +245,8 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
             .newInstance(this.registry.getSql("getAccountById")); //$NON-NLS-1$
         select.setParameter(1, id);
 
-        return executeAndReturnSingleResult(select, Account.class);
+        return deriveGroupBalance(addStripes(executeAndReturnSingleResult(select,
+            Account.class)));
     }
 
     @Override
@@ -159,7 +257,8 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
             .newInstance(this.registry.getSql("getAccountByName")); //$NON-NLS-1$
         select.setParameter(1, name);
 
-        return executeAndReturnSingleResult(select, Account.class);
+        return deriveGroupBalance(addStripes(executeAndReturnSingleResult(select,
+            Account.class)));
     }
 
     @Override
@@ -174,6 +273,49 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
         return getAccountsList(key);
     }
 
+    /**
+     * Returns the balance of every account, including the deleted ones, as it would be read by
+     * {@link #getAccountById(Long)}, without loading the other columns.
+     *
+     * @return {@code Map<Long, Money>} keyed by the unique identifiers of the accounts
+     */
+    public Map<Long, Money> getAccountBalances() {
+        LOG.trace(LOG_CALLED);
+
+        final Map<Long, Money> balances = new HashMap<>();
+        this.cursor.forEach(this.registry.getSql("getAccountBalances"), //$NON-NLS-1$
+            Collections.emptyList(), 0,
+            meta -> rs -> Map.entry(Long.valueOf(rs.getLong(1)),
+                AmountStorage.toMoney(rs.getObject(2))),
+            entry -> balances.put(entry.getKey(), entry.getValue()));
+
+        this.cursor.forEach(this.registry.getSql("getAccountBalanceStripes"), //$NON-NLS-1$
+            Collections.emptyList(), 0,
+            meta -> rs -> Map.entry(Long.valueOf(rs.getLong(1)),
+                this.amountStorage.fromSum(rs.getObject(2))),
+            entry -> balances.computeIfPresent(entry.getKey(),
+                (id, balance) -> balance.plus(entry.getValue())));
+
+        if (this.deriveGroups) {
+            balances.putAll(getGroupAccountBalances());
+        }
+
+        return balances;
+    }
+
+    /**
+     * Returns the unique identifiers of the accounts whose balances are striped with
+     * {@link #setBalanceStripes(Account, int)}.
+     *
+     * @return {@code Set<Long>}
+     */
+    public Set<Long> getStripedAccountIds() {
+        LOG.trace(LOG_CALLED);
+        return new HashSet<>(this.cursor.list(
+            this.registry.getSql("getStripedAccountIds"), //$NON-NLS-1$
+            Collections.emptyList(), meta -> rs -> Long.valueOf(rs.getLong(1))));
+    }
+
     @Override
     public List<Account> getGroupAccounts(boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
@@ -202,22 +344,122 @@ public final class RealAccountDao extends AbstractDao<Account> implements Accoun
     public List<Account> getAccountsByType(Types type) {
         LOG.trace(LOG_CALLED);
 
-        SqlStatement select = SqlStatement.newInstance(this.registry.getSql("getAccountsByType"));
-        select.setParameter(1, type.getId());
+        return deriveGroupBalances(addStripes(this.cursor.list(
+            this.registry.getSql("getAccountsByType"), //$NON-NLS-1$
+            List.of(type.getId()), AccountEntity::rowMapper)));
+    }
 
-        try {
-            return executeAndReturnListResult(select, Account.class);
-        } catch (NoResultException e) {
-            return Collections.emptyList();
-        }
+    /**
+     * The opening balance of the month is read from the {@code ACCOUNT_PERIOD_BALANCE} snapshot
+     * of each account, plus the {@code ACCOUNT_PERIOD_BALANCE_STRIPE} rows of the earlier months
+     * of a striped account, so only the entries posted between the start of the month and the
+     * referenced date are summed.
+     */
+    @Override
+    public Money getAccountBalanceAsOf(Account object, LocalDate date) {
+        LOG.trace(LOG_CALLED);
+
+        Objects.requireNonNull(object, Messages.getParameterIsNull(PARAM_OBJECT));
+        Objects.requireNonNull(date, Messages.getParameterIsNull("date")); //$NON-NLS-1$
+
+        final Integer yearMonth = Integer.valueOf(date.getYear() * 100 + date.getMonthValue());
+
+        return this.cursor.list(this.registry.getSql("getAccountBalanceAsOf"), //$NON-NLS-1$
+            List.of(object.getId(), yearMonth, yearMonth, date.withDayOfMonth(1), date),
+            meta -> rs -> this.amountStorage.fromSum(rs.getObject(1))
+                .plus(this.amountStorage.fromSum(rs.getObject(2))))
+            .get(0);
+    }
+
+    /**
+     * Returns the stripe used by the current thread for a balance update. The statements pick
+     * the stripe with the seed modulo the number of stripes of the account, so concurrent
+     * writers on different threads tend to update different rows.
+     */
+    static Integer stripeSeed() {
+        return Integer.valueOf((int) (Thread.currentThread().getId() & Integer.MAX_VALUE));
     }
 
     private List<Account> getAccountsList(String key) {
-        try {
-            return executeAndReturnListResult(
-                SqlStatement.newInstance(this.registry.getSql(key)), Account.class);
-        } catch (NoResultException e) {
-            return Collections.emptyList();
+        return deriveGroupBalances(addStripes(this.cursor.list(this.registry.getSql(key),
+            Collections.emptyList(), AccountEntity::rowMapper)));
+    }
+
+    private Account addStripes(Account account) {
+        final List<Money> deltas = this.cursor.list(
+            this.registry.getSql("getAccountBalanceStripesById"), //$NON-NLS-1$
+            List.of(account.getId()), meta -> rs -> this.amountStorage.fromSum(rs.getObject(2)));
+
+        if (!deltas.isEmpty()) {
+            ((AccountEntity) account).setBalance(account.getBalance().plus(deltas.get(0)));
+        }
+
+        return account;
+    }
+
+    private List<Account> addStripes(List<Account> accounts) {
+        final Map<Long, Money> deltas = new HashMap<>();
+        this.cursor.forEach(this.registry.getSql("getAccountBalanceStripes"), //$NON-NLS-1$
+            Collections.emptyList(), 0,
+            meta -> rs -> Map.entry(Long.valueOf(rs.getLong(1)),
+                this.amountStorage.fromSum(rs.getObject(2))),
+            entry -> deltas.put(entry.getKey(), entry.getValue()));
+
+        if (!deltas.isEmpty()) {
+            for (Account account : accounts) {
+                final Money delta = deltas.get(account.getId());
+                if (delta != null) {
+                    ((AccountEntity) account).setBalance(account.getBalance().plus(delta));
+                }
+            }
         }
+
+        return accounts;
+    }
+
+    private static boolean isGroup(Account account) {
+        return account.getType().toString().endsWith("_GROUP"); //$NON-NLS-1$
+    }
+
+    private Account deriveGroupBalance(Account account) {
+        if (this.deriveGroups && isGroup(account)) {
+            ((AccountEntity) account).setBalance(this.cursor.list(
+                this.registry.getSql("getGroupAccountBalance"), //$NON-NLS-1$
+                List.of(account.getId()), meta -> rs -> this.amountStorage.fromSum(
+                    rs.getObject(1))).get(0));
+        }
+
+        return account;
+    }
+
+    private List<Account> deriveGroupBalances(List<Account> accounts) {
+        if (!this.deriveGroups || accounts.stream().noneMatch(RealAccountDao::isGroup)) {
+            return accounts;
+        }
+
+        final Map<Long, Money> balances = getGroupAccountBalances();
+        for (Account account : accounts) {
+            if (isGroup(account)) {
+                ((AccountEntity) account).setBalance(balances.get(account.getId()));
+            }
+        }
+
+        return accounts;
+    }
+
+    /**
+     * Returns the balance of every group account derived from the balances of the actual
+     * accounts below it, including those deleted since their postings remain in the ledger.
+     *
+     * @return {@code Map<Long, Money>} keyed by the unique identifiers of the group accounts
+     */
+    private Map<Long, Money> getGroupAccountBalances() {
+        final Map<Long, Money> balances = new HashMap<>();
+        this.cursor.forEach(this.registry.getSql("getGroupAccountBalances"), //$NON-NLS-1$
+            Collections.emptyList(), 0,
+            meta -> rs -> Map.entry(Long.valueOf(rs.getLong(1)),
+                this.amountStorage.fromSum(rs.getObject(2))),
+            entry -> balances.put(entry.getKey(), entry.getValue()));
+        return balances;
     }
 }
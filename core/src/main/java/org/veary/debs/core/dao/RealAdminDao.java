@@ -24,7 +24,20 @@
 
 package org.veary.debs.core.dao;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,13 +45,20 @@ import javax.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.veary.debs.Messages;
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.model.SchemaVersionEntity;
 import org.veary.debs.dao.AdminDao;
 import org.veary.debs.dao.Registry;
+import org.veary.debs.exceptions.DebsException;
 import org.veary.debs.facade.AccountFacade;
 import org.veary.debs.model.Account;
 import org.veary.persist.PersistenceManagerFactory;
+import org.veary.persist.Query;
+import org.veary.persist.QueryManager;
 import org.veary.persist.SqlStatement;
 import org.veary.persist.TransactionManager;
+import org.veary.persist.exceptions.NoResultException;
 import org.veary.persist.exceptions.PersistenceException;
 
 /**
@@ -54,22 +74,124 @@ import org.veary.persist.exceptions.PersistenceException;
 @Singleton
 public final class RealAdminDao implements AdminDao {
 
+    /**
+     * <b>Purpose:</b> A versioned change to the database schema.
+     *
+     * <p><b>Responsibility:</b> Names the registry keys of the statements to be executed, in
+     * order. Once applied, a migration must not be modified; add a new one instead. A migration
+     * may be restricted to an {@link AmountStorage}, in which case it is only applied when that
+     * storage is configured.
+     *
+     * <p>Each statement is committed on its own, together with a {@code SCHEMA_VERSION_STEP} row
+     * recording that it was executed. A migration interrupted part way is resumed from the first
+     * statement not recorded, so that a conversion such as {@code x=x*100} is never applied
+     * twice. H2 commits DDL as soon as it is executed, so the DDL statements must be safe to
+     * repeat.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    private static final class Migration {
+
+        private final Integer version;
+        private final String description;
+        private final AmountStorage storage;
+        private final String[] keys;
+
+        Migration(int version, String description, String... keys) {
+            this(version, description, null, keys);
+        }
+
+        Migration(int version, String description, AmountStorage storage, String... keys) {
+            this.version = Integer.valueOf(version);
+            this.description = description;
+            this.storage = storage;
+            this.keys = keys;
+        }
+    }
+
     private static final Logger LOG = LogManager.getLogger(RealAdminDao.class);
     private static final String LOG_CALLED = "called";
 
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Index ENTRY by account",
+            "createEntryAccountIndex"),
+        new Migration(2, "Index TRANSACTION by date and entries",
+            "createTransactionDateIndex",
+            "createTransactionFromIndex",
+            "createTransactionToIndex"),
+        new Migration(3, "Index ACCOUNT by parent and type",
+            "createAccountParentIndex",
+            "createAccountTypeIndex"),
+        new Migration(4, "Index TRANSACTION by date and id for keyset paging",
+            "createTransactionDateIdIndex"),
+        new Migration(5, "Store amounts as BIGINT minor units", AmountStorage.MINOR_UNITS,
+            "convertAccountBalanceToMinorUnits",
+            "alterAccountBalanceToBigint",
+            "convertEntryAmountToMinorUnits",
+            "alterEntryAmountToBigint"),
+        new Migration(6, "Snapshot account balances by month",
+            "createAccountPeriodBalanceTable",
+            "populateAccountPeriodBalance"),
+        new Migration(7, "Store period balances as BIGINT minor units", AmountStorage.MINOR_UNITS,
+            "clearAccountPeriodBalance",
+            "alterPeriodOpeningToBigint",
+            "alterPeriodDebitsToBigint",
+            "alterPeriodCreditsToBigint",
+            "alterPeriodClosingToBigint",
+            "populateAccountPeriodBalance"),
+        new Migration(8, "Stripe the balances of busy accounts",
+            "createAccountBalanceStripeTable"),
+        new Migration(9, "Store balance stripes as BIGINT minor units", AmountStorage.MINOR_UNITS,
+            "convertStripeDeltaToMinorUnits",
+            "alterStripeDeltaToBigint"),
+        new Migration(10, "Journal deferred balance changes",
+            "createBalanceJournalTable"),
+        new Migration(11, "Store the balance journal as BIGINT minor units",
+            AmountStorage.MINOR_UNITS,
+            "convertBalanceJournalToMinorUnits",
+            "alterJournalDebitsToBigint",
+            "alterJournalCreditsToBigint"),
+        new Migration(12, "Allocate ENTRY and TRANSACTION ids in blocks",
+            "createEntryIdSequence",
+            "createTransactionIdSequence"),
+        new Migration(13, "Version TRANSACTION and ACCOUNT rows",
+            "addTransactionVersion",
+            "addAccountVersion"),
+        new Migration(14, "Stripe the period balances of busy accounts",
+            "createAccountPeriodBalanceStripeTable"),
+        new Migration(15, "Store period balance stripes as BIGINT minor units",
+            AmountStorage.MINOR_UNITS,
+            "convertPeriodStripeToMinorUnits",
+            "alterPeriodStripeDebitsToBigint",
+            "alterPeriodStripeCreditsToBigint"),
+        new Migration(16, "Take ENTRY and TRANSACTION ids only from their sequences",
+            "dropEntryIdIdentity",
+            "dropTransactionIdIdentity"));
+
     private final PersistenceManagerFactory factory;
     private final Registry registry;
+    private final AmountStorage amountStorage;
+    private final JdbcBatch batch;
+    private final BalanceMode balanceMode;
 
     /**
      * Constructor.
      */
     @Inject
-    public RealAdminDao(Registry registry, PersistenceManagerFactory factory) {
+    public RealAdminDao(Registry registry, PersistenceManagerFactory factory,
+        AmountStorage amountStorage, JdbcBatch batch, BalanceMode balanceMode) {
         LOG.trace(LOG_CALLED);
 
         this.registry = Objects.requireNonNull(registry,
             Messages.getParameterIsNull("registry")); //$NON-NLS-1$
         this.factory = Objects.requireNonNull(factory, Messages.getParameterIsNull("factory"));
+        this.amountStorage = Objects.requireNonNull(amountStorage,
+            Messages.getParameterIsNull("amountStorage")); //$NON-NLS-1$
+        this.batch = Objects.requireNonNull(batch,
+            Messages.getParameterIsNull("batch")); //$NON-NLS-1$
+        this.balanceMode = Objects.requireNonNull(balanceMode,
+            Messages.getParameterIsNull("balanceMode")); //$NON-NLS-1$
     }
 
     @Override
@@ -82,6 +204,7 @@ public final class RealAdminDao implements AdminDao {
             // Main accounting system
             createSchema(manager);
             createAccountTable(manager);
+            createAccountBalanceStripeTable(manager);
             createEntryTable(manager);
             createTransactionTable(manager);
 
@@ -98,6 +221,169 @@ public final class RealAdminDao implements AdminDao {
         }
     }
 
+    @Override
+    public void migrateDatabase() {
+        LOG.trace(LOG_CALLED);
+
+        final TransactionManager manager = this.factory.createTransactionManager();
+        manager.begin();
+        createSchema(manager);
+        LOG.trace("Create SCHEMA_VERSION table result: {}", manager.persist(SqlStatement
+            .newInstance(this.registry.getSql("createSchemaVersionTable"))));
+        LOG.trace("Create SCHEMA_VERSION_STEP table result: {}", manager.persist(SqlStatement
+            .newInstance(this.registry.getSql("createSchemaVersionStepTable"))));
+        manager.commit();
+
+        final Map<Integer, Long> applied = getAppliedMigrations();
+
+        for (Migration migration : MIGRATIONS) {
+            final Long expected = applied.get(migration.version);
+
+            if (migration.storage != null && migration.storage != this.amountStorage) {
+                if (expected != null) {
+                    throw new DebsException(Messages.getString(
+                        "RealAdminDao.migrateDatabase.storage", //$NON-NLS-1$
+                        migration.storage, this.amountStorage));
+                }
+                continue;
+            }
+
+            final Long checksum = checksum(migration);
+
+            if (expected != null) {
+                if (!expected.equals(checksum)) {
+                    throw new DebsException(Messages.getString(
+                        "RealAdminDao.migrateDatabase.checksum", //$NON-NLS-1$
+                        migration.version, expected, checksum));
+                }
+                continue;
+            }
+
+            applyMigration(migration, checksum);
+        }
+
+        if (this.balanceMode == BalanceMode.MATERIALIZED) {
+            recomputeGroupBalances();
+        }
+    }
+
+    @Override
+    public int getSchemaVersion() {
+        LOG.trace(LOG_CALLED);
+        return getAppliedMigrations().keySet().stream()
+            .mapToInt(Integer::intValue)
+            .max()
+            .orElse(0);
+    }
+
+    private void applyMigration(Migration migration, Long checksum) {
+        LOG.trace(LOG_CALLED);
+        LOG.info("Applying migration V{}: {}", migration.version, migration.description);
+
+        final Set<Integer> executed = this.batch
+            .inTransaction(conn -> getExecutedSteps(conn, migration.version));
+
+        for (int i = 0; i < migration.keys.length; i++) {
+            final Integer step = Integer.valueOf(i);
+            if (executed.contains(step)) {
+                LOG.info("Skipping step {} of V{}: already executed", step, migration.version);
+                continue;
+            }
+            final String sql = this.registry.getSql(migration.keys[i]);
+            this.batch.inTransaction(conn -> {
+                this.batch.update(conn, sql, List.of());
+                return Integer.valueOf(this.batch.update(conn,
+                    this.registry.getSql("insertSchemaVersionStep"),
+                    List.of(migration.version, step)));
+            });
+        }
+
+        this.batch.inTransaction(conn -> {
+            this.batch.update(conn, this.registry.getSql("insertSchemaVersion"),
+                List.of(migration.version, migration.description, checksum));
+            return Integer.valueOf(this.batch.update(conn,
+                this.registry.getSql("deleteSchemaVersionSteps"), List.of(migration.version)));
+        });
+    }
+
+    /**
+     * Sets the stored balance of every group account to the sum of the balances of the actual
+     * accounts below it, and clears the stripes of the group accounts. The group balances are
+     * not maintained in {@link BalanceMode#LEAF_ONLY} mode, so this corrects them when a
+     * database is next opened in {@link BalanceMode#MATERIALIZED} mode. It is done on every
+     * migration, as the mode is not recorded in the database; with the balances maintained, it
+     * changes nothing.
+     */
+    private void recomputeGroupBalances() {
+        LOG.trace(LOG_CALLED);
+
+        this.batch.inTransaction(conn -> {
+            final List<List<Object>> rows = new ArrayList<>();
+            try (PreparedStatement stmt = conn
+                .prepareStatement(this.registry.getSql("getGroupAccountBalances"));
+                ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(List.of(this.amountStorage.toParameter(
+                        this.amountStorage.fromSum(rs.getObject(2))),
+                        Long.valueOf(rs.getLong(1))));
+                }
+            }
+            this.batch.execute(conn, this.registry.getSql("setGroupAccountBalance"), rows);
+            return Integer.valueOf(this.batch.update(conn,
+                this.registry.getSql("clearGroupAccountBalanceStripes"), List.of()));
+        });
+    }
+
+    private Set<Integer> getExecutedSteps(Connection conn, Integer version)
+        throws SQLException {
+        final Set<Integer> steps = new HashSet<>();
+        try (PreparedStatement stmt = conn
+            .prepareStatement(this.registry.getSql("getSchemaVersionSteps"))) {
+            stmt.setInt(1, version.intValue());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(Integer.valueOf(rs.getInt(1)));
+                }
+            }
+        }
+        return steps;
+    }
+
+    private Map<Integer, Long> getAppliedMigrations() {
+        LOG.trace(LOG_CALLED);
+
+        final SqlStatement select = SqlStatement
+            .newInstance(this.registry.getSql("getSchemaVersions"));
+        final QueryManager manager = this.factory.createQueryManager();
+        final Query query = manager.createQuery(select, SchemaVersionEntity.class);
+
+        try {
+            query.execute();
+        } catch (NoResultException e) {
+            return Collections.emptyMap();
+        }
+
+        final Map<Integer, Long> applied = new HashMap<>();
+        for (Object result : query.getResultList()) {
+            final SchemaVersionEntity entity = (SchemaVersionEntity) result;
+            applied.put(entity.getVersion(), entity.getChecksum());
+        }
+
+        return applied;
+    }
+
+    /**
+     * The checksum is calculated over the SQL of the migration's statements, so that a change
+     * to an already applied migration is detected at startup.
+     */
+    private Long checksum(Migration migration) {
+        final CRC32 crc = new CRC32();
+        for (String key : migration.keys) {
+            crc.update(this.registry.getSql(key).trim().getBytes(StandardCharsets.UTF_8));
+        }
+        return Long.valueOf(crc.getValue());
+    }
+
     private void createSchema(TransactionManager manager) throws PersistenceException {
         LOG.trace(LOG_CALLED);
 
@@ -112,6 +398,18 @@ public final class RealAdminDao implements AdminDao {
         LOG.trace("Create ACCOUNT table result: {}", manager.persist(accountTable));
     }
 
+    /**
+     * The stripes are read with every account, which happens before the database is migrated,
+     * so the table is created here as well as by migration V8.
+     */
+    private void createAccountBalanceStripeTable(TransactionManager manager)
+        throws PersistenceException {
+        LOG.trace(LOG_CALLED);
+        final SqlStatement stripeTable = SqlStatement
+            .newInstance(this.registry.getSql("createAccountBalanceStripeTable"));
+        LOG.trace("Create ACCOUNT_BALANCE_STRIPE table result: {}", manager.persist(stripeTable));
+    }
+
     private void createEntryTable(TransactionManager manager) throws PersistenceException {
         LOG.trace(LOG_CALLED);
         final SqlStatement entryTable = SqlStatement
@@ -33,13 +33,13 @@ import javax.inject.Inject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.veary.debs.Messages;
+import org.veary.debs.core.model.EmployeeEntity;
 import org.veary.debs.dao.EmployeeDao;
 import org.veary.debs.dao.Registry;
 import org.veary.debs.model.Employee;
 import org.veary.persist.PersistenceManagerFactory;
 import org.veary.persist.SqlStatement;
 import org.veary.persist.TransactionManager;
-import org.veary.persist.exceptions.NoResultException;
 
 /**
  * <b>Purpose:</b> Concrete implementation of the {@link EmployeeDao} interface.
@@ -57,19 +57,23 @@ public final class RealEmployeeDao extends AbstractDao<Employee> implements Empl
     private static final String LOG_CALLED = "called"; //$NON-NLS-1$
 
     private final Registry registry;
+    private final JdbcCursor cursor;
 
     /**
      * Constructor.
      *
      * @param registry {@link Registry}
      * @param factory {@link PersistenceManagerFactory}
+     * @param cursor {@link JdbcCursor} used for list queries
      */
     @Inject
-    public RealEmployeeDao(Registry registry, PersistenceManagerFactory factory) {
+    public RealEmployeeDao(Registry registry, PersistenceManagerFactory factory, JdbcCursor cursor) {
         super(factory);
         LOG.trace(LOG_CALLED);
         this.registry = Objects.requireNonNull(registry,
             Messages.getParameterIsNull("registry")); //$NON-NLS-1$
+        this.cursor = Objects.requireNonNull(cursor,
+            Messages.getParameterIsNull("cursor")); //$NON-NLS-1$
     }
 
     @Override
@@ -135,11 +139,7 @@ public final class RealEmployeeDao extends AbstractDao<Employee> implements Empl
     }
 
     private List<Employee> getEmployeeList(String key) {
-        try {
-            return executeAndReturnListResult(
-                SqlStatement.newInstance(this.registry.getSql(key)), Employee.class);
-        } catch (NoResultException e) {
-            return Collections.emptyList();
-        }
+        return this.cursor.list(this.registry.getSql(key), Collections.emptyList(),
+            EmployeeEntity::rowMapper);
     }
 }
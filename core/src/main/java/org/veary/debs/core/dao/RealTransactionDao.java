@@ -24,11 +24,20 @@
 
 package org.veary.debs.core.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -36,14 +45,28 @@ import javax.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.veary.debs.Messages;
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.DateRange;
 import org.veary.debs.core.Money;
+import org.veary.debs.core.PageKey;
+import org.veary.debs.core.PageRequest;
+import org.veary.debs.core.PageRequest.Direction;
+import org.veary.debs.core.PostingMode;
+import org.veary.debs.core.RetryPolicy;
+import org.veary.debs.core.TransactionCriteria;
+import org.veary.debs.core.TransactionPage;
+import org.veary.debs.core.model.RowCountEntity;
 import org.veary.debs.core.model.TransactionEntity;
 import org.veary.debs.core.model.TransactionEntitySelect;
+import org.veary.debs.core.model.TransactionSummaryEntity;
 import org.veary.debs.dao.Registry;
 import org.veary.debs.dao.TransactionDao;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.model.Account;
 import org.veary.debs.model.Entry;
 import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.persist.PersistenceManagerFactory;
 import org.veary.persist.Query;
 import org.veary.persist.QueryManager;
@@ -64,60 +87,387 @@ import org.veary.persist.exceptions.NoResultException;
 @Singleton
 public final class RealTransactionDao extends AbstractDao<Transaction> implements TransactionDao {
 
+    /**
+     * <b>Purpose:</b> The total debits and credits of one account for one month, such as the
+     * claimed {@code BALANCE_JOURNAL} rows or the entries of a bulk posting.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    private static final class PeriodTotal {
+
+        private final Long accountId;
+        private final Integer yearMonth;
+        private final Money debits;
+        private final Money credits;
+        private final int rows;
+
+        PeriodTotal(Long accountId, Integer yearMonth, Money debits, Money credits, int rows) {
+            this.accountId = accountId;
+            this.yearMonth = yearMonth;
+            this.debits = debits;
+            this.credits = credits;
+            this.rows = rows;
+        }
+
+        PeriodTotal plus(Money moreDebits, Money moreCredits) {
+            return new PeriodTotal(this.accountId, this.yearMonth,
+                this.debits.plus(moreDebits), this.credits.plus(moreCredits), this.rows + 1);
+        }
+    }
+
     private static final Logger LOG = LogManager.getLogger(RealTransactionDao.class);
     private static final String LOG_CALLED = "called"; //$NON-NLS-1$
 
     private final Registry registry;
+    private final AccountCache accountCache;
+    private final JdbcCursor cursor;
+    private final JdbcBatch batch;
+    private final IdAllocator idAllocator;
+    private final AmountStorage amountStorage;
+    private final RetryPolicy retryPolicy;
+    private final boolean rollup;
+    private final PostingMode postingMode;
 
     /**
      * Constructor.
      *
      * @param registry {@link Registry}
      * @param factory {@link PersistenceManagerFactory}
+     * @param balanceMode {@link BalanceMode}
+     * @param postingMode {@link PostingMode}
+     * @param accountCache {@link AccountCache} invalidated whenever balances are changed
+     * @param cursor {@link JdbcCursor} used for full scans
+     * @param batch {@link JdbcBatch} used to write new transactions
+     * @param idAllocator {@link IdAllocator} of the identifiers of new transactions
+     * @param amountStorage {@link AmountStorage} of the amount columns
+     * @param retryPolicy {@link RetryPolicy} of the writes which fail on lock contention
      */
     @Inject
-    public RealTransactionDao(Registry registry, PersistenceManagerFactory factory) {
+    public RealTransactionDao(Registry registry, PersistenceManagerFactory factory,
+        BalanceMode balanceMode, PostingMode postingMode, AccountCache accountCache,
+        JdbcCursor cursor, JdbcBatch batch, IdAllocator idAllocator,
+        AmountStorage amountStorage, RetryPolicy retryPolicy) {
         super(factory);
         LOG.trace(LOG_CALLED);
         this.registry = Objects.requireNonNull(registry,
             Messages.getParameterIsNull("registry")); //$NON-NLS-1$
+        this.accountCache = Objects.requireNonNull(accountCache,
+            Messages.getParameterIsNull("accountCache")); //$NON-NLS-1$
+        this.cursor = Objects.requireNonNull(cursor,
+            Messages.getParameterIsNull("cursor")); //$NON-NLS-1$
+        this.batch = Objects.requireNonNull(batch,
+            Messages.getParameterIsNull("batch")); //$NON-NLS-1$
+        this.idAllocator = Objects.requireNonNull(idAllocator,
+            Messages.getParameterIsNull("idAllocator")); //$NON-NLS-1$
+        this.amountStorage = Objects.requireNonNull(amountStorage,
+            Messages.getParameterIsNull("amountStorage")); //$NON-NLS-1$
+        this.retryPolicy = Objects.requireNonNull(retryPolicy,
+            Messages.getParameterIsNull("retryPolicy")); //$NON-NLS-1$
+        this.postingMode = Objects.requireNonNull(postingMode,
+            Messages.getParameterIsNull("postingMode")); //$NON-NLS-1$
+        Objects.requireNonNull(balanceMode,
+            Messages.getParameterIsNull("balanceMode")); //$NON-NLS-1$
+
+        this.rollup = balanceMode != BalanceMode.LEAF_ONLY;
     }
 
     @Override
     public Long createTransaction(Transaction object) {
         LOG.trace(LOG_CALLED);
 
+        validateNewTransaction(object);
+        return createTransactions(List.of(object)).get(0);
+    }
+
+    /**
+     * Every {@code Transaction} is validated before anything is written. The identifiers of
+     * the new rows are taken from the {@link IdAllocator}, so the entries, the transactions
+     * and the balance changes can each be written as a single JDBC batch within one database
+     * transaction: the entries are netted per account, and per account and month, so that each
+     * account whose balance changes is updated once, in the order described at
+     * {@link #updateAccountBalances}. A write which fails on lock contention is tried again as
+     * the {@link RetryPolicy} allows, with newly allocated identifiers.
+     */
+    @Override
+    public List<Long> createTransactions(List<Transaction> objects) {
+        LOG.trace(LOG_CALLED);
+
+        Objects.requireNonNull(objects, Messages.getParameterIsNull("objects")); //$NON-NLS-1$
+        for (Transaction object : objects) {
+            validateNewTransaction(object);
+        }
+
+        if (objects.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Long> ids = this.retryPolicy.execute(
+            () -> this.batch.inTransaction(conn -> insertTransactions(conn, objects)));
+        invalidateBalances();
+
+        return ids;
+    }
+
+    private static void validateNewTransaction(Transaction object) {
         Objects.requireNonNull(object, Messages.getParameterIsNull("object")); //$NON-NLS-1$
         Objects.requireNonNull(object.getFromEntry(),
             Messages.getString("RealTransactionDao.createTransaction.fromEntry.null"));//$NON-NLS-1$
         Objects.requireNonNull(object.getToEntry(),
             Messages.getString("RealTransactionDao.createTransaction.toEntry.null")); //$NON-NLS-1$
+    }
 
-        // This must happen AFTER the above due to ISOLATION LEVEL
-        TransactionManager manager = this.factory.createTransactionManager();
-        manager.begin();
+    /**
+     * Inserts the entries, then the transactions, and applies the netted entries to the
+     * balances, each as one batch on the referenced connection.
+     *
+     * @param conn {@code Connection}
+     * @param objects the validated {@code Transaction} objects
+     * @return the unique identifiers of the new {@code Transaction} objects, in order
+     * @throws SQLException if a statement fails
+     */
+    private List<Long> insertTransactions(Connection conn, List<Transaction> objects)
+        throws SQLException {
+        LOG.trace(LOG_CALLED);
 
-        final Long fromId = createTransactionEntry(manager, object.getFromEntry());
-        final Long toId = createTransactionEntry(manager, object.getToEntry());
+        final List<Long> entryIds = this.idAllocator.allocate(IdAllocator.Sequence.ENTRY,
+            objects.size() * 2);
+        final List<Long> ids = this.idAllocator.allocate(IdAllocator.Sequence.TRANSACTION,
+            objects.size());
+
+        final List<List<Object>> entries = new ArrayList<>(objects.size() * 2);
+        final List<List<Object>> transactions = new ArrayList<>(objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            final Transaction object = objects.get(i);
+            final Long fromId = entryIds.get(2 * i);
+            final Long toId = entryIds.get(2 * i + 1);
+            entries.add(toEntryRow(fromId, object.getFromEntry()));
+            entries.add(toEntryRow(toId, object.getToEntry()));
+            transactions.add(Arrays.asList(ids.get(i), object.getDate(), object.getReference(),
+                object.getNarrative(), fromId, toId));
+        }
 
-        final SqlStatement insertTx = SqlStatement
-            .newInstance(this.registry.getSql("createTransaction")); //$NON-NLS-1$
-        insertTx.setParameter(1, object.getDate());
-        insertTx.setParameter(2, object.getReference());
-        insertTx.setParameter(3, object.getNarrative());
-        insertTx.setParameter(4, fromId);
-        insertTx.setParameter(5, toId);
+        this.batch.execute(conn, this.registry.getSql("createTransactionEntry"), //$NON-NLS-1$
+            entries);
+        this.batch.execute(conn, this.registry.getSql("createTransaction"), //$NON-NLS-1$
+            transactions);
 
-        final Long id = manager.persist(insertTx);
+        final Map<Long, Map<Integer, PeriodTotal>> periods = new TreeMap<>();
+        for (Transaction object : objects) {
+            addPeriodTotal(periods, object.getFromEntry(), object.getDate(), false);
+            addPeriodTotal(periods, object.getToEntry(), object.getDate(), false);
+        }
+        applyPeriodTotals(conn, periods);
 
-        updateAccountBalance(manager, object.getFromEntry(), object.getFromEntry().getAmount());
-        updateAccountBalance(manager, object.getToEntry(), object.getToEntry().getAmount());
+        return ids;
+    }
 
-        manager.commit();
+    private List<Object> toEntryRow(Long id, Entry object) {
+        return Arrays.asList(id, this.amountStorage.toParameter(object.getAmount()),
+            object.getType().getId(), object.getAccountId(), Boolean.valueOf(object.isCleared()),
+            object.getClearedTimestamp());
+    }
+
+    /**
+     * Adds the {@code Entry}, or its reversal, to the total of its account for the month of
+     * the referenced date. A {@code TO} entry is a debit and a {@code FROM} entry a credit.
+     */
+    private static void addPeriodTotal(Map<Long, Map<Integer, PeriodTotal>> periods,
+        Entry entry, LocalDate date, boolean reverse) {
+        final Integer yearMonth = toYearMonth(date);
+        final Money amount = reverse ? entry.getAmount().negate() : entry.getAmount();
+        final Money zero = Money.ofMinorUnits(0);
+        final Money debits = entry.getType() == Entry.Types.TO ? amount : zero;
+        final Money credits = entry.getType() == Entry.Types.TO ? zero : amount.negate();
+
+        periods.computeIfAbsent(entry.getAccountId(), id -> new TreeMap<>())
+            .merge(yearMonth, new PeriodTotal(entry.getAccountId(), yearMonth, debits, credits, 1),
+                (total, added) -> total.plus(added.debits, added.credits));
+    }
+
+    /**
+     * Applies the netted totals to the balances of their accounts. In
+     * {@link PostingMode#IMMEDIATE} mode the account balances and the monthly snapshots are
+     * updated straight away; in {@link PostingMode#DEFERRED} mode the changes are appended to
+     * the {@code BALANCE_JOURNAL} and applied later by {@link #materializeBalances(int)}. The
+     * totals which net to nothing are skipped, as is every account whose balance does not
+     * change.
+     */
+    private void applyPeriodTotals(Connection conn,
+        Map<Long, Map<Integer, PeriodTotal>> periods) throws SQLException {
+        LOG.trace(LOG_CALLED);
+
+        for (Map<Integer, PeriodTotal> months : periods.values()) {
+            months.values().removeIf(total -> total.debits.isZero() && total.credits.isZero());
+        }
+        periods.values().removeIf(Map::isEmpty);
+
+        if (this.postingMode == PostingMode.DEFERRED) {
+            appendBalanceJournal(conn, periods);
+        } else {
+            updateAccountBalances(conn, periods);
+            updatePeriodBalances(conn, periods);
+        }
+    }
+
+    private void appendBalanceJournal(Connection conn,
+        Map<Long, Map<Integer, PeriodTotal>> periods) throws SQLException {
+        LOG.trace(LOG_CALLED);
+
+        final List<List<Object>> rows = new ArrayList<>();
+        for (Map<Integer, PeriodTotal> months : periods.values()) {
+            for (PeriodTotal total : months.values()) {
+                rows.add(List.of(total.accountId, total.yearMonth,
+                    this.amountStorage.toParameter(total.debits),
+                    this.amountStorage.toParameter(total.credits)));
+            }
+        }
+        this.batch.execute(conn, this.registry.getSql("appendBalanceJournal"), rows); //$NON-NLS-1$
+    }
+
+    /**
+     * Nets the movements per account, adding each to the parent hierarchy of its account
+     * unless the {@link BalanceMode} is {@code LEAF_ONLY}, and updates the balance of each
+     * account once. The statements apply to one account each; the accounts are updated in
+     * order of their identifiers, and their period snapshots likewise after them. Every posting
+     * therefore takes its row locks in the same order, so two postings to the same accounts
+     * wait for each other in the database rather than deadlock, and no locks are taken in the
+     * JVM.
+     *
+     * <p>An account which is not striped has its balance updated directly. The amount for a
+     * striped account goes to one of its {@code ACCOUNT_BALANCE_STRIPE} rows instead, and to the
+     * balance only if its stripes have been removed since the {@link AccountCache} was loaded;
+     * the balance of an account is the sum of the two, so either is correct.
+     */
+    private void updateAccountBalances(Connection conn,
+        Map<Long, Map<Integer, PeriodTotal>> periods) throws SQLException {
+        LOG.trace(LOG_CALLED);
+
+        final Map<Long, Money> balances = new TreeMap<>();
+        for (Map.Entry<Long, Map<Integer, PeriodTotal>> account : periods.entrySet()) {
+            Money movement = Money.ofMinorUnits(0);
+            for (PeriodTotal total : account.getValue().values()) {
+                movement = movement.plus(total.debits.minus(total.credits));
+            }
+            for (Long id : getBalanceAccountIds(conn, account.getKey())) {
+                balances.merge(id, movement, Money::plus);
+            }
+        }
+
+        final Integer seed = RealAccountDao.stripeSeed();
+        final List<List<Object>> updates = new ArrayList<>(balances.size());
+        final List<List<Object>> stripes = new ArrayList<>();
+        final List<List<Object>> unstriped = new ArrayList<>();
+        for (Map.Entry<Long, Money> balance : balances.entrySet()) {
+            if (balance.getValue().isZero()) {
+                continue;
+            }
+            final Long id = balance.getKey();
+            final Object parameter = this.amountStorage.toParameter(balance.getValue());
+            if (this.accountCache.isStriped(id)) {
+                stripes.add(List.of(parameter, seed, id));
+                unstriped.add(List.of(parameter, id, id));
+            } else {
+                updates.add(List.of(parameter, id));
+            }
+        }
+
+        this.batch.execute(conn, this.registry.getSql("updateAccountBalance"), //$NON-NLS-1$
+            updates);
+        this.batch.execute(conn, this.registry.getSql("updateAccountBalanceStripe"), //$NON-NLS-1$
+            stripes);
+        this.batch.execute(conn,
+            this.registry.getSql("updateUnstripedAccountBalance"), unstriped); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the account followed, unless the {@link BalanceMode} is {@code LEAF_ONLY}, by
+     * each of its ancestors, read on the connection of the posting so that the hierarchy is the
+     * one the balance updates are applied to.
+     */
+    private List<Long> getBalanceAccountIds(Connection conn, Long accountId)
+        throws SQLException {
+        if (!this.rollup) {
+            return List.of(accountId);
+        }
+
+        final List<Long> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn
+            .prepareStatement(this.registry.getSql("getAccountHierarchyIds"))) { //$NON-NLS-1$
+            stmt.setLong(1, accountId.longValue());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(Long.valueOf(rs.getLong(1)));
+                }
+            }
+        }
+
+        if (ids.isEmpty()) {
+            throw new IllegalStateException(Messages.getString(
+                "RealTransactionDao.unknownaccount", accountId)); //$NON-NLS-1$
+        }
+        return ids;
+    }
 
-        return id;
+    /**
+     * The batched equivalent of {@link #updatePeriodBalance}. Every missing snapshot is created
+     * and opened before any is updated, which gives the same result: a snapshot created for a
+     * later month opens at the closing balance before the update, and is then carried forward
+     * by the movements of the earlier months. The stripes are likewise all created before any
+     * is updated.
+     */
+    private void updatePeriodBalances(Connection conn,
+        Map<Long, Map<Integer, PeriodTotal>> periods) throws SQLException {
+        LOG.trace(LOG_CALLED);
+
+        final List<List<Object>> creates = new ArrayList<>();
+        final List<List<Object>> opens = new ArrayList<>();
+        final List<List<Object>> updates = new ArrayList<>();
+        final List<List<Object>> carries = new ArrayList<>();
+        final List<List<Object>> createStripes = new ArrayList<>();
+        final List<List<Object>> updateStripes = new ArrayList<>();
+        final Integer seed = RealAccountDao.stripeSeed();
+        for (Map<Integer, PeriodTotal> months : periods.values()) {
+            for (PeriodTotal total : months.values()) {
+                final Object debits = this.amountStorage.toParameter(total.debits);
+                final Object credits = this.amountStorage.toParameter(total.credits);
+                final Object movement = this.amountStorage
+                    .toParameter(total.debits.minus(total.credits));
+                creates.add(List.of(total.yearMonth, total.accountId));
+                opens.add(List.of(total.accountId, total.yearMonth));
+                updates.add(List.of(debits, credits, movement, total.accountId,
+                    total.yearMonth));
+                carries.add(List.of(movement, movement, total.accountId, total.yearMonth));
+                createStripes.add(List.of(total.yearMonth, total.accountId, seed));
+                updateStripes.add(List.of(debits, credits, total.accountId, total.yearMonth,
+                    seed));
+            }
+        }
+
+        this.batch.execute(conn,
+            this.registry.getSql("createAccountPeriodBalance"), creates); //$NON-NLS-1$
+        this.batch.execute(conn,
+            this.registry.getSql("openAccountPeriodBalance"), opens); //$NON-NLS-1$
+        this.batch.execute(conn,
+            this.registry.getSql("updateAccountPeriodBalance"), updates); //$NON-NLS-1$
+        this.batch.execute(conn,
+            this.registry.getSql("carryAccountPeriodBalance"), carries); //$NON-NLS-1$
+        this.batch.execute(conn,
+            this.registry.getSql("createAccountPeriodBalanceStripe"), //$NON-NLS-1$
+            createStripes);
+        this.batch.execute(conn,
+            this.registry.getSql("updateAccountPeriodBalanceStripe"), //$NON-NLS-1$
+            updateStripes);
     }
 
+    /**
+     * The original entries are reversed and the updated entries applied as netted totals, so
+     * an update that leaves the amount, the accounts and the month unchanged writes no
+     * balances. Only the entries whose amount, type, account, cleared or deleted state have
+     * changed are written; the {@code TRANSACTION} row always is. Everything is written
+     * within one database transaction, which is tried again as the {@link RetryPolicy} allows
+     * if it fails on lock contention.
+     */
     @Override
     public void updateTransaction(Transaction original, Transaction updated) {
         LOG.trace(LOG_CALLED);
@@ -132,57 +482,165 @@ public final class RealTransactionDao extends AbstractDao<Transaction> implement
             LOG.trace("Tx Updated: {}", () -> updatedTxEntity);
         }
 
-        final TransactionManager manager = this.factory.createTransactionManager();
-        manager.begin();
+        final Map<Long, Map<Integer, PeriodTotal>> periods = new TreeMap<>();
+        addPeriodTotal(periods, original.getFromEntry(), original.getDate(), true);
+        addPeriodTotal(periods, original.getToEntry(), original.getDate(), true);
+        if (!updated.isDeleted()) {
+            addPeriodTotal(periods, updated.getFromEntry(), updated.getDate(), false);
+            addPeriodTotal(periods, updated.getToEntry(), updated.getDate(), false);
+        }
 
-        updateAccountBalance(manager, original.getFromEntry(), original.getToEntry().getAmount());
-        updateAccountBalance(manager, original.getToEntry(), original.getFromEntry().getAmount());
+        final List<List<Object>> entries = new ArrayList<>(2);
+        if (isEntryChanged(original.getFromEntry(), updated.getFromEntry())) {
+            entries.add(toEntryUpdateRow(original.getFromEntry().getId(), updated.getFromEntry()));
+        }
+        if (isEntryChanged(original.getToEntry(), updated.getToEntry())) {
+            entries.add(toEntryUpdateRow(original.getToEntry().getId(), updated.getToEntry()));
+        }
 
-        if (!updated.isDeleted()) {
-            updateAccountBalance(manager, updated.getFromEntry(),
-                updated.getFromEntry().getAmount());
-            updateAccountBalance(manager, updated.getToEntry(), updated.getToEntry().getAmount());
-        }
-
-        LOG.trace("Update the Transaction Entry objects");
-        updateTransactionEntry(manager, updated.getFromEntry());
-        updateTransactionEntry(manager, updated.getToEntry());
-
-        LOG.trace("Update the Transaction object");
-        final SqlStatement updateTx = SqlStatement
-            .newInstance(this.registry.getSql("updateTransaction")); //$NON-NLS-1$
-        updateTx.setParameter(1, updated.getDate());
-        updateTx.setParameter(2, updated.getReference());
-        updateTx.setParameter(3, updated.getNarrative());
-        updateTx.setParameter(4, original.getFromEntry().getId());
-        updateTx.setParameter(5, original.getToEntry().getId());
-        updateTx.setParameter(6, Boolean.valueOf(updated.isDeleted()));
-        updateTx.setParameter(7, original.getId());
-
-        manager.persist(updateTx);
-        manager.commit();
+        final List<Object> transaction = Arrays.asList(updated.getDate(),
+            updated.getReference(), updated.getNarrative(), original.getFromEntry().getId(),
+            original.getToEntry().getId(), Boolean.valueOf(updated.isDeleted()),
+            original.getId(), Integer.valueOf(original.getVersion()));
+
+        // The versioned update goes first: it locks the row, and if the original is stale
+        // nothing else is written.
+        this.retryPolicy.execute(() -> this.batch.inTransaction(conn -> {
+            checkVersion(this.batch.update(conn,
+                this.registry.getSql("updateTransaction"), //$NON-NLS-1$
+                transaction), original);
+            this.batch.execute(conn,
+                this.registry.getSql("updateTransactionEntry"), entries); //$NON-NLS-1$
+            applyPeriodTotals(conn, periods);
+            return null;
+        }));
+
+        if (!periods.isEmpty()) {
+            invalidateBalances();
+        }
+    }
+
+    private static boolean isEntryChanged(Entry original, Entry updated) {
+        return !original.getAmount().eq(updated.getAmount())
+            || original.getType() != updated.getType()
+            || !original.getAccountId().equals(updated.getAccountId())
+            || original.isCleared() != updated.isCleared()
+            || !Objects.equals(original.getClearedTimestamp(), updated.getClearedTimestamp())
+            || original.isDeleted() != updated.isDeleted();
+    }
+
+    private List<Object> toEntryUpdateRow(Long id, Entry object) {
+        return Arrays.asList(this.amountStorage.toParameter(object.getAmount()),
+            object.getType().getId(), object.getAccountId(), Boolean.valueOf(object.isCleared()),
+            object.getClearedTimestamp(), Boolean.valueOf(object.isDeleted()), id);
     }
 
     @Override
     public void deleteTransaction(Transaction object) {
         LOG.trace(LOG_CALLED);
 
-        final SqlStatement delete = SqlStatement
-            .newInstance(this.registry.getSql("deleteTransaction"));
-        delete.setParameter(1, object.getId());
+        final Map<Long, Map<Integer, PeriodTotal>> periods = new TreeMap<>();
+        addPeriodTotal(periods, object.getFromEntry(), object.getDate(), true);
+        addPeriodTotal(periods, object.getToEntry(), object.getDate(), true);
+
+        final List<List<Object>> entries = List.of(List.of(object.getFromEntry().getId()),
+            List.of(object.getToEntry().getId()));
+
+        this.retryPolicy.execute(() -> this.batch.inTransaction(conn -> {
+            checkVersion(this.batch.update(conn,
+                this.registry.getSql("deleteTransaction"), //$NON-NLS-1$
+                List.of(object.getId(), Integer.valueOf(object.getVersion()))), object);
+            this.batch.execute(conn,
+                this.registry.getSql("deleteTransactionEntry"), entries); //$NON-NLS-1$
+            applyPeriodTotals(conn, periods);
+            return null;
+        }));
+        invalidateBalances();
+    }
+
+    /**
+     * Discards the balances held by the {@link AccountCache} after a posting has written them.
+     * In {@link PostingMode#DEFERRED} mode a posting only appends to the journal, so the cache
+     * is left alone until the journal is materialized.
+     */
+    private void invalidateBalances() {
+        if (this.postingMode == PostingMode.IMMEDIATE) {
+            this.accountCache.invalidateBalances();
+        }
+    }
+
+    private static void checkVersion(int count, Transaction original) {
+        if (count == 0) {
+            throw new ConcurrentUpdateException(Messages.getString(
+                "RealTransactionDao.conflict", //$NON-NLS-1$
+                original.getId(), Integer.valueOf(original.getVersion())));
+        }
+    }
+
+    /**
+     * The unclaimed journal rows are first claimed and committed, so that rows appended
+     * concurrently, or not yet committed, are left for the next call. The claimed rows are then
+     * applied and deleted within a single database transaction. Rows left claimed by a call
+     * that failed are picked up again by the next one.
+     */
+    @Override
+    public synchronized int materializeBalances(int limit) {
+        LOG.trace(LOG_CALLED);
+
+        final SqlStatement claim = SqlStatement
+            .newInstance(this.registry.getSql("claimBalanceJournal")); //$NON-NLS-1$
+        claim.setParameter(1, Integer.valueOf(limit));
 
         TransactionManager manager = this.factory.createTransactionManager();
         manager.begin();
-        manager.persist(delete);
+        manager.persist(claim);
+        manager.commit();
 
-        deleteTransactionEntry(manager, object.getFromEntry());
-        deleteTransactionEntry(manager, object.getToEntry());
+        final List<PeriodTotal> totals = this.cursor.list(
+            this.registry.getSql("getClaimedBalanceJournal"), //$NON-NLS-1$
+            Collections.emptyList(),
+            meta -> rs -> new PeriodTotal(Long.valueOf(rs.getLong(1)),
+                Integer.valueOf(rs.getInt(2)), this.amountStorage.fromSum(rs.getObject(3)),
+                this.amountStorage.fromSum(rs.getObject(4)), rs.getInt(5)));
 
-        // Yes, they do SEEM to be in reverse!
-        updateAccountBalance(manager, object.getToEntry(), object.getFromEntry().getAmount());
-        updateAccountBalance(manager, object.getFromEntry(), object.getToEntry().getAmount());
+        if (totals.isEmpty()) {
+            return 0;
+        }
 
+        manager = this.factory.createTransactionManager();
+        manager.begin();
+
+        int rows = 0;
+        for (PeriodTotal total : totals) {
+            updateAccountBalance(manager, total.accountId, total.debits.minus(total.credits));
+            updatePeriodBalance(manager, total.accountId, total.yearMonth, total.debits,
+                total.credits);
+            rows += total.rows;
+        }
+
+        manager.persist(SqlStatement
+            .newInstance(this.registry.getSql("deleteClaimedBalanceJournal"))); //$NON-NLS-1$
         manager.commit();
+        this.accountCache.invalidateBalances();
+
+        LOG.debug("Materialized {} journal rows for {} account months", rows, totals.size());
+        return rows;
+    }
+
+    @Override
+    public long getPostingSequence() {
+        LOG.trace(LOG_CALLED);
+        return this.cursor.list(this.registry.getSql("getBalanceJournalSequence"), //$NON-NLS-1$
+            Collections.emptyList(), meta -> rs -> Long.valueOf(rs.getLong(1))).get(0)
+            .longValue();
+    }
+
+    @Override
+    public boolean isMaterialized(long sequence) {
+        LOG.trace(LOG_CALLED);
+        return this.cursor.list(this.registry.getSql("countBalanceJournalPending"), //$NON-NLS-1$
+            List.of(Long.valueOf(sequence)), meta -> rs -> Long.valueOf(rs.getLong(1))).get(0)
+            .longValue() == 0;
     }
 
     @Override
@@ -211,175 +669,434 @@ public final class RealTransactionDao extends AbstractDao<Transaction> implement
             "getAllTransactionsBoth"
         };
 
-        final SqlStatement select = SqlStatement
-            .newInstance(getSqlForStatus(includeDeleted, keys));
+        return selectTransactions(getSqlForStatus(includeDeleted, keys),
+            Collections.emptyList());
+    }
 
-        QueryManager manager = this.factory.createQueryManager();
-        Query query = manager.createQuery(select, TransactionEntitySelect.class);
+    @Override
+    public List<Transaction> getAllTransactionsOverPeriod(YearMonth period,
+        boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        return getAllTransactionsOverRange(DateRange.of(period), includeDeleted);
+    }
 
-        try {
-            query.execute();
-        } catch (NoResultException e) {
-            return Collections.emptyList();
-        }
+    @Override
+    public List<Transaction> getAllTransactionsOverRange(DateRange range,
+        boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
 
-        return transformTransactionResultList(query.getResultList());
+        final String[] keys = {
+            "getAllTransactionsOverRangeExcludeDeleted",
+            "getAllTransactionsOverRangeBoth"
+        };
+
+        final List<Object> parameters = List.of(range.getStart(), range.getEnd());
+        return selectTransactions(getSqlForStatus(includeDeleted, keys), parameters);
     }
 
     @Override
-    public List<Transaction> getAllTransactionsOverPeriod(YearMonth period,
-        boolean includeDeleted) {
+    public List<Transaction> getTransactionsForAccount(Account account, boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
 
         final String[] keys = {
-            "getAllTransactionsOverPeriodExcludeDeleted",
-            "getAllTransactionsOverPeriodBoth"
+            "getTransactionsForAccountExcludeDeleted",
+            "getTransactionsForAccountBoth"
         };
 
-        final SqlStatement select = SqlStatement
-            .newInstance(getSqlForStatus(includeDeleted, keys));
-        select.setParameter(1, Integer.valueOf(period.getYear()));
-        select.setParameter(2, Integer.valueOf(period.getMonthValue()));
+        final List<Object> parameters = List.of(account.getId(), account.getId());
+        return selectTransactions(getSqlForStatus(includeDeleted, keys), parameters);
+    }
 
-        QueryManager manager = this.factory.createQueryManager();
-        Query query = manager.createQuery(select, TransactionEntitySelect.class);
+    @Override
+    public List<Transaction> getTransactionsForAccountOverPeriod(YearMonth period,
+        Account account, boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        return getTransactionsForAccountOverRange(DateRange.of(period), account, includeDeleted);
+    }
 
-        try {
-            query.execute();
-        } catch (NoResultException e) {
-            return Collections.emptyList();
-        }
+    @Override
+    public List<Transaction> getTransactionsForAccountOverRange(DateRange range,
+        Account account, boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+
+        final String[] keys = {
+            "getTransactionsForAccountOverRangeExcludeDeleted",
+            "getTransactionsForAccountOverRangeBoth"
+        };
 
-        return transformTransactionResultList(query.getResultList());
+        final List<Object> parameters = List.of(account.getId(), account.getId(),
+            range.getStart(), range.getEnd());
+        return selectTransactions(getSqlForStatus(includeDeleted, keys), parameters);
     }
 
     @Override
-    public List<Transaction> getTransactionsForAccount(Account account, boolean includeDeleted) {
+    public List<TransactionSummary> getTransactionSummaries(boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
 
         final String[] keys = {
-            "getTransactionsForAccountExcludeDeleted",
-            "getTransactionsForAccountBoth"
+            "getTransactionSummariesExcludeDeleted",
+            "getTransactionSummariesBoth"
         };
 
-        final SqlStatement select = SqlStatement
-            .newInstance(getSqlForStatus(includeDeleted, keys));
-        select.setParameter(1, account.getId());
-        select.setParameter(2, account.getId());
+        return executeSummaryQuery(
+            SqlStatement.newInstance(getSqlForStatus(includeDeleted, keys)));
+    }
 
-        QueryManager manager = this.factory.createQueryManager();
-        Query query = manager.createQuery(select, TransactionEntitySelect.class);
+    @Override
+    public List<TransactionSummary> getTransactionSummariesOverRange(DateRange range,
+        boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
 
-        try {
-            query.execute();
-        } catch (NoResultException e) {
-            return Collections.emptyList();
-        }
+        final String[] keys = {
+            "getTransactionSummariesOverRangeExcludeDeleted",
+            "getTransactionSummariesOverRangeBoth"
+        };
+
+        final SqlStatement select = SqlStatement
+            .newInstance(getSqlForStatus(includeDeleted, keys));
+        select.setParameter(1, range.getStart());
+        select.setParameter(2, range.getEnd());
 
-        return transformTransactionResultList(query.getResultList());
+        return executeSummaryQuery(select);
     }
 
     @Override
-    public List<Transaction> getTransactionsForAccountOverPeriod(YearMonth period,
-        Account account, boolean includeDeleted) {
+    public List<TransactionSummary> getTransactionSummariesForAccount(Account account,
+        boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
 
         final String[] keys = {
-            "getTransactionsForAccountOverPeriodExcludeDeleted",
-            "getTransactionsForAccountOverPeriodBoth"
+            "getTransactionSummariesForAccountExcludeDeleted",
+            "getTransactionSummariesForAccountBoth"
         };
 
         final SqlStatement select = SqlStatement
             .newInstance(getSqlForStatus(includeDeleted, keys));
         select.setParameter(1, account.getId());
         select.setParameter(2, account.getId());
-        select.setParameter(3, Integer.valueOf(period.getYear()));
-        select.setParameter(4, Integer.valueOf(period.getMonthValue()));
 
-        QueryManager manager = this.factory.createQueryManager();
-        Query query = manager.createQuery(select, TransactionEntitySelect.class);
+        return executeSummaryQuery(select);
+    }
 
-        try {
-            query.execute();
-        } catch (NoResultException e) {
-            return Collections.emptyList();
-        }
+    @Override
+    public List<TransactionSummary> getTransactionSummariesForAccountOverRange(DateRange range,
+        Account account, boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+
+        final String[] keys = {
+            "getTransactionSummariesForAccountOverRangeExcludeDeleted",
+            "getTransactionSummariesForAccountOverRangeBoth"
+        };
 
-        return transformTransactionResultList(query.getResultList());
+        return this.cursor.list(getSqlForStatus(includeDeleted, keys),
+            List.of(account.getId(), account.getId(), account.getId(), range.getStart(),
+                range.getEnd()),
+            meta -> TransactionSummaryEntity.statementRowMapper(meta, this.amountStorage));
     }
 
-    /**
-     * A separate call will need to be made to set this item as cleared.
-     *
-     * @param manager {@code TransactionManager}
-     * @param object {@code Entry}
-     * @return the unique identifier of the new {@code Entry}
-     */
-    private Long createTransactionEntry(TransactionManager manager, Entry object) {
+    @Override
+    public TransactionPage getTransactionSummaryPage(PageRequest request,
+        boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
 
-        final SqlStatement insertTxEntry = SqlStatement
-            .newInstance(this.registry.getSql("createTransactionEntry")); //$NON-NLS-1$
-        insertTxEntry.setParameter(1, object.getAmount().getValue());
-        insertTxEntry.setParameter(2, object.getType().getId());
-        insertTxEntry.setParameter(3, object.getAccountId());
-        insertTxEntry.setParameter(4, Boolean.valueOf(object.isCleared()));
-        insertTxEntry.setParameter(5, object.getClearedTimestamp());
+        final SqlStatement select = SqlStatement.newInstance(
+            getPageSql("getTransactionSummaryPage", request, includeDeleted));
+        bindPageRequest(select, 1, request);
+
+        final SqlStatement count = SqlStatement.newInstance(getSqlForStatus(includeDeleted,
+            "countTransactionsExcludeDeleted", "countTransactionsBoth"));
 
-        return manager.persist(insertTxEntry);
+        return toPage(request, executeSummaryQuery(select), count);
     }
 
-    private void updateTransactionEntry(TransactionManager manager, Entry object) {
+    @Override
+    public TransactionPage getTransactionSummaryPageForAccount(PageRequest request,
+        Account account, boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
 
-        final SqlStatement updateTxEntry = SqlStatement
-            .newInstance(this.registry.getSql("updateTransactionEntry")); //$NON-NLS-1$
-        updateTxEntry.setParameter(1, object.getAmount().getValue());
-        updateTxEntry.setParameter(2, object.getType().getId());
-        updateTxEntry.setParameter(3, object.getAccountId());
-        updateTxEntry.setParameter(4, Boolean.valueOf(object.isCleared()));
-        updateTxEntry.setParameter(5, object.getClearedTimestamp());
-        updateTxEntry.setParameter(6, Boolean.valueOf(object.isDeleted()));
-        updateTxEntry.setParameter(7, object.getId());
+        final SqlStatement select = SqlStatement.newInstance(
+            getPageSql("getTransactionSummaryPageForAccount", request, includeDeleted));
+        // The FROM and TO sides are read separately, each seeking on the entries of the
+        // account, and the second skips the transactions between the account and itself.
+        int index = 1;
+        select.setParameter(index++, account.getId());
+        index = bindPageRequest(select, index, request);
+        select.setParameter(index++, account.getId());
+        select.setParameter(index++, account.getId());
+        index = bindPageRequest(select, index, request);
+        select.setParameter(index, Integer.valueOf(request.getSize() + 1));
+
+        final SqlStatement count = SqlStatement.newInstance(getSqlForStatus(includeDeleted,
+            "countTransactionsForAccountExcludeDeleted", "countTransactionsForAccountBoth"));
+        count.setParameter(1, account.getId());
+        count.setParameter(2, account.getId());
+
+        return toPage(request, executeSummaryQuery(select), count);
+    }
+
+    @Override
+    public void forEachTransaction(TransactionCriteria criteria, Consumer<Transaction> action) {
+        LOG.trace(LOG_CALLED);
+
+        final DateRange range = criteria.getRange();
+        final Account account = criteria.getAccount();
+        final List<Object> parameters = new ArrayList<>(4);
+
+        String key = "getAllTransactions";
+        if (account != null) {
+            key = "getTransactionsForAccount";
+            parameters.add(account.getId());
+            parameters.add(account.getId());
+        }
+        if (range != null) {
+            key += "OverRange";
+            parameters.add(range.getStart());
+            parameters.add(range.getEnd());
+        }
+
+        final String sql = getSqlForStatus(criteria.isIncludeDeleted(),
+            key + "ExcludeDeleted", key + "Both");
 
-        manager.persist(updateTxEntry);
+        this.cursor.forEach(sql, parameters, criteria.getFetchSize(),
+            TransactionEntitySelect::rowMapper,
+            select -> action.accept(new TransactionEntity(select)));
     }
 
-    private void deleteTransactionEntry(TransactionManager manager, Entry object) {
+    /**
+     * Adds the referenced amount to the balance of the account and, unless the
+     * {@link BalanceMode} is {@code LEAF_ONLY}, to every account in its parent hierarchy. This
+     * is done within the referenced {@code TransactionManager} so that the rollup is committed
+     * along with the entries. The amount goes to one of the {@code ACCOUNT_BALANCE_STRIPE}
+     * rows of an account that is striped, as in {@link #updateAccountBalances}. The hierarchy
+     * of an account may mix striped and unstriped accounts, so with a rollup both statements
+     * are issued and each skips the accounts handled by the other.
+     *
+     * @param manager {@code TransactionManager}
+     * @param accountId the unique identifier of the account
+     * @param amount {@code Money}
+     */
+    private void updateAccountBalance(TransactionManager manager, Long accountId, Money amount) {
         LOG.trace(LOG_CALLED);
 
-        final SqlStatement deleteTxEntry = SqlStatement
-            .newInstance(this.registry.getSql("deleteTransactionEntry")); //$NON-NLS-1$
-        deleteTxEntry.setParameter(1, object.getId());
-        manager.persist(deleteTxEntry);
+        final Object parameter = this.amountStorage.toParameter(amount);
+
+        if (this.rollup) {
+            manager.persist(newStatement("updateAccountHierarchyBalanceStripe", //$NON-NLS-1$
+                parameter, RealAccountDao.stripeSeed(), accountId));
+            manager.persist(newStatement("updateAccountHierarchyBalance", //$NON-NLS-1$
+                parameter, accountId));
+        } else if (this.accountCache.isStriped(accountId)) {
+            manager.persist(newStatement("updateAccountBalanceStripe", //$NON-NLS-1$
+                parameter, RealAccountDao.stripeSeed(), accountId));
+            manager.persist(newStatement("updateUnstripedAccountBalance", //$NON-NLS-1$
+                parameter, accountId, accountId));
+        } else {
+            manager.persist(newStatement("updateAccountBalance", //$NON-NLS-1$
+                parameter, accountId));
+        }
     }
 
-    private void updateAccountBalance(TransactionManager manager, Entry entry, Money amount) {
+    private SqlStatement newStatement(String key, Object... parameters) {
+        final SqlStatement statement = SqlStatement.newInstance(this.registry.getSql(key));
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setParameter(i + 1, parameters[i]);
+        }
+        return statement;
+    }
+
+    /**
+     * Applies the debits and credits to the {@code ACCOUNT_PERIOD_BALANCE} snapshot of the
+     * account for the referenced month. The snapshot for the month is created first if
+     * required, and opened at the closing balance of the latest earlier month; this leaves an
+     * existing snapshot as it is. The opening and closing balances of every later month are
+     * then carried forward by the difference.
+     *
+     * <p>The snapshot and stripe rows are created with a {@code MERGE} on their keys, so two
+     * postings which both find a row missing do not fail on the duplicate key: the second
+     * waits for the first and then finds the row present, or fails as a concurrent update and
+     * is tried again by the {@link RetryPolicy}.
+     *
+     * <p>Only the account itself is snapshot; the balance of a group account is derived from
+     * those of its members when it is read.
+     *
+     * <p>The snapshots of a striped account are left alone, so that they do not become the
+     * row every posting to the account waits on. The debits and credits go instead to one of
+     * its {@code ACCOUNT_PERIOD_BALANCE_STRIPE} rows for the month, created if required, and
+     * are added to the snapshots when they are read. Each statement skips the accounts
+     * handled by the others.
+     *
+     * @param manager {@code TransactionManager}
+     * @param accountId the unique identifier of the account
+     * @param yearMonth the month, as {@code yyyymm}
+     * @param debits {@code Money}
+     * @param credits {@code Money}
+     */
+    private void updatePeriodBalance(TransactionManager manager, Long accountId,
+        Integer yearMonth, Money debits, Money credits) {
         LOG.trace(LOG_CALLED);
 
+        final Object movement = this.amountStorage.toParameter(debits.minus(credits));
+
+        final SqlStatement create = SqlStatement
+            .newInstance(this.registry.getSql("createAccountPeriodBalance")); //$NON-NLS-1$
+        create.setParameter(1, yearMonth);
+        create.setParameter(2, accountId);
+        manager.persist(create);
+
+        final SqlStatement open = SqlStatement
+            .newInstance(this.registry.getSql("openAccountPeriodBalance")); //$NON-NLS-1$
+        open.setParameter(1, accountId);
+        open.setParameter(2, yearMonth);
+        manager.persist(open);
+
         final SqlStatement update = SqlStatement
-            .newInstance(this.registry.getSql("updateAccountBalance")); //$NON-NLS-1$
-        update.setParameter(1, amount.getValue());
-        update.setParameter(2, entry.getAccountId());
+            .newInstance(this.registry.getSql("updateAccountPeriodBalance")); //$NON-NLS-1$
+        update.setParameter(1, this.amountStorage.toParameter(debits));
+        update.setParameter(2, this.amountStorage.toParameter(credits));
+        update.setParameter(3, movement);
+        update.setParameter(4, accountId);
+        update.setParameter(5, yearMonth);
         manager.persist(update);
+
+        final SqlStatement carry = SqlStatement
+            .newInstance(this.registry.getSql("carryAccountPeriodBalance")); //$NON-NLS-1$
+        carry.setParameter(1, movement);
+        carry.setParameter(2, movement);
+        carry.setParameter(3, accountId);
+        carry.setParameter(4, yearMonth);
+        manager.persist(carry);
+
+        final Integer seed = RealAccountDao.stripeSeed();
+
+        final SqlStatement createStripe = SqlStatement
+            .newInstance(this.registry.getSql("createAccountPeriodBalanceStripe")); //$NON-NLS-1$
+        createStripe.setParameter(1, yearMonth);
+        createStripe.setParameter(2, accountId);
+        createStripe.setParameter(3, seed);
+        manager.persist(createStripe);
+
+        final SqlStatement updateStripe = SqlStatement
+            .newInstance(this.registry.getSql("updateAccountPeriodBalanceStripe")); //$NON-NLS-1$
+        updateStripe.setParameter(1, this.amountStorage.toParameter(debits));
+        updateStripe.setParameter(2, this.amountStorage.toParameter(credits));
+        updateStripe.setParameter(3, accountId);
+        updateStripe.setParameter(4, yearMonth);
+        updateStripe.setParameter(5, seed);
+        manager.persist(updateStripe);
+    }
+
+    private static Integer toYearMonth(LocalDate date) {
+        return Integer.valueOf(date.getYear() * 100 + date.getMonthValue());
     }
 
     /**
-     * Transforms a {@code List<Object>} to a {@code List<Transaction>}.
+     * Executes a transaction {@code SELECT} through the {@link JdbcCursor}, mapping each row by
+     * column position.
      *
-     * @param resultList {@code List<Object>}
+     * @param sql the statement
+     * @param parameters the values of the statement's parameters, in order
      * @return {@code List<Transaction>}
      */
-    private List<Transaction> transformTransactionResultList(List<Object> resultList) {
+    private List<Transaction> selectTransactions(String sql, List<Object> parameters) {
         LOG.trace(LOG_CALLED);
 
-        final List<Transaction> list = new ArrayList<>(resultList.size());
-        for (Object object : resultList) {
-            list.add(new TransactionEntity((TransactionEntitySelect) object));
+        final List<Transaction> list = new ArrayList<>();
+        this.cursor.forEach(sql, parameters, 0, TransactionEntitySelect::rowMapper,
+            select -> list.add(new TransactionEntity(select)));
+        return Collections.unmodifiableList(list);
+    }
+
+    private List<TransactionSummary> executeSummaryQuery(SqlStatement select) {
+        LOG.trace(LOG_CALLED);
+
+        QueryManager manager = this.factory.createQueryManager();
+        Query query = manager.createQuery(select, TransactionSummaryEntity.class);
+
+        try {
+            query.execute();
+        } catch (NoResultException e) {
+            return Collections.emptyList();
+        }
+
+        final List<TransactionSummary> list = new ArrayList<>(query.getResultList().size());
+        for (Object object : query.getResultList()) {
+            list.add((TransactionSummary) object);
         }
         return Collections.unmodifiableList(list);
     }
 
+    private long executeCountQuery(SqlStatement select) {
+        LOG.trace(LOG_CALLED);
+
+        QueryManager manager = this.factory.createQueryManager();
+        Query query = manager.createQuery(select, RowCountEntity.class);
+        query.execute();
+
+        return ((RowCountEntity) query.getSingleResult()).getTotal();
+    }
+
+    /**
+     * The key names follow the pattern {@code <prefix><First|Older|Newer><status>}.
+     */
+    private String getPageSql(String prefix, PageRequest request, boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+
+        String key = prefix + "First";
+        if (request.getDirection() == Direction.OLDER) {
+            key = prefix + "Older";
+        } else if (request.getDirection() == Direction.NEWER) {
+            key = prefix + "Newer";
+        }
+
+        return getSqlForStatus(includeDeleted, key + "ExcludeDeleted", key + "Both");
+    }
+
+    /**
+     * Binds the {@code (TDATE, ID)} keyset predicate, if any, followed by the row limit. One
+     * row more than the page size is requested so that the presence of a further page can be
+     * detected without a second query. Returns the index of the next parameter.
+     */
+    private int bindPageRequest(SqlStatement select, int firstIndex, PageRequest request) {
+        LOG.trace(LOG_CALLED);
+
+        int index = firstIndex;
+        if (request.getDirection() != Direction.FIRST) {
+            final PageKey key = request.getKey();
+            select.setParameter(index++, key.getDate());
+            select.setParameter(index++, key.getDate());
+            select.setParameter(index++, key.getId());
+        }
+        select.setParameter(index++, Integer.valueOf(request.getSize() + 1));
+        return index;
+    }
+
+    /**
+     * Trims the look-ahead row and, for {@link Direction#NEWER}, restores the most recent first
+     * order (those statements read in ascending order from the key). The count is only
+     * executed for the first page.
+     */
+    private TransactionPage toPage(PageRequest request, List<TransactionSummary> rows,
+        SqlStatement count) {
+        LOG.trace(LOG_CALLED);
+
+        final long totalCount = request.getDirection() == Direction.FIRST
+            ? executeCountQuery(count) : TransactionPage.UNCOUNTED;
+
+        final boolean hasMore = rows.size() > request.getSize();
+        final List<TransactionSummary> content = new ArrayList<>(
+            hasMore ? rows.subList(0, request.getSize()) : rows);
+
+        switch (request.getDirection()) {
+            case NEWER:
+                Collections.reverse(content);
+                return new TransactionPage(content, hasMore, true, totalCount);
+            case OLDER:
+                return new TransactionPage(content, true, hasMore, totalCount);
+            default:
+                return new TransactionPage(content, false, hasMore, totalCount);
+        }
+    }
+
     private String getSqlForStatus(boolean includeDeleted, String... keys) {
         LOG.trace(LOG_CALLED);
         return this.registry.getSql(keys[includeDeleted ? 1 : 0]);
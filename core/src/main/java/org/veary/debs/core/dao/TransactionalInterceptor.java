@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.dao;
+
+import java.util.Objects;
+
+import javax.inject.Provider;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+
+/**
+ * <b>Purpose:</b> Runs the methods marked {@link org.veary.debs.core.Transactional} within a
+ * unit of work.
+ *
+ * <p><b>Responsibility:</b> Starts a unit of work with the {@link UnitOfWorkDataSource} if none
+ * is active, and ends it when the method returns or throws. A method called within an active
+ * unit of work joins it, and if it throws the unit of work is marked to be rolled back.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class TransactionalInterceptor implements MethodInterceptor {
+
+    private static final Logger LOG = LogManager.getLogger(TransactionalInterceptor.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+
+    private final Provider<UnitOfWorkDataSource> provider;
+
+    /**
+     * Constructor.
+     *
+     * @param provider {@code Provider} of the {@link UnitOfWorkDataSource}
+     */
+    public TransactionalInterceptor(Provider<UnitOfWorkDataSource> provider) {
+        LOG.trace(LOG_CALLED);
+        this.provider = Objects.requireNonNull(provider,
+            Messages.getParameterIsNull("provider")); //$NON-NLS-1$
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        LOG.trace(LOG_CALLED);
+        final UnitOfWorkDataSource unitOfWork = this.provider.get();
+        final boolean started = unitOfWork.begin();
+
+        final Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            if (started) {
+                unitOfWork.rollback();
+            } else {
+                unitOfWork.setRollbackOnly();
+            }
+            throw e;
+        }
+
+        if (started) {
+            unitOfWork.commit();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.dao;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.exceptions.DebsException;
+
+/**
+ * <b>Purpose:</b> A {@code DataSource} which hands out the connection of the unit of work
+ * active on the calling thread, if there is one.
+ *
+ * <p><b>Responsibility:</b> Every DAO obtains its connections from the {@code DataSource},
+ * whether through {@code org.veary.persist}, the {@link JdbcCursor} or the {@link JdbcBatch}.
+ * Between {@link #begin()} and {@link #commit()} or {@link #rollback()} every connection
+ * requested on the thread is the same one, taken from the target {@code DataSource} on first
+ * use, so the DAO methods called within the unit of work join a single database transaction.
+ * The {@code close()}, {@code commit()} and {@code setAutoCommit()} calls the DAOs make on it
+ * are ignored, though a {@code commit()} records that something has been written;
+ * {@code rollback()} marks the unit of work so that it is rolled back when it ends. Outside a
+ * unit of work connections are passed through from the target unchanged.
+ *
+ * <p>Work which must happen only once the outcome is known, such as discarding a cache that
+ * may hold uncommitted rows, is registered with {@link #afterCompletion(Runnable)}.
+ *
+ * <p><b>Note:</b> Annotated for JSR330. The target {@code DataSource} is bound with the name
+ * {@value #TARGET}.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@Singleton
+public final class UnitOfWorkDataSource implements DataSource {
+
+    /**
+     * The name with which the target {@code DataSource} is bound.
+     */
+    public static final String TARGET = "UNIT_OF_WORK_TARGET"; //$NON-NLS-1$
+
+    /**
+     * <b>Purpose:</b> The state of the unit of work active on one thread.
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    private static final class Scope {
+
+        private Connection connection;
+        private Connection shared;
+        private boolean rollbackOnly;
+        private boolean written;
+        private final Map<Object, Object> resources = new HashMap<>();
+        private final List<Runnable> afterCompletion = new ArrayList<>();
+    }
+
+    private static final Logger LOG = LogManager.getLogger(UnitOfWorkDataSource.class);
+    private static final String LOG_CALLED = "called"; //$NON-NLS-1$
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final DataSource target;
+
+    /**
+     * Constructor.
+     *
+     * @param target the {@link DataSource} from which connections are taken
+     */
+    @Inject
+    public UnitOfWorkDataSource(@Named(TARGET) DataSource target) {
+        LOG.trace(LOG_CALLED);
+        this.target = Objects.requireNonNull(target,
+            Messages.getParameterIsNull("target")); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns {@code true} if a unit of work is active on the calling thread.
+     *
+     * @return boolean
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Returns {@code true} if the unit of work active on the calling thread has been marked for
+     * rollback, for instance because a DAO rolled back a statement which failed within it.
+     *
+     * @return boolean
+     */
+    public static boolean isRollbackOnly() {
+        final Scope scope = CURRENT.get();
+        return scope != null && scope.rollbackOnly;
+    }
+
+    /**
+     * Registers an action to be run when the unit of work active on the calling thread has been
+     * committed or rolled back.
+     *
+     * @param action {@code Runnable}
+     * @return {@code true} if the action was registered, {@code false} if no unit of work is
+     *     active, in which case the action is not run
+     */
+    public static boolean afterCompletion(Runnable action) {
+        Objects.requireNonNull(action, Messages.getParameterIsNull("action")); //$NON-NLS-1$
+        final Scope scope = CURRENT.get();
+        if (scope == null) {
+            return false;
+        }
+        scope.afterCompletion.add(action);
+        return true;
+    }
+
+    /**
+     * Returns the value bound to the referenced key for the unit of work active on the calling
+     * thread.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if there is none or no unit of work is active
+     */
+    public static Object getResource(Object key) {
+        final Scope scope = CURRENT.get();
+        return scope == null ? null : scope.resources.get(key);
+    }
+
+    /**
+     * Binds a value to the referenced key for the unit of work active on the calling thread.
+     * The value is discarded when the unit of work ends.
+     *
+     * @param key the key
+     * @param value the value
+     * @return {@code true} if the value was bound, {@code false} if no unit of work is active
+     */
+    public static boolean bindResource(Object key, Object value) {
+        final Scope scope = CURRENT.get();
+        if (scope == null) {
+            return false;
+        }
+        scope.resources.put(key, value);
+        return true;
+    }
+
+    /**
+     * Rolls back the database transaction of the unit of work active on the calling thread, so
+     * that work which failed within it can be tried again, provided that no DAO has yet
+     * committed a write within it. The unit of work remains active and is no longer marked for
+     * rollback; its resources and registered actions are kept.
+     *
+     * @return {@code true} if the unit of work is back at its start, {@code false} if none is
+     *     active or something has been written within it
+     */
+    public static boolean rollbackToStart() {
+        LOG.trace(LOG_CALLED);
+        final Scope scope = CURRENT.get();
+        if (scope == null || scope.written) {
+            return false;
+        }
+        if (scope.connection != null) {
+            try {
+                scope.connection.rollback();
+            } catch (SQLException e) {
+                throw new DebsException(e);
+            }
+        }
+        scope.rollbackOnly = false;
+        return true;
+    }
+
+    /**
+     * Starts a unit of work on the calling thread, unless one is already active, in which case
+     * the caller joins it. No connection is taken until one is requested.
+     *
+     * @return {@code true} if a unit of work was started, in which case the caller must end it
+     *     with {@link #commit()} or {@link #rollback()}
+     */
+    public boolean begin() {
+        LOG.trace(LOG_CALLED);
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new Scope());
+        return true;
+    }
+
+    /**
+     * Marks the unit of work active on the calling thread so that it is rolled back when it
+     * ends.
+     */
+    public void setRollbackOnly() {
+        LOG.trace(LOG_CALLED);
+        final Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.rollbackOnly = true;
+        }
+    }
+
+    /**
+     * Ends the unit of work active on the calling thread, committing its database transaction
+     * unless it has been marked for rollback.
+     */
+    public void commit() {
+        LOG.trace(LOG_CALLED);
+        end(true);
+    }
+
+    /**
+     * Ends the unit of work active on the calling thread, rolling back its database
+     * transaction.
+     */
+    public void rollback() {
+        LOG.trace(LOG_CALLED);
+        end(false);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final Scope scope = CURRENT.get();
+        if (scope == null) {
+            return this.target.getConnection();
+        }
+        if (scope.connection == null) {
+            final Connection conn = this.target.getConnection();
+            conn.setAutoCommit(false);
+            scope.connection = conn;
+            scope.shared = share(scope);
+        }
+        return scope.shared;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (CURRENT.get() == null) {
+            return this.target.getConnection(username, password);
+        }
+        return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.target.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return this.target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return this.target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return this.target.isWrapperFor(iface);
+    }
+
+    private void end(boolean commit) {
+        final Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        CURRENT.remove();
+
+        try (Connection conn = scope.connection) {
+            if (conn != null) {
+                if (commit && !scope.rollbackOnly) {
+                    conn.commit();
+                } else {
+                    if (commit) {
+                        LOG.warn("Rolling back a unit of work in which a statement failed");
+                    }
+                    conn.rollback();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DebsException(e);
+        } finally {
+            for (Runnable action : scope.afterCompletion) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * Returns a view of the connection of the unit of work which ignores the calls that would
+     * end its transaction or release it.
+     */
+    private static Connection share(Scope scope) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "commit": //$NON-NLS-1$
+                        scope.written = true;
+                        return null;
+                    case "close": //$NON-NLS-1$
+                    case "setAutoCommit": //$NON-NLS-1$
+                    case "setTransactionIsolation": //$NON-NLS-1$
+                    case "setReadOnly": //$NON-NLS-1$
+                        return null;
+                    case "getAutoCommit": //$NON-NLS-1$
+                        return Boolean.FALSE;
+                    case "rollback": //$NON-NLS-1$
+                        if (args == null) {
+                            scope.rollbackOnly = true;
+                            return null;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                try {
+                    return method.invoke(scope.connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
@@ -37,6 +37,7 @@ import javax.inject.Inject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.veary.debs.Messages;
+import org.veary.debs.core.dao.BalanceMaterializer;
 import org.veary.debs.dao.AdminDao;
 import org.veary.debs.exceptions.DebsException;
 import org.veary.debs.facade.AccountFacade;
@@ -60,18 +61,21 @@ public final class RealAdminFacade implements AdminFacade {
     private final AdminDao adminDao;
     private final AccountFacade accountFacade;
     private final PersistenceManagerFactory factory;
+    private final BalanceMaterializer materializer;
 
     /**
      * Constructor.
      */
     @Inject
     public RealAdminFacade(AdminDao adminDao, AccountFacade accountFacade,
-        PersistenceManagerFactory factory) {
+        PersistenceManagerFactory factory, BalanceMaterializer materializer) {
         LOG.trace(LOG_CALLED);
         this.accountFacade = Objects.requireNonNull(accountFacade,
             Messages.getParameterIsNull("accountFacade"));
         this.adminDao = Objects.requireNonNull(adminDao, Messages.getParameterIsNull("adminDao"));
         this.factory = Objects.requireNonNull(factory, Messages.getParameterIsNull("factory"));
+        this.materializer = Objects.requireNonNull(materializer,
+            Messages.getParameterIsNull("materializer"));
     }
 
     @Override
@@ -95,6 +99,14 @@ public final class RealAdminFacade implements AdminFacade {
         createCashAccount(assetsGroupId);
     }
 
+    @Override
+    public void migrateDatabase() {
+        LOG.trace(LOG_CALLED);
+        this.adminDao.migrateDatabase();
+        // Fold anything journaled before the last shutdown
+        this.materializer.request();
+    }
+
     @Override
     public void backupDatabase(String backupDirectory) {
         LOG.trace(LOG_CALLED);
@@ -25,9 +25,15 @@
 package org.veary.debs.core.facade;
 
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -35,15 +41,22 @@ import javax.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.veary.debs.Messages;
-import org.veary.debs.core.Money;
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.PageRequest;
+import org.veary.debs.core.Posting;
+import org.veary.debs.core.TransactionCriteria;
+import org.veary.debs.core.TransactionPage;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.core.dao.PostingCoordinator;
 import org.veary.debs.core.model.EntryEntity;
 import org.veary.debs.core.model.TransactionEntity;
 import org.veary.debs.dao.TransactionDao;
-import org.veary.debs.facade.AccountFacade;
+import org.veary.debs.exceptions.DebsException;
 import org.veary.debs.facade.SystemFacade;
 import org.veary.debs.model.Account;
 import org.veary.debs.model.Entry;
 import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.persist.exceptions.NoResultException;
 
 /**
@@ -64,20 +77,26 @@ public final class RealSystemFacade implements SystemFacade {
     private static final String LOG_CALLED = "called"; //$NON-NLS-1$
 
     private final TransactionDao transactionDao;
-    private final AccountFacade accountFacade;
+    private final BalanceMaterializer materializer;
+    private final PostingCoordinator coordinator;
 
     /**
      * Constructor.
      *
      * @param transactionDao {@link TransactionDao}
+     * @param materializer {@link BalanceMaterializer} notified of every change
+     * @param coordinator {@link PostingCoordinator} through which new transactions are written
      */
     @Inject
-    public RealSystemFacade(TransactionDao transactionDao, AccountFacade accountFacade) {
+    public RealSystemFacade(TransactionDao transactionDao, BalanceMaterializer materializer,
+        PostingCoordinator coordinator) {
         this.transactionDao = Objects.requireNonNull(
             transactionDao,
             Messages.getParameterIsNull("transactionDao")); //$NON-NLS-1$
-        this.accountFacade = Objects.requireNonNull(accountFacade,
-            Messages.getParameterIsNull("accountFacade"));
+        this.materializer = Objects.requireNonNull(materializer,
+            Messages.getParameterIsNull("materializer")); //$NON-NLS-1$
+        this.coordinator = Objects.requireNonNull(coordinator,
+            Messages.getParameterIsNull("coordinator")); //$NON-NLS-1$
     }
 
     @Override
@@ -92,14 +111,53 @@ public final class RealSystemFacade implements SystemFacade {
         TransactionEntity transactionEntity = (TransactionEntity) transaction;
         transactionEntity.setEntries(fromEntry, toEntry);
 
-        Long id = this.transactionDao.createTransaction(transactionEntity);
-
-        // Update the parent hierarchy balances
-        updateParentBalance(fromEntry.getAccountId(), fromEntry.getAmount());
-        updateParentBalance(toEntry.getAccountId(), toEntry.getAmount());
+        // The parent hierarchy balances are updated as part of the same transaction, or
+        // journaled for the materializer. Concurrent postings share a commit.
+        final Long id;
+        try {
+            id = this.coordinator.submit(transactionEntity).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DebsException(e.getCause());
+        }
+        this.materializer.request();
         return id;
     }
 
+    @Override
+    public List<Long> postTransactions(List<Posting> postings) {
+        LOG.trace(LOG_CALLED);
+
+        Objects.requireNonNull(postings, Messages.getParameterIsNull("postings")); //$NON-NLS-1$
+
+        // setEntries() sets the amounts of the entries, so no instance may be shared
+        final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < postings.size(); i++) {
+            final Posting posting = Objects.requireNonNull(postings.get(i),
+                Messages.getParameterIsNull("posting")); //$NON-NLS-1$
+            if (!seen.add(posting.getTransaction()) || !seen.add(posting.getFromEntry())
+                || !seen.add(posting.getToEntry())) {
+                throw new IllegalArgumentException(Messages.getString(
+                    "RealSystemFacade.postTransactions.sharedexception", //$NON-NLS-1$
+                    Integer.valueOf(i)));
+            }
+        }
+
+        final List<Transaction> transactions = new ArrayList<>(postings.size());
+        for (Posting posting : postings) {
+            final TransactionEntity transactionEntity = (TransactionEntity) posting
+                .getTransaction();
+            transactionEntity.setEntries(posting.getFromEntry(), posting.getToEntry());
+            transactions.add(transactionEntity);
+        }
+
+        final List<Long> ids = this.transactionDao.createTransactions(transactions);
+        this.materializer.request();
+        return ids;
+    }
+
     @Override
     public void updateTransaction(Transaction original, Transaction updated,
         Entry updatedFromEntry, Entry updatedToEntry) {
@@ -131,18 +189,7 @@ public final class RealSystemFacade implements SystemFacade {
         transactionEntity.setEntries(updatedFromEntry, updatedToEntry);
 
         this.transactionDao.updateTransaction(original, updated);
-
-        // Undo the original balance
-        updateParentBalance(original.getFromEntry().getAccountId(),
-            original.getToEntry().getAmount());
-        updateParentBalance(original.getToEntry().getAccountId(),
-            original.getFromEntry().getAmount());
-
-        // Update the parent hierarchy balances
-        if (!updated.isDeleted()) {
-            updateParentBalance(updatedFromEntry.getAccountId(), updatedFromEntry.getAmount());
-            updateParentBalance(updatedToEntry.getAccountId(), updatedToEntry.getAmount());
-        }
+        this.materializer.request();
     }
 
     @Override
@@ -151,6 +198,7 @@ public final class RealSystemFacade implements SystemFacade {
         Objects.requireNonNull(object, Messages.getParameterIsNull("object")); //$NON-NLS-1$
 
         this.transactionDao.deleteTransaction(object);
+        this.materializer.request();
     }
 
     @Override
@@ -180,6 +228,15 @@ public final class RealSystemFacade implements SystemFacade {
         return this.transactionDao.getAllTransactionsOverPeriod(period, includeDeleted);
     }
 
+    @Override
+    public List<Transaction> getAllTransactionsOverRange(DateRange range,
+        boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(range, Messages.getParameterIsNull("range"));
+
+        return this.transactionDao.getAllTransactionsOverRange(range, includeDeleted);
+    }
+
     @Override
     public List<Transaction> getTransactionsForAccount(Account account, boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
@@ -199,23 +256,84 @@ public final class RealSystemFacade implements SystemFacade {
             includeDeleted);
     }
 
-    private void updateParentBalance(Long accountId, final Money amount) {
+    @Override
+    public List<Transaction> getTransactionsForAccountOverRange(DateRange range,
+        Account account, boolean includeDeleted) {
         LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(range, Messages.getParameterIsNull("range"));
+        Objects.requireNonNull(account, Messages.getParameterIsNull("account"));
 
-        Optional<Account> result = this.accountFacade.getById(accountId);
-        if (result.isEmpty()) {
-            throw new AssertionError("Unable to fetch account with ID: " + accountId);
-        }
-        Account account = result.get();
+        return this.transactionDao.getTransactionsForAccountOverRange(range, account,
+            includeDeleted);
+    }
 
-        Long parentId = account.getParentId();
-        if (!parentId.equals(Long.valueOf(0))) {
-            updateParentBalance(parentId, amount);
-        }
+    @Override
+    public List<TransactionSummary> getTransactionSummaries(boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        return this.transactionDao.getTransactionSummaries(includeDeleted);
+    }
 
-        if (account.getType().toString().endsWith("_GROUP")) {
-            LOG.trace("Update Balance for Account: {}", () -> account.getName());
-            this.accountFacade.updateBalance(account, amount);
-        }
+    @Override
+    public List<TransactionSummary> getTransactionSummariesOverRange(DateRange range,
+        boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(range, Messages.getParameterIsNull("range"));
+
+        return this.transactionDao.getTransactionSummariesOverRange(range, includeDeleted);
+    }
+
+    @Override
+    public List<TransactionSummary> getTransactionSummariesForAccount(Account account,
+        boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(account, Messages.getParameterIsNull("account"));
+
+        return this.transactionDao.getTransactionSummariesForAccount(account, includeDeleted);
+    }
+
+    @Override
+    public List<TransactionSummary> getTransactionSummariesForAccountOverRange(DateRange range,
+        Account account, boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(range, Messages.getParameterIsNull("range"));
+        Objects.requireNonNull(account, Messages.getParameterIsNull("account"));
+
+        return this.transactionDao.getTransactionSummariesForAccountOverRange(range, account,
+            includeDeleted);
+    }
+
+    @Override
+    public TransactionPage getTransactionSummaryPage(PageRequest request,
+        boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(request, Messages.getParameterIsNull("request"));
+
+        return this.transactionDao.getTransactionSummaryPage(request, includeDeleted);
+    }
+
+    @Override
+    public TransactionPage getTransactionSummaryPageForAccount(PageRequest request,
+        Account account, boolean includeDeleted) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(request, Messages.getParameterIsNull("request"));
+        Objects.requireNonNull(account, Messages.getParameterIsNull("account"));
+
+        return this.transactionDao.getTransactionSummaryPageForAccount(request, account,
+            includeDeleted);
+    }
+
+    @Override
+    public void forEachTransaction(TransactionCriteria criteria, Consumer<Transaction> action) {
+        LOG.trace(LOG_CALLED);
+        Objects.requireNonNull(criteria, Messages.getParameterIsNull("criteria"));
+        Objects.requireNonNull(action, Messages.getParameterIsNull("action"));
+
+        this.transactionDao.forEachTransaction(criteria, action);
+    }
+
+    @Override
+    public boolean awaitBalances(long timeoutMillis) throws InterruptedException {
+        LOG.trace(LOG_CALLED);
+        return this.materializer.await(this.transactionDao.getPostingSequence(), timeoutMillis);
     }
 }
@@ -26,11 +26,15 @@ package org.veary.debs.core.model;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Map;
 import java.util.Objects;
 
 import org.veary.debs.Messages;
+import org.veary.debs.core.AmountStorage;
 import org.veary.debs.core.Money;
 import org.veary.debs.core.utils.Validator;
 import org.veary.debs.model.Account;
@@ -50,6 +54,7 @@ public final class AccountEntity extends PersistentObjectImpl implements Account
     private Account.Types type;
     private Money balance;
     private Long parentId;
+    private int version;
 
     /**
      * Constructor.
@@ -89,8 +94,43 @@ public final class AccountEntity extends PersistentObjectImpl implements Account
         this.name = (String) dataMap.get(Fields.NAME.toString());
         this.description = (String) dataMap.get(Fields.DESCRIPTION.toString());
         this.type = Account.Types.getType((Integer) dataMap.get(Fields.ACCOUNT_TYPE.toString()));
-        this.balance = new Money((BigDecimal) dataMap.get(Fields.BALANCE.toString()));
+        this.balance = AmountStorage.toMoney(dataMap.get(Fields.BALANCE.toString()));
         this.parentId = (Long) dataMap.get(Fields.PARENT_ID.toString());
+        this.version = ((Integer) dataMap.get(Fields.VERSION.toString())).intValue();
+    }
+
+    /**
+     * Constructor. Reads the current row of the {@code ResultSet}.
+     *
+     * @param rs the {@code ResultSet}
+     * @param columns the column positions, indexed by {@code Fields.ordinal()}
+     * @throws SQLException if a column cannot be read
+     */
+    private AccountEntity(ResultSet rs, int[] columns) throws SQLException {
+        setId(Long.valueOf(rs.getLong(columns[Fields.ID.ordinal()])));
+        setDeleted(rs.getBoolean(columns[Fields.DELETED.ordinal()]));
+        setCreationTimestamp(rs.getTimestamp(columns[Fields.CREATED.ordinal()]).toLocalDateTime());
+
+        this.name = rs.getString(columns[Fields.NAME.ordinal()]);
+        this.description = rs.getString(columns[Fields.DESCRIPTION.ordinal()]);
+        this.type = Account.Types.getType(
+            Integer.valueOf(rs.getInt(columns[Fields.ACCOUNT_TYPE.ordinal()])));
+        this.balance = AmountStorage.toMoney(rs.getObject(columns[Fields.BALANCE.ordinal()]));
+        this.parentId = Long.valueOf(rs.getLong(columns[Fields.PARENT_ID.ordinal()]));
+        this.version = rs.getInt(columns[Fields.VERSION.ordinal()]);
+    }
+
+    /**
+     * Returns a {@link RowMapper} for statements returning the {@code DEBS.ACCOUNT} columns.
+     *
+     * @param meta the statement's {@code ResultSetMetaData}
+     * @return {@link RowMapper}
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static RowMapper<AccountEntity> rowMapper(ResultSetMetaData meta)
+        throws SQLException {
+        final int[] columns = Validator.resolveColumns(meta, Fields.class);
+        return rs -> new AccountEntity(rs, columns);
     }
 
     /**
@@ -108,6 +148,7 @@ public final class AccountEntity extends PersistentObjectImpl implements Account
         this.type = Objects.requireNonNull(original.getType());
         this.balance = Objects.requireNonNull(original.getBalance());
         this.parentId = Objects.requireNonNull(original.getParentId());
+        this.version = original.getVersion();
     }
 
     @Override
@@ -158,6 +199,15 @@ public final class AccountEntity extends PersistentObjectImpl implements Account
             Messages.getParameterIsNull("parentId")); //$NON-NLS-1$
     }
 
+    @Override
+    public int getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * For debugging purposes only.
      */
@@ -205,7 +255,8 @@ public final class AccountEntity extends PersistentObjectImpl implements Account
             && this.description.equals(other.description)
             && this.type.equals(other.type)
             && this.balance.eq(other.balance)
-            && this.parentId.equals(other.parentId);
+            && this.parentId.equals(other.parentId)
+            && this.version == other.version;
     }
 
     @Override
@@ -214,7 +265,7 @@ public final class AccountEntity extends PersistentObjectImpl implements Account
             this.hashCode = Objects.hash(getId(), Boolean.valueOf(isDeleted()),
                 getCreationTimestamp(), this.name,
                 this.description, this.type, this.balance,
-                this.parentId);
+                this.parentId, Integer.valueOf(this.version));
         }
         return this.hashCode;
     }
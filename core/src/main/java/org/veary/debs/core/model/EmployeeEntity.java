@@ -24,6 +24,9 @@
 
 package org.veary.debs.core.model;
 
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Map;
 import java.util.Objects;
@@ -80,6 +83,37 @@ public class EmployeeEntity extends PersistentObjectImpl implements Employee {
         this.nationalIdNumber = (String) dataMap.get(Employee.Fields.NID.toString());
     }
 
+    /**
+     * Constructor. Reads the current row of the {@code ResultSet}.
+     *
+     * @param rs the {@code ResultSet}
+     * @param columns the column positions, indexed by {@code Fields.ordinal()}
+     * @throws SQLException if a column cannot be read
+     */
+    private EmployeeEntity(ResultSet rs, int[] columns) throws SQLException {
+        setId(Long.valueOf(rs.getLong(columns[Employee.Fields.ID.ordinal()])));
+        setDeleted(rs.getBoolean(columns[Employee.Fields.DELETED.ordinal()]));
+        setCreationTimestamp(
+            rs.getTimestamp(columns[Employee.Fields.CREATED.ordinal()]).toLocalDateTime());
+
+        this.fullname = rs.getString(columns[Employee.Fields.FULLNAME.ordinal()]);
+        this.contactNumber = rs.getString(columns[Employee.Fields.CONTACT_NUMBER.ordinal()]);
+        this.nationalIdNumber = rs.getString(columns[Employee.Fields.NID.ordinal()]);
+    }
+
+    /**
+     * Returns a {@link RowMapper} for statements returning the {@code DEBS.EMPLOYEE} columns.
+     *
+     * @param meta the statement's {@code ResultSetMetaData}
+     * @return {@link RowMapper}
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static RowMapper<EmployeeEntity> rowMapper(ResultSetMetaData meta)
+        throws SQLException {
+        final int[] columns = Validator.resolveColumns(meta, Employee.Fields.class);
+        return rs -> new EmployeeEntity(rs, columns);
+    }
+
     @Override
     public String getFullname() {
         return this.fullname;
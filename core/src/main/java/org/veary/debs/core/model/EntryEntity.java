@@ -26,12 +26,16 @@ package org.veary.debs.core.model;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Objects;
 
 import org.veary.debs.Messages;
+import org.veary.debs.core.AmountStorage;
 import org.veary.debs.core.Money;
 import org.veary.debs.core.utils.Validator;
 import org.veary.debs.model.Account;
@@ -93,13 +97,47 @@ public final class EntryEntity extends PersistentObjectImpl implements Entry {
 
         this.type = Entry.Types.getType((Integer) dataMap.get(Fields.ETYPE.toString()));
         this.accountId = (Long) dataMap.get(Fields.ACCOUNT_ID.toString());
-        this.amount = new Money((BigDecimal) dataMap.get(Fields.AMOUNT.toString()));
+        this.amount = AmountStorage.toMoney(dataMap.get(Fields.AMOUNT.toString()));
         setCleared(((Boolean) dataMap.get(Fields.CLEARED.toString())).booleanValue());
         setClearedTimestamp(
             ((Timestamp) dataMap.get(Fields.CLEARED_TS.toString())).toLocalDateTime());
         validateInput();
     }
 
+    /**
+     * Constructor. Reads the current row of the {@code ResultSet}.
+     *
+     * @param rs the {@code ResultSet}
+     * @param columns the column positions, indexed by {@code Fields.ordinal()}
+     * @throws SQLException if a column cannot be read
+     */
+    private EntryEntity(ResultSet rs, int[] columns) throws SQLException {
+        setId(Long.valueOf(rs.getLong(columns[Fields.ID.ordinal()])));
+        setDeleted(rs.getBoolean(columns[Fields.DELETED.ordinal()]));
+        setCreationTimestamp(rs.getTimestamp(columns[Fields.CREATED.ordinal()]).toLocalDateTime());
+
+        this.type = Entry.Types
+            .getType(Integer.valueOf(rs.getInt(columns[Fields.ETYPE.ordinal()])));
+        this.accountId = Long.valueOf(rs.getLong(columns[Fields.ACCOUNT_ID.ordinal()]));
+        this.amount = AmountStorage.toMoney(rs.getObject(columns[Fields.AMOUNT.ordinal()]));
+        setCleared(rs.getBoolean(columns[Fields.CLEARED.ordinal()]));
+        setClearedTimestamp(
+            rs.getTimestamp(columns[Fields.CLEARED_TS.ordinal()]).toLocalDateTime());
+        validateInput();
+    }
+
+    /**
+     * Returns a {@link RowMapper} for statements returning the {@code DEBS.ENTRY} columns.
+     *
+     * @param meta the statement's {@code ResultSetMetaData}
+     * @return {@link RowMapper}
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static RowMapper<EntryEntity> rowMapper(ResultSetMetaData meta) throws SQLException {
+        final int[] columns = Validator.resolveColumns(meta, Entry.Fields.class);
+        return rs -> new EntryEntity(rs, columns);
+    }
+
     /**
      * Special constructor.
      *
@@ -211,17 +249,20 @@ public final class EntryEntity extends PersistentObjectImpl implements Entry {
     }
 
     /**
-     * Set the {@code cleared} flag for this Entry object.
+     * Set the {@code cleared} flag for this Entry object. An entry which is cleared keeps the
+     * time it was first cleared.
      *
      * @param cleared boolean
      */
     public void setCleared(boolean cleared) {
-        this.cleared = cleared;
         if (cleared) {
-            this.clearedTimestamp = LocalDateTime.now();
+            if (!this.cleared) {
+                this.clearedTimestamp = LocalDateTime.now();
+            }
         } else {
             this.clearedTimestamp = NOT_CLEARED_TIMESTAMP;
         }
+        this.cleared = cleared;
     }
 
     private void validateInput() {
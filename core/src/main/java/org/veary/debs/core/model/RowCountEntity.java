@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.model;
+
+import java.util.Map;
+
+import org.veary.debs.core.utils.Validator;
+
+/**
+ * <b>Purpose:</b> The result of a {@code SELECT COUNT(*) AS "TOTAL"} statement.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class RowCountEntity {
+
+    /**
+     * <b>Purpose:</b> Enum defining all the persistent storage fields (columns).
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    public enum Fields {
+        TOTAL("TOTAL"); //$NON-NLS-1$
+
+        private final String name;
+
+        Fields(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    private final long total;
+
+    /**
+     * Constructor.
+     *
+     * @param dataMap {@code Map<String, Object>} as returned by {@code org.veary.persist}
+     */
+    public RowCountEntity(Map<String, Object> dataMap) {
+        Validator.validateDataMap(dataMap,
+            Validator.getEnumValuesAsStringArray(Fields.class));
+
+        this.total = ((Number) dataMap.get(Fields.TOTAL.toString())).longValue();
+    }
+
+    /**
+     * Static method for creating a new {@code RowCountEntity} object.
+     *
+     * @param dataMap {@code Map<String, Object>} as returned by {@code org.veary.persist}
+     * @return {@link RowCountEntity}
+     */
+    public static RowCountEntity newInstance(Map<String, Object> dataMap) {
+        return new RowCountEntity(dataMap);
+    }
+
+    public long getTotal() {
+        return this.total;
+    }
+}
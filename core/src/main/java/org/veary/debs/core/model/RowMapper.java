@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.model;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * <b>Purpose:</b> Builds an entity directly from the current row of a {@code ResultSet}.
+ *
+ * <p><b>Responsibility:</b> A {@code RowMapper} is created once per statement by its
+ * {@link Factory}, which resolves the position of each column from the statement's metadata.
+ * Each row is then read by position, without the per-row {@code Map} and key validation of the
+ * {@code newInstance(Map)} path used by {@code org.veary.persist}.
+ *
+ * @param <T> the type of entity
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Builds an entity from the current row.
+     *
+     * @param rs the {@code ResultSet}, positioned on a row
+     * @return the entity
+     * @throws SQLException if a column cannot be read
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+
+    /**
+     * <b>Purpose:</b> Creates a {@link RowMapper} for a particular statement.
+     *
+     * @param <T> the type of entity
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    @FunctionalInterface
+    interface Factory<T> {
+
+        /**
+         * Resolves the column positions and returns a mapper using them.
+         *
+         * @param meta the statement's {@code ResultSetMetaData}
+         * @return {@link RowMapper}
+         * @throws SQLException if the metadata cannot be read
+         * @throws IllegalStateException if the statement does not return the required columns
+         */
+        RowMapper<? extends T> create(ResultSetMetaData meta) throws SQLException;
+    }
+}
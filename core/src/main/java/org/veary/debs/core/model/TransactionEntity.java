@@ -53,6 +53,7 @@ public final class TransactionEntity extends PersistentObjectImpl implements Tra
     private Entry fromEntry;
     private Entry toEntry;
     private boolean cleared;
+    private int version;
 
     /**
      * Constructor.
@@ -96,6 +97,7 @@ public final class TransactionEntity extends PersistentObjectImpl implements Tra
         this.reference = Objects.requireNonNull(object.getReference());
         this.narrative = Objects.requireNonNull(object.getNarrative());
         this.amount = Objects.requireNonNull(object.getToAmount());
+        this.version = object.getVersion();
 
         this.fromEntry = new EntryEntity(object, Entry.Types.FROM);
         this.toEntry = new EntryEntity(object, Entry.Types.TO);
@@ -126,6 +128,15 @@ public final class TransactionEntity extends PersistentObjectImpl implements Tra
         return this.toEntry;
     }
 
+    @Override
+    public int getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public Money getAmount() {
         return this.amount;
     }
@@ -25,14 +25,17 @@
 package org.veary.debs.core.model;
 
 import java.lang.reflect.Field;
-import java.math.BigDecimal;
 import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Map;
 
 import org.veary.debs.Messages;
+import org.veary.debs.core.AmountStorage;
 import org.veary.debs.core.Money;
 import org.veary.debs.core.utils.Validator;
 import org.veary.debs.model.Entry;
@@ -63,6 +66,7 @@ public class TransactionEntitySelect extends PersistentObjectImpl {
         TDATE("TDATE"), //$NON-NLS-1$
         REFERENCE("REFERENCE"), //$NON-NLS-1$
         NARRATIVE("NARRATIVE"), //$NON-NLS-1$
+        VERSION("VERSION"), //$NON-NLS-1$
 
         FROM_ID("FROM_ID"), //$NON-NLS-1$
         FROM_CREATED("FROM_CREATED"), //$NON-NLS-1$
@@ -97,6 +101,7 @@ public class TransactionEntitySelect extends PersistentObjectImpl {
     private LocalDate date;
     private String reference;
     private String narrative;
+    private int version;
 
     private Long fromId;
     private LocalDateTime fromCreatedTimestamp;
@@ -140,12 +145,13 @@ public class TransactionEntitySelect extends PersistentObjectImpl {
         this.date = ((Date) dataMap.get(Fields.TDATE.toString())).toLocalDate();
         this.reference = (String) dataMap.get(Fields.REFERENCE.toString());
         this.narrative = (String) dataMap.get(Fields.NARRATIVE.toString());
+        this.version = ((Integer) dataMap.get(Fields.VERSION.toString())).intValue();
 
         this.fromId = (Long) dataMap.get(Fields.FROM_ID.toString());
         this.fromCreatedTimestamp = ((Timestamp) dataMap.get(Fields.FROM_CREATED.toString()))
             .toLocalDateTime();
         this.fromDeleted = ((Boolean) dataMap.get(Fields.FROM_DELETED.toString())).booleanValue();
-        setFromAmount(new Money((BigDecimal) dataMap.get(Fields.FROM_AMOUNT.toString())));
+        setFromAmount(AmountStorage.toMoney(dataMap.get(Fields.FROM_AMOUNT.toString())));
         this.fromType = Types.getType((Integer) dataMap.get(Fields.FROM_ETYPE.toString()));
         this.fromAccountId = (Long) dataMap.get(Fields.FROM_ACCOUNT_ID.toString());
 
@@ -157,7 +163,7 @@ public class TransactionEntitySelect extends PersistentObjectImpl {
         this.toCreatedTimestamp = ((Timestamp) dataMap.get(Fields.TO_CREATED.toString()))
             .toLocalDateTime();
         this.toDeleted = ((Boolean) dataMap.get(Fields.TO_DELETED.toString())).booleanValue();
-        setToAmount(new Money((BigDecimal) dataMap.get(Fields.TO_AMOUNT.toString())));
+        setToAmount(AmountStorage.toMoney(dataMap.get(Fields.TO_AMOUNT.toString())));
         this.toType = Types.getType((Integer) dataMap.get(Fields.TO_ETYPE.toString()));
         this.toAccountId = (Long) dataMap.get(Fields.TO_ACCOUNT_ID.toString());
 
@@ -166,6 +172,63 @@ public class TransactionEntitySelect extends PersistentObjectImpl {
             ((Timestamp) dataMap.get(Fields.TO_CLEARED_TS.toString())).toLocalDateTime());
     }
 
+    /**
+     * Constructor. Reads the current row of the {@code ResultSet}.
+     *
+     * @param rs the {@code ResultSet}
+     * @param columns the column positions, indexed by {@code Fields.ordinal()}
+     * @throws SQLException if a column cannot be read
+     */
+    private TransactionEntitySelect(ResultSet rs, int[] columns) throws SQLException {
+        setId(Long.valueOf(rs.getLong(columns[Fields.ID.ordinal()])));
+        setDeleted(rs.getBoolean(columns[Fields.DELETED.ordinal()]));
+        setCreationTimestamp(rs.getTimestamp(columns[Fields.CREATED.ordinal()]).toLocalDateTime());
+
+        this.date = rs.getDate(columns[Fields.TDATE.ordinal()]).toLocalDate();
+        this.reference = rs.getString(columns[Fields.REFERENCE.ordinal()]);
+        this.narrative = rs.getString(columns[Fields.NARRATIVE.ordinal()]);
+        this.version = rs.getInt(columns[Fields.VERSION.ordinal()]);
+
+        this.fromId = Long.valueOf(rs.getLong(columns[Fields.FROM_ID.ordinal()]));
+        this.fromCreatedTimestamp = rs.getTimestamp(columns[Fields.FROM_CREATED.ordinal()])
+            .toLocalDateTime();
+        this.fromDeleted = rs.getBoolean(columns[Fields.FROM_DELETED.ordinal()]);
+        setFromAmount(AmountStorage.toMoney(rs.getObject(columns[Fields.FROM_AMOUNT.ordinal()])));
+        this.fromType = Types
+            .getType(Integer.valueOf(rs.getInt(columns[Fields.FROM_ETYPE.ordinal()])));
+        this.fromAccountId = Long.valueOf(rs.getLong(columns[Fields.FROM_ACCOUNT_ID.ordinal()]));
+
+        setFromCleared(rs.getBoolean(columns[Fields.FROM_CLEARED.ordinal()]));
+        setFromClearedTimestamp(
+            rs.getTimestamp(columns[Fields.FROM_CLEARED_TS.ordinal()]).toLocalDateTime());
+
+        this.toId = Long.valueOf(rs.getLong(columns[Fields.TO_ID.ordinal()]));
+        this.toCreatedTimestamp = rs.getTimestamp(columns[Fields.TO_CREATED.ordinal()])
+            .toLocalDateTime();
+        this.toDeleted = rs.getBoolean(columns[Fields.TO_DELETED.ordinal()]);
+        setToAmount(AmountStorage.toMoney(rs.getObject(columns[Fields.TO_AMOUNT.ordinal()])));
+        this.toType = Types
+            .getType(Integer.valueOf(rs.getInt(columns[Fields.TO_ETYPE.ordinal()])));
+        this.toAccountId = Long.valueOf(rs.getLong(columns[Fields.TO_ACCOUNT_ID.ordinal()]));
+
+        setToCleared(rs.getBoolean(columns[Fields.TO_CLEARED.ordinal()]));
+        setToClearedTimestamp(
+            rs.getTimestamp(columns[Fields.TO_CLEARED_TS.ordinal()]).toLocalDateTime());
+    }
+
+    /**
+     * Returns a {@link RowMapper} for the transaction {@code SELECT} statements.
+     *
+     * @param meta the statement's {@code ResultSetMetaData}
+     * @return {@link RowMapper}
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static RowMapper<TransactionEntitySelect> rowMapper(ResultSetMetaData meta)
+        throws SQLException {
+        final int[] columns = Validator.resolveColumns(meta, Fields.class);
+        return rs -> new TransactionEntitySelect(rs, columns);
+    }
+
     public String getReference() {
         return this.reference;
     }
@@ -182,6 +245,14 @@ public class TransactionEntitySelect extends PersistentObjectImpl {
         this.narrative = narrative;
     }
 
+    public int getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public Long getToAccountId() {
         return this.toAccountId;
     }
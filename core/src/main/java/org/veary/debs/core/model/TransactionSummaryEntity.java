@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.model;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.utils.Validator;
+import org.veary.debs.model.TransactionSummary;
+
+/**
+ * <b>Purpose:</b> Concrete implementation of the {@link TransactionSummary} interface.
+ *
+ * <p><b>Responsibility:</b> All SQL {@code SELECT} statements returning transaction summaries
+ * pass this class into the {@code org.veary.persist} library.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class TransactionSummaryEntity implements TransactionSummary {
+
+    /**
+     * <b>Purpose:</b> Enum defining all the persistent storage fields (columns).
+     *
+     * @author Marc L. Veary
+     * @since 1.0
+     */
+    public enum Fields {
+        ID("ID"), //$NON-NLS-1$
+        DELETED("DELETED"), //$NON-NLS-1$
+        TDATE("TDATE"), //$NON-NLS-1$
+        REFERENCE("REFERENCE"), //$NON-NLS-1$
+        NARRATIVE("NARRATIVE"), //$NON-NLS-1$
+        AMOUNT("AMOUNT"), //$NON-NLS-1$
+        FROM_ACCOUNT_ID("FROM_ACCOUNT_ID"), //$NON-NLS-1$
+        FROM_ACCOUNT_NAME("FROM_ACCOUNT_NAME"), //$NON-NLS-1$
+        FROM_CLEARED("FROM_CLEARED"), //$NON-NLS-1$
+        TO_ACCOUNT_ID("TO_ACCOUNT_ID"), //$NON-NLS-1$
+        TO_ACCOUNT_NAME("TO_ACCOUNT_NAME"), //$NON-NLS-1$
+        TO_CLEARED("TO_CLEARED"); //$NON-NLS-1$
+
+        private final String name;
+
+        Fields(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    private static final String RUNNING_BALANCE_COLUMN = "RUNNING_BALANCE"; //$NON-NLS-1$
+
+    private final Long id;
+    private final boolean deleted;
+    private final LocalDate date;
+    private final String reference;
+    private final String narrative;
+    private final Money amount;
+    private final Long fromAccountId;
+    private final String fromAccountName;
+    private final boolean fromCleared;
+    private final Long toAccountId;
+    private final String toAccountName;
+    private final boolean toCleared;
+    private final Money runningBalance;
+
+    /**
+     * Constructor.
+     *
+     * @param dataMap {@code Map<String, Object>} as returned by {@code org.veary.persist}
+     */
+    public TransactionSummaryEntity(Map<String, Object> dataMap) {
+        Validator.validateDataMap(dataMap,
+            Validator.getEnumValuesAsStringArray(Fields.class));
+
+        this.id = (Long) dataMap.get(Fields.ID.toString());
+        this.deleted = ((Boolean) dataMap.get(Fields.DELETED.toString())).booleanValue();
+        this.date = ((Date) dataMap.get(Fields.TDATE.toString())).toLocalDate();
+        this.reference = (String) dataMap.get(Fields.REFERENCE.toString());
+        this.narrative = (String) dataMap.get(Fields.NARRATIVE.toString());
+        this.amount = AmountStorage.toMoney(dataMap.get(Fields.AMOUNT.toString()));
+        this.fromAccountId = (Long) dataMap.get(Fields.FROM_ACCOUNT_ID.toString());
+        this.fromAccountName = (String) dataMap.get(Fields.FROM_ACCOUNT_NAME.toString());
+        this.fromCleared = ((Boolean) dataMap.get(Fields.FROM_CLEARED.toString())).booleanValue();
+        this.toAccountId = (Long) dataMap.get(Fields.TO_ACCOUNT_ID.toString());
+        this.toAccountName = (String) dataMap.get(Fields.TO_ACCOUNT_NAME.toString());
+        this.toCleared = ((Boolean) dataMap.get(Fields.TO_CLEARED.toString())).booleanValue();
+        this.runningBalance = null;
+    }
+
+    private TransactionSummaryEntity(ResultSet rs, int[] columns, AmountStorage storage)
+        throws SQLException {
+        this.id = Long.valueOf(rs.getLong(columns[Fields.ID.ordinal()]));
+        this.deleted = rs.getBoolean(columns[Fields.DELETED.ordinal()]);
+        this.date = rs.getDate(columns[Fields.TDATE.ordinal()]).toLocalDate();
+        this.reference = rs.getString(columns[Fields.REFERENCE.ordinal()]);
+        this.narrative = rs.getString(columns[Fields.NARRATIVE.ordinal()]);
+        this.amount = AmountStorage.toMoney(rs.getObject(columns[Fields.AMOUNT.ordinal()]));
+        this.fromAccountId = Long.valueOf(rs.getLong(columns[Fields.FROM_ACCOUNT_ID.ordinal()]));
+        this.fromAccountName = rs.getString(columns[Fields.FROM_ACCOUNT_NAME.ordinal()]);
+        this.fromCleared = rs.getBoolean(columns[Fields.FROM_CLEARED.ordinal()]);
+        this.toAccountId = Long.valueOf(rs.getLong(columns[Fields.TO_ACCOUNT_ID.ordinal()]));
+        this.toAccountName = rs.getString(columns[Fields.TO_ACCOUNT_NAME.ordinal()]);
+        this.toCleared = rs.getBoolean(columns[Fields.TO_CLEARED.ordinal()]);
+        this.runningBalance = storage.fromSum(rs.getObject(columns[columns.length - 1]));
+    }
+
+    /**
+     * Static method for creating a new {@code TransactionSummaryEntity} object.
+     *
+     * @param dataMap {@code Map<String, Object>} as returned by {@code org.veary.persist}
+     * @return {@link TransactionSummaryEntity}
+     */
+    public static TransactionSummaryEntity newInstance(Map<String, Object> dataMap) {
+        return new TransactionSummaryEntity(dataMap);
+    }
+
+    /**
+     * Returns a {@link RowMapper} for the account statement {@code SELECT} statements, which
+     * return a {@code RUNNING_BALANCE} column after the {@link Fields}. The column is a
+     * {@code SUM} and so is converted according to the referenced {@code AmountStorage}.
+     *
+     * @param meta the statement's {@code ResultSetMetaData}
+     * @param storage the configured {@link AmountStorage}
+     * @return {@link RowMapper}
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static RowMapper<TransactionSummaryEntity> statementRowMapper(ResultSetMetaData meta,
+        AmountStorage storage) throws SQLException {
+        final int[] columns = Validator.resolveColumns(meta, Fields.class,
+            RUNNING_BALANCE_COLUMN);
+        return rs -> new TransactionSummaryEntity(rs, columns, storage);
+    }
+
+    @Override
+    public Long getId() {
+        return this.id;
+    }
+
+    @Override
+    public boolean isDeleted() {
+        return this.deleted;
+    }
+
+    @Override
+    public LocalDate getDate() {
+        return this.date;
+    }
+
+    @Override
+    public String getReference() {
+        return this.reference;
+    }
+
+    @Override
+    public String getNarrative() {
+        return this.narrative;
+    }
+
+    @Override
+    public Money getAmount() {
+        return this.amount;
+    }
+
+    @Override
+    public Long getFromAccountId() {
+        return this.fromAccountId;
+    }
+
+    @Override
+    public String getFromAccountName() {
+        return this.fromAccountName;
+    }
+
+    @Override
+    public boolean isFromCleared() {
+        return this.fromCleared;
+    }
+
+    @Override
+    public Long getToAccountId() {
+        return this.toAccountId;
+    }
+
+    @Override
+    public String getToAccountName() {
+        return this.toAccountName;
+    }
+
+    @Override
+    public boolean isToCleared() {
+        return this.toCleared;
+    }
+
+    @Override
+    public Optional<Money> getRunningBalance() {
+        return Optional.ofNullable(this.runningBalance);
+    }
+}
@@ -24,9 +24,12 @@
 
 package org.veary.debs.core.utils;
 
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.text.CharacterIterator;
 import java.text.StringCharacterIterator;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -98,6 +101,68 @@ public final class Validator {
         }
     }
 
+    /**
+     * The {@code ResultSet} counterpart of {@link #validateDataMap(Map, String[])}. Checks that
+     * the statement returns exactly the columns named by the given Enum Class, and returns
+     * their positions indexed by each constant's {@code ordinal()}.
+     *
+     * @param <E> The type
+     * @param meta the statement's {@code ResultSetMetaData}
+     * @param enumClass the Enum class naming the columns
+     * @return the 1-based column positions
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static <E extends Enum<E>> int[] resolveColumns(ResultSetMetaData meta,
+        Class<E> enumClass) throws SQLException {
+        return resolveColumns(meta, enumClass, new String[0]);
+    }
+
+    /**
+     * As {@link #resolveColumns(ResultSetMetaData, Class)}, for a statement which also returns
+     * the referenced additional columns. Their positions follow those of the Enum constants.
+     *
+     * @param <E> The type
+     * @param meta the statement's {@code ResultSetMetaData}
+     * @param enumClass the Enum class naming the columns
+     * @param additional the names of the additional columns
+     * @return the 1-based column positions
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static <E extends Enum<E>> int[] resolveColumns(ResultSetMetaData meta,
+        Class<E> enumClass, String... additional) throws SQLException {
+        Objects.requireNonNull(meta, Messages.getParameterIsNull("meta")); //$NON-NLS-1$
+        Objects.requireNonNull(enumClass, Messages.getParameterIsNull("enumClass")); //$NON-NLS-1$
+        Objects.requireNonNull(additional,
+            Messages.getParameterIsNull("additional")); //$NON-NLS-1$
+
+        final String[] enumFields = getEnumValuesAsStringArray(enumClass);
+        final String[] fields = Arrays.copyOf(enumFields, enumFields.length + additional.length);
+        System.arraycopy(additional, 0, fields, enumFields.length, additional.length);
+        final int count = meta.getColumnCount();
+
+        if (count != fields.length) {
+            throw new IllegalStateException(Messages
+                .getString("Validator.validateDataMap.entrycount", //$NON-NLS-1$
+                    Integer.valueOf(fields.length)));
+        }
+
+        final Map<String, Integer> positions = new HashMap<>(count * 2);
+        for (int i = 1; i <= count; i++) {
+            positions.put(meta.getColumnLabel(i), Integer.valueOf(i));
+        }
+
+        final int[] columns = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            final Integer position = positions.get(fields[i]);
+            if (position == null) {
+                throw new IllegalStateException(
+                    Messages.getString("Validator.validateDataMap.missingkey")); //$NON-NLS-1$
+            }
+            columns[i] = position.intValue();
+        }
+        return columns;
+    }
+
     /**
      * Returns a {@code String[]} containing all the values of the given Enum Class.
      *
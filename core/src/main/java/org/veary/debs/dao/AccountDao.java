@@ -24,9 +24,11 @@
 
 package org.veary.debs.dao;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.veary.debs.core.Money;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.model.Account;
 import org.veary.persist.exceptions.NoResultException;
 
@@ -59,6 +61,8 @@ public interface AccountDao {
      *
      * @param original {@code Account} to be updated
      * @param updated {@code Account} holding the new values
+     * @throws ConcurrentUpdateException if the account has been updated since the
+     *     <b>original</b> was read
      */
     void updateAccount(Account original, Account updated);
 
@@ -70,6 +74,22 @@ public interface AccountDao {
      */
     void updateAccountBalance(Account object, Money amount);
 
+    /**
+     * Spreads the balance of the referenced {@code Account} over the given number of stripe
+     * rows, so that concurrent postings to a busy account update different rows instead of
+     * queuing on its single {@code ACCOUNT} row. The balance read for the account is the sum of
+     * its {@code BALANCE} column and its stripes.
+     *
+     * <p>A value of {@code 0} or {@code 1} turns striping off. Any amount held by the existing
+     * stripes is folded back into the {@code BALANCE} column first, so the balance of the
+     * account does not change.
+     *
+     * @param object {@link Account}
+     * @param stripes the number of stripes
+     * @throws IllegalArgumentException if {@code stripes} is negative or too large
+     */
+    void setBalanceStripes(Account object, int stripes);
+
     /**
      * Retrieve an {@code Account} matching the referenced unique identifier.
      *
@@ -131,4 +151,15 @@ public interface AccountDao {
      * @return {@code List}
      */
     List<Account> getAccountsByType(Account.Types type);
+
+    /**
+     * Returns the balance of the referenced {@code Account} at the end of the referenced date,
+     * including the balances of any accounts below it in the hierarchy. Deleted transactions
+     * are excluded.
+     *
+     * @param object {@link Account}
+     * @param date the date
+     * @return {@code Money}. Non-{@code null}.
+     */
+    Money getAccountBalanceAsOf(Account object, LocalDate date);
 }
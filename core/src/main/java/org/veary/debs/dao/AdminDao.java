@@ -35,4 +35,17 @@ package org.veary.debs.dao;
 public interface AdminDao {
 
     void initializeDatabase();
+
+    /**
+     * Applies any schema migrations which have not yet been recorded in the
+     * {@code DEBS.SCHEMA_VERSION} table. Safe to call on every startup.
+     */
+    void migrateDatabase();
+
+    /**
+     * Returns the version of the most recently applied schema migration.
+     *
+     * @return the schema version, or {@code 0} if no migrations have been applied
+     */
+    int getSchemaVersion();
 }
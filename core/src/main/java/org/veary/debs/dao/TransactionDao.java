@@ -26,10 +26,18 @@ package org.veary.debs.dao;
 
 import java.time.YearMonth;
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.PageKey;
+import org.veary.debs.core.PageRequest;
+import org.veary.debs.core.TransactionCriteria;
+import org.veary.debs.core.TransactionPage;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.model.Account;
 import org.veary.debs.model.Entry;
 import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.persist.exceptions.NoResultException;
 
 /**
@@ -44,11 +52,25 @@ public interface TransactionDao {
     /**
      * Create a new {@link Transaction} and persist it.
      *
+     * <p><b>Note:</b> The balances of the associated accounts, and of their parent group
+     * accounts, are updated within the same database transaction, unless the
+     * {@code PostingMode} is {@code DEFERRED}; see {@link #materializeBalances(int)}.
+     *
      * @param object {@link Transaction}
      * @return {@code Long} the unique identifier
      */
     Long createTransaction(Transaction object);
 
+    /**
+     * Create and persist each of the referenced {@link Transaction} objects, and update the
+     * balances of the associated accounts, within a single database transaction. Either all
+     * of them are created, or none.
+     *
+     * @param objects the {@code Transaction} objects, each with its entries set
+     * @return the unique identifiers, in the order of {@code objects}
+     */
+    List<Long> createTransactions(List<Transaction> objects);
+
     /**
      * Update the referenced {@code original} {@link Transaction} with the details from the
      * reference {@code updated} {@link Transaction}.
@@ -56,6 +78,8 @@ public interface TransactionDao {
      * @param original the <i>original</i> transaction to be updated.
      * @param updated an difference instance of a {@link Transaction} holding the details to be
      *     updated
+     * @throws ConcurrentUpdateException if the transaction has been updated or deleted since
+     *     the {@code original} was read, in which case nothing is written
      */
     void updateTransaction(Transaction original, Transaction updated);
 
@@ -65,9 +89,37 @@ public interface TransactionDao {
      * deleted.
      *
      * @param object {@code Transaction} object to marked as deleted
+     * @throws ConcurrentUpdateException if the transaction has been updated or deleted since
+     *     the {@code object} was read, in which case nothing is written
      */
     void deleteTransaction(Transaction object);
 
+    /**
+     * Folds up to {@code limit} rows of the {@code BALANCE_JOURNAL} into the account balances
+     * and the monthly balance snapshots. The journal is only written in {@code DEFERRED}
+     * posting mode.
+     *
+     * @param limit the maximum number of journal rows to claim
+     * @return the number of journal rows folded
+     */
+    int materializeBalances(int limit);
+
+    /**
+     * Returns the sequence number of the latest balance change appended to the journal.
+     *
+     * @return the sequence number, or {@code 0} if the journal is empty
+     */
+    long getPostingSequence();
+
+    /**
+     * Returns whether every balance change up to the referenced sequence number has been folded
+     * into the account balances.
+     *
+     * @param sequence a sequence number returned by {@link #getPostingSequence()}
+     * @return {@code true} if no earlier journal rows remain
+     */
+    boolean isMaterialized(long sequence);
+
     /**
      * Retrieve an {@code Transaction} matching the referenced unique identifier.
      *
@@ -90,7 +142,8 @@ public interface TransactionDao {
 
     /**
      * Returns a {@code List} of all the {@link Transaction} objects posted during the
-     * referenced {@link YearMonth}.
+     * referenced {@link YearMonth}. This is a convenience for
+     * {@link #getAllTransactionsOverRange(DateRange, boolean)}.
      *
      * @param period {@link YearMonth} defining the year and month
      * @param includeDeleted indicates which records to include in the results
@@ -98,6 +151,16 @@ public interface TransactionDao {
      */
     List<Transaction> getAllTransactionsOverPeriod(YearMonth period, boolean includeDeleted);
 
+    /**
+     * Returns a {@code List} of all the {@link Transaction} objects posted within the
+     * referenced {@link DateRange}.
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<Transaction> getAllTransactionsOverRange(DateRange range, boolean includeDeleted);
+
     /**
      * Returns a {@code List} of all the {@code Transaction} objects relating to the referenced
      * {@code Account}.
@@ -110,7 +173,8 @@ public interface TransactionDao {
 
     /**
      * Returns a {@code List} of all the {@code Transaction} objects relating to the referenced
-     * {@code Account} posted during the referenced {@link YearMonth}.
+     * {@code Account} posted during the referenced {@link YearMonth}. This is a convenience for
+     * {@link #getTransactionsForAccountOverRange(DateRange, Account, boolean)}.
      *
      * @param period {@link YearMonth} defining the year and month
      * @param account the {@code Account}
@@ -119,4 +183,94 @@ public interface TransactionDao {
      */
     List<Transaction> getTransactionsForAccountOverPeriod(YearMonth period, Account account,
         boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of all the {@code Transaction} objects relating to the referenced
+     * {@code Account} posted within the referenced {@link DateRange}.
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<Transaction> getTransactionsForAccountOverRange(DateRange range, Account account,
+        boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for all transactions, most
+     * recent first. The account names are resolved in the same statement.
+     *
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummaries(boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for the transactions posted
+     * within the referenced {@link DateRange}, most recent first.
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummariesOverRange(DateRange range,
+        boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for the transactions relating
+     * to the referenced {@code Account}, most recent first.
+     *
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummariesForAccount(Account account,
+        boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for the transactions relating
+     * to the referenced {@code Account} posted within the referenced {@link DateRange}, most
+     * recent first. Each summary carries the account's running balance over the range
+     * ({@link TransactionSummary#getRunningBalance()}).
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummariesForAccountOverRange(DateRange range,
+        Account account, boolean includeDeleted);
+
+    /**
+     * Returns one page of {@link TransactionSummary} objects for all transactions, most recent
+     * first. The page is located by its {@link PageKey} rather than by an offset, so its cost
+     * does not grow with the size of the ledger.
+     *
+     * @param request {@link PageRequest} identifying the page
+     * @param includeDeleted indicates which records to include in the results
+     * @return {@link TransactionPage}
+     */
+    TransactionPage getTransactionSummaryPage(PageRequest request, boolean includeDeleted);
+
+    /**
+     * Returns one page of {@link TransactionSummary} objects for the transactions relating to
+     * the referenced {@code Account}, most recent first.
+     *
+     * @param request {@link PageRequest} identifying the page
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return {@link TransactionPage}
+     */
+    TransactionPage getTransactionSummaryPageForAccount(PageRequest request, Account account,
+        boolean includeDeleted);
+
+    /**
+     * Visits each {@link Transaction} selected by the criteria, one at a time, without building
+     * a list of the results. The rows are read through a forward-only cursor, so the memory
+     * used does not grow with the size of the ledger. No order is guaranteed.
+     *
+     * @param criteria {@link TransactionCriteria}
+     * @param action called once for each {@code Transaction}
+     */
+    void forEachTransaction(TransactionCriteria criteria, Consumer<Transaction> action);
 }
@@ -1,63 +1,43 @@
-/*
- * MIT License
- *
- * Copyright (c) 2019 ColonelBlimp
- *
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
- *
- * The above copyright notice and this permission notice shall be included in all
- * copies or substantial portions of the Software.
- *
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
- * SOFTWARE.
- */
-
-package org.veary.debs.web.struts2.actions;
-
-import java.time.LocalDate;
-import java.util.Comparator;
-import java.util.Objects;
-
-import org.veary.debs.web.struts2.DateSorter;
-
-/**
- * <b>Purpose:</b> {@link Comparator} implementation for date sorting of Transactions.
- *
- * @author Marc L. Veary
- * @since 1.0
- */
-public final class TransactionDateSorter<T extends DateSorter> implements Comparator<T> {
-
-    public enum SortDirection {
-        ASCENDING,
-        DECENDING;
-    }
-
-    private final SortDirection direction;
-
-    public TransactionDateSorter(SortDirection direction) {
-        this.direction = Objects.requireNonNull(direction);
-    }
-
-    @Override
-    public int compare(T left, T right) {
-        LocalDate dateLeft = LocalDate.parse(left.getDate());
-        LocalDate dateRight = LocalDate.parse(right.getDate());
-
-        if (this.direction.equals(SortDirection.ASCENDING)) {
-            return dateLeft.compareTo(dateRight);
-        } else {
-            return dateRight.compareTo(dateLeft);
-        }
-    }
-}
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.exceptions;
+
+/**
+ * <b>Purpose:</b> Thrown when an update is made from a copy of an object which has been
+ * changed since the copy was read.
+ *
+ * <p><b>Responsibility:</b> Tells the caller that nothing was written, and that the update may
+ * be retried against a freshly read copy.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class ConcurrentUpdateException extends DebsException {
+
+    private static final long serialVersionUID = -5081694530829731154L;
+
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
@@ -24,10 +24,12 @@
 
 package org.veary.debs.facade;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import org.veary.debs.core.Money;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.model.Account;
 import org.veary.debs.model.Account.Types;
 import org.veary.tree.TreeNode;
@@ -84,6 +86,8 @@ public interface AccountFacade {
      *     updated
      * @param type a different type, or {@code null} if this field is not to be updated
      * @param isDeleted boolean
+     * @throws ConcurrentUpdateException if the account has been updated since the
+     *     {@code original} was read
      */
     void update(Account original, String name, String description, Long parentId,
         Account.Types type, boolean isDeleted);
@@ -96,6 +100,17 @@ public interface AccountFacade {
      */
     void updateBalance(Account object, Money amount);
 
+    /**
+     * Spreads the balance of the referenced {@code Account} over the given number of stripes.
+     * Intended for accounts, such as <i>Cash</i>, that take a large share of the postings.
+     * A value of {@code 0} or {@code 1} turns striping off. The balance of the account is not
+     * changed.
+     *
+     * @param object {@code Account}
+     * @param stripes the number of stripes
+     */
+    void setBalanceStripes(Account object, int stripes);
+
     /**
      * Fetch an {@code Account} from persistent storage.
      *
@@ -146,6 +161,9 @@ public interface AccountFacade {
     /**
      * Returns a {@code TreeNode<Account>} which is a hierachical tree of the chart of accounts.
      *
+     * <p><b>Note:</b> Each call returns a new tree of copies of the accounts, which the caller
+     * may modify without affecting other callers.
+     *
      * @return {@link TreeNode}
      */
     TreeNode<Account> getChartOfAccounts();
@@ -158,4 +176,17 @@ public interface AccountFacade {
      * @return {@code List}. Not-{@code null}.
      */
     List<Account> getAllowedGroupsForType(Types type);
+
+    /**
+     * Returns the balance of the referenced {@code Account} at the end of the referenced date.
+     * The balance of a group account includes the balances of all its members.
+     *
+     * <p>The balance is read from the monthly snapshot preceding the date plus the transactions
+     * of the partial month, so the cost does not depend on the age of the account.
+     *
+     * @param account the {@code Account}
+     * @param date the date
+     * @return {@code Money}. Non-{@code null}.
+     */
+    Money getBalanceAsOf(Account account, LocalDate date);
 }
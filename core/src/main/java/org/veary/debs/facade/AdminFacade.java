@@ -37,6 +37,11 @@ public interface AdminFacade {
      */
     void initializeDatabase();
 
+    /**
+     * Bring the database schema up to date by applying any outstanding migrations.
+     */
+    void migrateDatabase();
+
     /**
      * Backup the database.
      *
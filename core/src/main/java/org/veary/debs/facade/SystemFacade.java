@@ -27,10 +27,19 @@ package org.veary.debs.facade;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.PageKey;
+import org.veary.debs.core.PageRequest;
+import org.veary.debs.core.Posting;
+import org.veary.debs.core.TransactionCriteria;
+import org.veary.debs.core.TransactionPage;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.model.Account;
 import org.veary.debs.model.Entry;
 import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 
 /**
  * <b>Purpose:</b> Defines the contract for accessing the main accounting system.
@@ -52,6 +61,17 @@ public interface SystemFacade {
      */
     Long postTransaction(Transaction transaction, Entry fromEntry, Entry toEntry);
 
+    /**
+     * Posts several accounting transactions to the system at once. Every posting is validated
+     * before any is written; they are then all written within a single database transaction,
+     * so either all of them are posted or none is.
+     *
+     * @param postings the {@link Posting} objects, each of which must use its own
+     *     {@code Transaction} and {@code Entry} instances
+     * @return the unique identifiers of the new transactions, in the order of the postings
+     */
+    List<Long> postTransactions(List<Posting> postings);
+
     /**
      * Updates the referenced <i>original</i> transaction, with data from the referenced
      * <i>updated</i> transaction and updated <i>updatedFromEntry</i> and <i>updatedToEntry</i>.
@@ -62,6 +82,8 @@ public interface SystemFacade {
      * @param updated {@link Transaction}
      * @param updatedFromEntry {@link Entry}
      * @param updatedToEntry {@link Entry}
+     * @throws ConcurrentUpdateException if the transaction has been updated or deleted since
+     *     the {@code original} was read
      */
     void updateTransaction(Transaction original, Transaction updated, Entry updatedFromEntry,
         Entry updatedToEntry);
@@ -71,6 +93,8 @@ public interface SystemFacade {
      * actual entries are not deleted, but simply marked as such.
      *
      * @param object {@code Transaction} to be marked as deleted
+     * @throws ConcurrentUpdateException if the transaction has been updated or deleted since
+     *     the {@code object} was read
      */
     void deleteTransaction(Transaction object);
 
@@ -92,7 +116,8 @@ public interface SystemFacade {
 
     /**
      * Returns a {@code List} of all the {@link Transaction} objects posted during the
-     * referenced {@link YearMonth}.
+     * referenced {@link YearMonth}. This is a convenience for
+     * {@link #getAllTransactionsOverRange(DateRange, boolean)}.
      *
      * @param period {@link YearMonth} defining the year and month
      * @param includeDeleted indicates which records to include in the results
@@ -100,6 +125,16 @@ public interface SystemFacade {
      */
     List<Transaction> getAllTransactionsOverPeriod(YearMonth period, boolean includeDeleted);
 
+    /**
+     * Returns a {@code List} of all the {@link Transaction} objects posted within the
+     * referenced {@link DateRange}.
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<Transaction> getAllTransactionsOverRange(DateRange range, boolean includeDeleted);
+
     /**
      * Returns a {@code List} of all the {@code Transaction} objects relating to the referenced
      * {@code Account}.
@@ -112,7 +147,8 @@ public interface SystemFacade {
 
     /**
      * Returns a {@code List} of all the {@code Transaction} objects relating to the referenced
-     * {@code Account} posted during the referenced {@link YearMonth}.
+     * {@code Account} posted during the referenced {@link YearMonth}. This is a convenience for
+     * {@link #getTransactionsForAccountOverRange(DateRange, Account, boolean)}.
      *
      * @param period {@link YearMonth} defining the year and month
      * @param account the {@code Account}
@@ -121,4 +157,105 @@ public interface SystemFacade {
      */
     List<Transaction> getTransactionsForAccountOverPeriod(YearMonth period, Account account,
         boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of all the {@code Transaction} objects relating to the referenced
+     * {@code Account} posted within the referenced {@link DateRange}.
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<Transaction> getTransactionsForAccountOverRange(DateRange range, Account account,
+        boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for all transactions, most
+     * recent first. The account names are resolved in the same statement.
+     *
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummaries(boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for the transactions posted
+     * within the referenced {@link DateRange}, most recent first.
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummariesOverRange(DateRange range,
+        boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for the transactions relating
+     * to the referenced {@code Account}, most recent first.
+     *
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummariesForAccount(Account account,
+        boolean includeDeleted);
+
+    /**
+     * Returns a {@code List} of {@link TransactionSummary} objects for the transactions relating
+     * to the referenced {@code Account} posted within the referenced {@link DateRange}, most
+     * recent first. Each summary carries the account's running balance over the range
+     * ({@link TransactionSummary#getRunningBalance()}).
+     *
+     * @param range {@link DateRange} (start inclusive, end exclusive)
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return an unmodifiable {@code List}. Cannot be {@code null}.
+     */
+    List<TransactionSummary> getTransactionSummariesForAccountOverRange(DateRange range,
+        Account account, boolean includeDeleted);
+
+    /**
+     * Returns one page of {@link TransactionSummary} objects for all transactions, most recent
+     * first. The page is located by its {@link PageKey} rather than by an offset, so its cost
+     * does not grow with the size of the ledger.
+     *
+     * @param request {@link PageRequest} identifying the page
+     * @param includeDeleted indicates which records to include in the results
+     * @return {@link TransactionPage}
+     */
+    TransactionPage getTransactionSummaryPage(PageRequest request, boolean includeDeleted);
+
+    /**
+     * Returns one page of {@link TransactionSummary} objects for the transactions relating to
+     * the referenced {@code Account}, most recent first.
+     *
+     * @param request {@link PageRequest} identifying the page
+     * @param account the {@code Account}
+     * @param includeDeleted indicates which records to include in the results
+     * @return {@link TransactionPage}
+     */
+    TransactionPage getTransactionSummaryPageForAccount(PageRequest request, Account account,
+        boolean includeDeleted);
+
+    /**
+     * Visits each {@link Transaction} selected by the criteria, one at a time, without building
+     * a list of the results. The rows are read through a forward-only cursor, so the memory
+     * used does not grow with the size of the ledger. No order is guaranteed.
+     *
+     * @param criteria {@link TransactionCriteria}
+     * @param action called once for each {@code Transaction}
+     */
+    void forEachTransaction(TransactionCriteria criteria, Consumer<Transaction> action);
+
+    /**
+     * Waits until the account balances include every transaction posted, updated or deleted
+     * before the call. This only waits in {@code DEFERRED} posting mode, in which the balances
+     * are brought up to date in the background; otherwise they are always up to date.
+     *
+     * @param timeoutMillis the maximum time to wait, in milliseconds
+     * @return {@code true} if the balances are up to date, {@code false} if the time elapsed
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    boolean awaitBalances(long timeoutMillis) throws InterruptedException;
 }
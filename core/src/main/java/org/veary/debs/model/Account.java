@@ -59,7 +59,8 @@ public interface Account extends PersistentObject {
         NAME("NAME"), //$NON-NLS-1$
         DESCRIPTION("DESCRIPTION"), //$NON-NLS-1$
         PARENT_ID("PARENT_ID"), //$NON-NLS-1$
-        ACCOUNT_TYPE("ACCOUNT_TYPE"); //$NON-NLS-1$
+        ACCOUNT_TYPE("ACCOUNT_TYPE"), //$NON-NLS-1$
+        VERSION("VERSION"); //$NON-NLS-1$
 
         private final String name;
 
@@ -207,6 +208,15 @@ public interface Account extends PersistentObject {
      */
     Long getParentId();
 
+    /**
+     * Returns the number of times the account's name, description, parent, type or deleted
+     * flag have been updated. An update made from a copy whose version is no longer current is
+     * rejected.
+     *
+     * @return {@code int}
+     */
+    int getVersion();
+
     /**
      * Returns the balance as it should be displayed for this account object.
      *
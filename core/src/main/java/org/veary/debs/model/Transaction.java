@@ -72,6 +72,14 @@ public interface Transaction extends PersistentObject {
      */
     Entry getToEntry();
 
+    /**
+     * Returns the number of times the transaction has been updated or deleted. An update made
+     * from a copy whose version is no longer current is rejected.
+     *
+     * @return {@code int}
+     */
+    int getVersion();
+
     /**
      * Static method for creating a new Transaction object. Fields other than those referenced
      * are set to their default values.
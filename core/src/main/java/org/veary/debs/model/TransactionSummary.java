@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.model;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.veary.debs.core.Money;
+
+/**
+ * <b>Purpose:</b> Defines the contract for a read-only, flattened view of a {@link Transaction}
+ * as shown in a list.
+ *
+ * <p><b>Responsibility:</b> Carries the names of the <i>from</i> and <i>to</i> accounts, so a
+ * list can be rendered without loading the {@link Entry} and {@link Account} objects behind
+ * each row.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public interface TransactionSummary {
+
+    /**
+     * The transaction's unique identifier.
+     *
+     * @return {@code Long}
+     */
+    Long getId();
+
+    /**
+     * Has the transaction been marked as <i>deleted</i>.
+     *
+     * @return {@code true} if marked as deleted, otherwise {@code false}
+     */
+    boolean isDeleted();
+
+    /**
+     * Returns the transaction's date.
+     *
+     * @return {@link LocalDate}
+     */
+    LocalDate getDate();
+
+    /**
+     * Returns the reference for the transaction.
+     *
+     * @return {@code String}
+     */
+    String getReference();
+
+    /**
+     * Returns the narrative (description) for the transaction.
+     *
+     * @return {@code String}
+     */
+    String getNarrative();
+
+    /**
+     * Returns the amount of the transaction. This is the (positive) amount of the <i>to</i>
+     * entry.
+     *
+     * @return {@link Money}
+     */
+    Money getAmount();
+
+    /**
+     * Returns the unique identifier of the account the value <b>came from</b>.
+     *
+     * @return {@code Long}
+     */
+    Long getFromAccountId();
+
+    /**
+     * Returns the name of the account the value <b>came from</b>.
+     *
+     * @return {@code String}
+     */
+    String getFromAccountName();
+
+    /**
+     * Has the <i>from</i> entry been cleared.
+     *
+     * @return {@code true} if cleared, otherwise {@code false}
+     */
+    boolean isFromCleared();
+
+    /**
+     * Returns the unique identifier of the account the value <b>went to</b>.
+     *
+     * @return {@code Long}
+     */
+    Long getToAccountId();
+
+    /**
+     * Returns the name of the account the value <b>went to</b>.
+     *
+     * @return {@code String}
+     */
+    String getToAccountName();
+
+    /**
+     * Has the <i>to</i> entry been cleared.
+     *
+     * @return {@code true} if cleared, otherwise {@code false}
+     */
+    boolean isToCleared();
+
+    /**
+     * Returns the balance of the account a statement was listed for, after this transaction.
+     * The balance is cumulative over the rows of the statement in date order, so the opening
+     * balance of the statement's period must be added to it. Deleted transactions do not
+     * change the balance.
+     *
+     * @return {@code Optional<Money>}, empty if the summary is not part of an account statement
+     */
+    Optional<Money> getRunningBalance();
+}
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.dao.tests;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.PostingMode;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.dao.TransactionDao;
+
+/**
+ * <b>Purpose:</b> Checks that {@link BalanceMaterializer#await(long, long)} folds the journal
+ * on the caller's thread in {@link PostingMode#IMMEDIATE} mode, and gives up once the time has
+ * elapsed if the journal cannot be folded.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class BalanceMaterializerTest {
+
+    @Test
+    public void awaitFoldsInline() throws InterruptedException {
+        final AtomicInteger passes = new AtomicInteger();
+        final BalanceMaterializer materializer = new BalanceMaterializer(
+            newDao(() -> passes.get() >= 2, () -> passes.incrementAndGet()),
+            PostingMode.IMMEDIATE);
+
+        Assert.assertTrue(materializer.await(1L, 1000L));
+        Assert.assertEquals(passes.get(), 2);
+    }
+
+    @Test(timeOut = 10000)
+    public void awaitGivesUpWithoutProgress() throws InterruptedException {
+        // The rows are claimed by a pass elsewhere, so no pass here folds any
+        final AtomicInteger passes = new AtomicInteger();
+        final BalanceMaterializer materializer = new BalanceMaterializer(
+            newDao(() -> false, () -> {
+                passes.incrementAndGet();
+                return 0;
+            }), PostingMode.IMMEDIATE);
+
+        Assert.assertFalse(materializer.await(1L, 200L));
+        Assert.assertTrue(passes.get() <= 1 + 200 / BalanceMaterializer.INTERVAL_MILLIS);
+    }
+
+    private static TransactionDao newDao(BooleanSupplier materialized,
+        IntSupplier materialize) {
+        return (TransactionDao) Proxy.newProxyInstance(TransactionDao.class.getClassLoader(),
+            new Class<?>[] { TransactionDao.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "isMaterialized":
+                        return Boolean.valueOf(materialized.getAsBoolean());
+                    case "materializeBalances":
+                        return Integer.valueOf(materialize.getAsInt());
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
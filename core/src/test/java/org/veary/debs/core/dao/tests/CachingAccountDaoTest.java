@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.dao.tests;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.dao.CachingAccountDao;
+import org.veary.debs.core.dao.JdbcBatch;
+import org.veary.debs.core.dao.RealAccountDao;
+import org.veary.debs.core.model.AccountEntity;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Account.Types;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+import org.veary.debs.tests.JndiTestBase;
+
+/**
+ * <b>Purpose:</b> Test the {@link CachingAccountDao}.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class CachingAccountDaoTest extends JndiTestBase {
+
+    private static final String NAME = "Cached"; //$NON-NLS-1$
+    private static final String DESC = "Cached Desc"; //$NON-NLS-1$
+    private static final String OTHER_NAME = "Cached Other"; //$NON-NLS-1$
+    private static final String CHANGED_DESC = "Changed Desc"; //$NON-NLS-1$
+    private static final Long ASSETS_GROUP_ID = Long.valueOf(3);
+    private static final Long LIABILITIES_GROUP_ID = Long.valueOf(4);
+    private static final Money AMOUNT = new Money(BigDecimal.valueOf(500));
+
+    @Test
+    public void bound() {
+        Assert.assertTrue(this.accountDao instanceof CachingAccountDao);
+    }
+
+    @Test
+    public void createInvalidates() {
+        Long id = this.accountDao
+            .createAccount(Account.newInstance(NAME, DESC, ASSETS_GROUP_ID, Types.ASSET));
+
+        Account byName = this.accountDao.getAccountByName(NAME);
+        Assert.assertEquals(byName.getId(), id);
+        Assert.assertEquals(this.accountDao.getAccountById(id).getName(), NAME);
+    }
+
+    @Test(dependsOnMethods = "createInvalidates")
+    public void returnsCopies() {
+        Account first = this.accountDao.getAccountByName(NAME);
+        ((AccountEntity) first).setBalance(AMOUNT);
+
+        Account second = this.accountDao.getAccountByName(NAME);
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(second.getBalance().isZero());
+    }
+
+    @Test(dependsOnMethods = "returnsCopies")
+    public void updateBalanceInvalidates() {
+        Account account = this.accountDao.getAccountByName(NAME);
+        this.accountDao.updateAccountBalance(account, AMOUNT);
+
+        Assert.assertTrue(this.accountDao.getAccountById(account.getId()).getBalance()
+            .eq(AMOUNT));
+    }
+
+    @Test(dependsOnMethods = "updateBalanceInvalidates")
+    public void postingKeepsStructure() {
+        Account account = this.accountDao.getAccountByName(NAME);
+        this.accountDao
+            .createAccount(Account.newInstance(OTHER_NAME, DESC, ASSETS_GROUP_ID, Types.ASSET));
+        Account other = this.accountDao.getAccountByName(OTHER_NAME);
+
+        // Written behind the cache, so it is only seen once the structure is reloaded
+        final JdbcBatch batch = this.injector.getInstance(JdbcBatch.class);
+        batch.inTransaction(conn -> Integer.valueOf(batch.update(conn,
+            "UPDATE DEBS.ACCOUNT SET DESCRIPTION=? WHERE ID=?", //$NON-NLS-1$
+            List.of(CHANGED_DESC, account.getId()))));
+
+        this.systemFacade.postTransaction(
+            Transaction.newInstance(LocalDate.now(), NAME, NAME, AMOUNT, false, false),
+            Entry.newInstance(Entry.Types.FROM, account),
+            Entry.newInstance(Entry.Types.TO, other));
+
+        Account cached = this.accountDao.getAccountById(account.getId());
+        Account stored = this.injector.getInstance(RealAccountDao.class)
+            .getAccountById(account.getId());
+        Assert.assertEquals(cached.getDescription(), DESC);
+        Assert.assertEquals(stored.getDescription(), CHANGED_DESC);
+        Assert.assertTrue(cached.getBalance().eq(stored.getBalance()));
+        Assert.assertFalse(cached.getBalance().eq(AMOUNT));
+    }
+
+    @Test(dependsOnMethods = "postingKeepsStructure")
+    public void postingRollsUpToStoredParent() {
+        Account account = this.accountDao.getAccountByName(NAME);
+        Account other = this.accountDao.getAccountByName(OTHER_NAME);
+
+        // Moved behind the cache, which still holds the old parent
+        final JdbcBatch batch = this.injector.getInstance(JdbcBatch.class);
+        batch.inTransaction(conn -> Integer.valueOf(batch.update(conn,
+            "UPDATE DEBS.ACCOUNT SET PARENT_ID=? WHERE ID=?", //$NON-NLS-1$
+            List.of(LIABILITIES_GROUP_ID, other.getId()))));
+
+        final RealAccountDao stored = this.injector.getInstance(RealAccountDao.class);
+        final Money groupBefore = stored.getAccountById(LIABILITIES_GROUP_ID).getBalance();
+        final Money otherBefore = stored.getAccountById(other.getId()).getBalance();
+
+        this.systemFacade.postTransaction(
+            Transaction.newInstance(LocalDate.now(), NAME, NAME, AMOUNT, false, false),
+            Entry.newInstance(Entry.Types.FROM, account),
+            Entry.newInstance(Entry.Types.TO, other));
+
+        final Money movement = stored.getAccountById(other.getId()).getBalance()
+            .minus(otherBefore);
+        Assert.assertFalse(movement.isZero());
+        Assert.assertTrue(stored.getAccountById(LIABILITIES_GROUP_ID).getBalance()
+            .minus(groupBefore).eq(movement));
+    }
+}
@@ -24,7 +24,9 @@
 
 package org.veary.debs.core.dao.tests;
 
+import org.testng.Assert;
 import org.testng.annotations.Test;
+import org.veary.debs.dao.AdminDao;
 import org.veary.debs.tests.JndiTestBase;
 
 /**
@@ -41,4 +43,14 @@ public final class DatabaseSetupDaoTest extends JndiTestBase {
     public void initializeDatabase() {
 
     }
+
+    @Test
+    public void migrateDatabase() {
+        AdminDao adminDao = this.injector.getInstance(AdminDao.class);
+        int version = adminDao.getSchemaVersion();
+        Assert.assertTrue(version > 0);
+
+        adminDao.migrateDatabase();
+        Assert.assertEquals(adminDao.getSchemaVersion(), version);
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.dao.tests;
+
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.dao.IdAllocator;
+import org.veary.debs.core.dao.IdAllocator.Sequence;
+import org.veary.debs.core.dao.JdbcCursor;
+import org.veary.debs.dao.Registry;
+import org.veary.debs.tests.JndiTestBase;
+
+/**
+ * <b>Purpose:</b> Test the {@link IdAllocator} against the sequences created by the
+ * migrations.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class IdAllocatorTest extends JndiTestBase {
+
+    @Test
+    public void allocateAcrossBlocks() {
+        final IdAllocator allocator = this.injector.getInstance(IdAllocator.class);
+
+        final List<Long> ids = allocator.allocate(Sequence.ENTRY, 250);
+        Assert.assertEquals(ids.size(), 250);
+        assertAscending(ids);
+
+        final List<Long> more = allocator.allocate(Sequence.ENTRY, 1);
+        Assert.assertTrue(more.get(0).longValue() > ids.get(249).longValue());
+        Assert.assertTrue(allocator.allocate(Sequence.TRANSACTION, 0).isEmpty());
+    }
+
+    @Test(dependsOnMethods = "allocateAcrossBlocks")
+    public void blocksAreNotReused() {
+        final IdAllocator allocator = this.injector.getInstance(IdAllocator.class);
+        final Long last = allocator.allocate(Sequence.TRANSACTION, 1).get(0);
+
+        // As would happen after a restart
+        final IdAllocator restarted = new IdAllocator(this.injector.getInstance(Registry.class),
+            this.injector.getInstance(JdbcCursor.class));
+        Assert.assertTrue(restarted.allocate(Sequence.TRANSACTION, 1).get(0).longValue()
+            > last.longValue());
+        Assert.assertTrue(allocator.allocate(Sequence.TRANSACTION, 1).get(0).longValue()
+            > last.longValue());
+    }
+
+    private static void assertAscending(List<Long> ids) {
+        for (int i = 1; i < ids.size(); i++) {
+            Assert.assertTrue(ids.get(i).longValue() > ids.get(i - 1).longValue());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.dao.tests;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.dao.JdbcCursor;
+import org.veary.debs.core.dao.RealAccountDao;
+import org.veary.debs.core.model.AccountEntity;
+import org.veary.debs.dao.Registry;
+import org.veary.debs.model.Account;
+import org.veary.debs.tests.JndiTestBase;
+
+/**
+ * <b>Purpose:</b> Test the {@link JdbcCursor} and the index-based row mappers.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class JdbcCursorTest extends JndiTestBase {
+
+    private static final int FETCH_SIZE = 10;
+    private static final int ROWS = 1000;
+
+    @Test
+    public void mappedMatchesPersist() {
+        final JdbcCursor cursor = this.injector.getInstance(JdbcCursor.class);
+        final Registry registry = this.injector.getInstance(Registry.class);
+        final RealAccountDao dao = this.injector.getInstance(RealAccountDao.class);
+
+        final List<Account> accounts = cursor.list(registry.getSql("getAllAccounts"), //$NON-NLS-1$
+            Collections.emptyList(), AccountEntity::rowMapper);
+        Assert.assertFalse(accounts.isEmpty());
+
+        for (Account account : accounts) {
+            Assert.assertEquals(account, dao.getAccountById(account.getId()));
+        }
+    }
+
+    @Test
+    public void forEachReadsPastFetchSize() {
+        final JdbcCursor cursor = this.injector.getInstance(JdbcCursor.class);
+        final AtomicInteger count = new AtomicInteger();
+
+        cursor.forEach("SELECT X FROM SYSTEM_RANGE(1,?)", //$NON-NLS-1$
+            List.of(Integer.valueOf(ROWS)), FETCH_SIZE,
+            meta -> rs -> Long.valueOf(rs.getLong(1)),
+            value -> Assert.assertEquals(value.intValue(), count.incrementAndGet()));
+
+        Assert.assertEquals(count.get(), ROWS);
+    }
+
+    /**
+     * Stops after a few fetches of a result far too large to be materialized within the time
+     * limit, so it only passes if the rows are streamed.
+     */
+    @Test(timeOut = 10000)
+    public void forEachStreams() {
+        final JdbcCursor cursor = this.injector.getInstance(JdbcCursor.class);
+        final AtomicInteger count = new AtomicInteger();
+
+        try {
+            cursor.forEach("SELECT X FROM SYSTEM_RANGE(1,?)", //$NON-NLS-1$
+                List.of(Long.valueOf(Long.MAX_VALUE)), FETCH_SIZE,
+                meta -> rs -> Long.valueOf(rs.getLong(1)),
+                value -> {
+                    if (count.incrementAndGet() == FETCH_SIZE * 3) {
+                        throw new IllegalStateException();
+                    }
+                });
+            Assert.fail("The scan was not stopped"); //$NON-NLS-1$
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(count.get(), FETCH_SIZE * 3);
+        }
+
+        Assert.assertEquals(cursor.list("SELECT COUNT(*) FROM SYSTEM_RANGE(1,?)", //$NON-NLS-1$
+            List.of(Integer.valueOf(ROWS)), meta -> rs -> Long.valueOf(rs.getLong(1))).get(0),
+            Long.valueOf(ROWS));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void missingColumns() {
+        final JdbcCursor cursor = this.injector.getInstance(JdbcCursor.class);
+        cursor.list("SELECT ID,NAME FROM DEBS.ACCOUNT", Collections.emptyList(), //$NON-NLS-1$
+            AccountEntity::rowMapper);
+    }
+}
@@ -115,6 +115,10 @@ public class AbstractSystemFacadeTestBase extends JndiTestBase {
         LOG.trace("called");
     }
 
+    protected Money balanceOf(Long id) {
+        return this.accountDao.getAccountById(id).getBalance();
+    }
+
     private void createAccounts() {
         LOG.trace("called");
         if (this.fromAccount == null) {
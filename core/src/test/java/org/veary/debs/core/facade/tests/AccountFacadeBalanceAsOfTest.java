@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import javax.sql.DataSource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.model.EntryEntity;
+import org.veary.debs.dao.Registry;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks {@code AccountFacade#getBalanceAsOf} against the
+ * {@code ACCOUNT_PERIOD_BALANCE} snapshots maintained by the {@code TransactionDao}.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class AccountFacadeBalanceAsOfTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money ZERO = new Money(BigDecimal.ZERO);
+    private static final Money AMOUNT = new Money(new BigDecimal("250.50"));
+    private static final LocalDate EARLIER = TX_DATE.minusMonths(3).withDayOfMonth(10);
+
+    @Test
+    public void currentMonth() {
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.toAccount, TX_DATE)
+            .eq(TX_AMOUNT));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fromAccount, TX_DATE)
+            .eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.toAccount,
+            TX_DATE.minusDays(1)).eq(ZERO));
+    }
+
+    @Test
+    public void groupIncludesMembers() {
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(
+            this.accountDao.getAccountById(EXPENSES_GROUP_ID), TX_DATE).eq(TX_AMOUNT));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(
+            this.accountDao.getAccountById(BALANCE_GROUP_ID), TX_DATE).eq(ZERO));
+    }
+
+    @Test(dependsOnMethods = { "currentMonth", "groupIncludesMembers" })
+    public void backDatedTransaction() throws SQLException {
+        final Long id = this.systemFacade.postTransaction(
+            Transaction.newInstance(EARLIER, TX_NARRATIVE, TX_REFERENCE, AMOUNT, false, false),
+            Entry.newInstance(Entry.Types.FROM, this.fromAccount),
+            Entry.newInstance(Entry.Types.TO, this.otherToAccount));
+
+        assertBackDatedBalances();
+
+        // The snapshots rebuilt by the migration must match those maintained on posting
+        final Registry registry = this.injector.getInstance(Registry.class);
+        try (Connection conn = this.injector.getInstance(DataSource.class).getConnection();
+            Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(registry.getSql("clearAccountPeriodBalance"));
+            stmt.executeUpdate(registry.getSql("populateAccountPeriodBalance"));
+        }
+
+        assertBackDatedBalances();
+
+        final Transaction original = this.systemFacade.getTransactionById(id).orElseThrow();
+        this.systemFacade.updateTransaction(original,
+            Transaction.newInstance(TX_DATE, TX_NARRATIVE, TX_REFERENCE, AMOUNT, false, false),
+            new EntryEntity(original.getFromEntry()),
+            new EntryEntity(original.getToEntry()));
+
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.otherToAccount, EARLIER)
+            .eq(ZERO));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.otherToAccount, TX_DATE)
+            .eq(AMOUNT));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fromAccount,
+            TX_DATE.withDayOfMonth(1).minusDays(1)).eq(ZERO));
+
+        this.systemFacade.deleteTransaction(
+            this.systemFacade.getTransactionById(id).orElseThrow());
+
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.otherToAccount, TX_DATE)
+            .eq(ZERO));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fromAccount, TX_DATE)
+            .eq(TX_AMOUNT.negate()));
+    }
+
+    private void assertBackDatedBalances() {
+        final Account food = this.otherToAccount;
+
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(food, EARLIER.minusDays(1))
+            .eq(ZERO));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(food, EARLIER).eq(AMOUNT));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(food, TX_DATE).eq(AMOUNT));
+
+        // The snapshot of the current month was carried forward
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fromAccount,
+            TX_DATE.withDayOfMonth(1).minusDays(1)).eq(AMOUNT.negate()));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fromAccount, TX_DATE)
+            .eq(TX_AMOUNT.plus(AMOUNT).negate()));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(
+            this.accountDao.getAccountById(EXPENSES_GROUP_ID), TX_DATE)
+            .eq(TX_AMOUNT.plus(AMOUNT)));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.util.Optional;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.model.AccountEntity;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+import org.veary.tree.TreeNode;
+
+/**
+ * <b>Purpose:</b> Checks that the chart of accounts is cached until an account or balance
+ * changes, that each caller is given its own copy, and that it is built whatever the order in
+ * which the accounts are read.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class AccountFacadeChartTest extends AbstractSystemFacadeTestBase {
+
+    @Test
+    public void cachedUntilBalanceChanges() {
+        final TreeNode<Account> chart = this.accountFacade.getChartOfAccounts();
+
+        this.systemFacade.postTransaction(
+            Transaction.newInstance(TX_DATE, TX_NARRATIVE, TX_REFERENCE, TX_AMOUNT, false, false),
+            Entry.newInstance(Entry.Types.FROM, this.otherFromAccount),
+            Entry.newInstance(Entry.Types.TO, this.otherToAccount));
+
+        final TreeNode<Account> rebuilt = this.accountFacade.getChartOfAccounts();
+        Assert.assertNotSame(rebuilt, chart);
+        Assert.assertTrue(nodeOf(rebuilt, this.otherToAccount.getId()).getData().getBalance()
+            .eq(TX_AMOUNT));
+    }
+
+    @Test(dependsOnMethods = "cachedUntilBalanceChanges")
+    public void callersGetTheirOwnCopy() {
+        final TreeNode<Account> chart = this.accountFacade.getChartOfAccounts();
+        final Money balance = nodeOf(chart, this.toAccount.getId()).getData().getBalance();
+        final int size = sizeOf(chart);
+
+        ((AccountEntity) nodeOf(chart, this.toAccount.getId()).getData())
+            .setBalance(balance.plus(TX_AMOUNT));
+        chart.addChild(Account.newInstance("Stray", "Stray Description", EXPENSES_GROUP_ID,
+            Account.Types.EXPENSE));
+
+        final TreeNode<Account> other = this.accountFacade.getChartOfAccounts();
+        Assert.assertNotSame(other, chart);
+        Assert.assertTrue(nodeOf(other, this.toAccount.getId()).getData().getBalance()
+            .eq(balance));
+        Assert.assertEquals(sizeOf(other), size);
+    }
+
+    @Test(dependsOnMethods = "callersGetTheirOwnCopy")
+    public void childReadBeforeParent() {
+        final TreeNode<Account> chart = this.accountFacade.getChartOfAccounts();
+
+        // The new group has a higher id than the account moved below it
+        final Long groupId = this.accountFacade.create(Account.newInstance("Vehicles",
+            "Vehicles Description", EXPENSES_GROUP_ID, Account.Types.EXPENSE_GROUP));
+        Assert.assertNotSame(this.accountFacade.getChartOfAccounts(), chart);
+
+        final AccountEntity moved = new AccountEntity(this.toAccount);
+        moved.setParentId(groupId);
+        this.accountDao.updateAccount(this.toAccount, moved);
+
+        final TreeNode<Account> rebuilt = this.accountFacade.getChartOfAccounts();
+        final TreeNode<Account> fuel = nodeOf(rebuilt, this.toAccount.getId());
+        Assert.assertEquals(fuel.getLevel(), nodeOf(rebuilt, groupId).getLevel() + 1);
+    }
+
+    private static int sizeOf(TreeNode<Account> chart) {
+        int size = 0;
+        for (TreeNode<Account> node : chart) {
+            size++;
+        }
+        return size;
+    }
+
+    private static TreeNode<Account> nodeOf(TreeNode<Account> chart, Long id) {
+        final Optional<TreeNode<Account>> node = chart
+            .findNode(data -> data.getId().equals(id));
+        Assert.assertTrue(node.isPresent());
+        return node.get();
+    }
+}
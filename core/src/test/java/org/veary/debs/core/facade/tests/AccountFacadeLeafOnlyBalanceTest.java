@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.multibindings.OptionalBinder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.dao.JdbcBatch;
+import org.veary.debs.core.dao.JdbcCursor;
+import org.veary.debs.core.dao.RealAdminDao;
+import org.veary.debs.dao.Registry;
+import org.veary.debs.facade.AccountFacade;
+import org.veary.debs.model.Account;
+import org.veary.debs.tests.GuicePersistTestModule;
+import org.veary.persist.PersistenceManagerFactory;
+import org.veary.tree.TreeNode;
+
+/**
+ * <b>Purpose:</b> Checks that in {@link BalanceMode#LEAF_ONLY} mode the group account balances
+ * are not stored, but are derived whenever the accounts are read, and that they are stored
+ * once the database is migrated in {@link BalanceMode#MATERIALIZED} mode.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class AccountFacadeLeafOnlyBalanceTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money ZERO = new Money(BigDecimal.ZERO);
+
+    @Override
+    protected Injector createInjector() {
+        return Guice.createInjector(new GuicePersistTestModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                OptionalBinder.newOptionalBinder(binder(), BalanceMode.class).setBinding()
+                    .toInstance(BalanceMode.LEAF_ONLY);
+            }
+        });
+    }
+
+    @Test
+    public void groupBalancesAreNotStored() {
+        Assert.assertTrue(storedBalanceOf(ASSETS_GROUP_ID).eq(ZERO));
+        Assert.assertTrue(storedBalanceOf(EXPENSES_GROUP_ID).eq(ZERO));
+    }
+
+    @Test
+    public void readsDeriveGroupBalances() {
+        Assert.assertTrue(this.accountFacade.getById(ASSETS_GROUP_ID).get().getBalance()
+            .eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(this.accountFacade.getByName(
+            AccountFacade.BuiltInAccounts.EXPENSES_GROUP.toString()).get().getBalance()
+            .eq(TX_AMOUNT));
+        Assert.assertTrue(balanceOf(this.accountFacade.getGroupAccounts(false),
+            NETWORTH_GROUP_ID).eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(balanceOf(this.accountFacade.getAllAccounts(true),
+            INCOME_AND_EXPENSES_GROUP_ID).eq(TX_AMOUNT));
+        Assert.assertTrue(balanceOf(this.accountFacade.getAllAccounts(false),
+            BALANCE_GROUP_ID).eq(ZERO));
+        Assert.assertTrue(balanceOf(this.accountFacade.getAllowedGroupsForType(
+            Account.Types.ASSET), ASSETS_GROUP_ID).eq(TX_AMOUNT.negate()));
+    }
+
+    @Test(dependsOnMethods = { "groupBalancesAreNotStored", "readsDeriveGroupBalances",
+        "chartDerivesGroupBalances" })
+    public void migrationStoresGroupBalances() {
+        new RealAdminDao(this.injector.getInstance(Registry.class),
+            this.injector.getInstance(PersistenceManagerFactory.class),
+            this.injector.getInstance(AmountStorage.class),
+            this.injector.getInstance(JdbcBatch.class), BalanceMode.MATERIALIZED)
+            .migrateDatabase();
+
+        Assert.assertTrue(storedBalanceOf(ASSETS_GROUP_ID).eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(storedBalanceOf(NETWORTH_GROUP_ID).eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(storedBalanceOf(EXPENSES_GROUP_ID).eq(TX_AMOUNT));
+        Assert.assertTrue(storedBalanceOf(INCOME_AND_EXPENSES_GROUP_ID).eq(TX_AMOUNT));
+        Assert.assertTrue(storedBalanceOf(BALANCE_GROUP_ID).eq(ZERO));
+    }
+
+    @Test
+    public void chartDerivesGroupBalances() {
+        TreeNode<Account> chart = this.accountFacade.getChartOfAccounts();
+
+        Assert.assertTrue(balanceOf(chart, ASSETS_GROUP_ID).eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(balanceOf(chart, NETWORTH_GROUP_ID).eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(balanceOf(chart, EXPENSES_GROUP_ID).eq(TX_AMOUNT));
+        Assert.assertTrue(balanceOf(chart, INCOME_AND_EXPENSES_GROUP_ID).eq(TX_AMOUNT));
+        Assert.assertTrue(balanceOf(chart, BALANCE_GROUP_ID).eq(ZERO));
+    }
+
+    private static Money balanceOf(List<Account> accounts, Long id) {
+        for (Account account : accounts) {
+            if (account.getId().equals(id)) {
+                return account.getBalance();
+            }
+        }
+        throw new AssertionError("No account " + id);
+    }
+
+    private Money storedBalanceOf(Long id) {
+        return this.injector.getInstance(JdbcCursor.class).list(
+            "SELECT BALANCE FROM DEBS.ACCOUNT WHERE ID=?", List.of(id),
+            meta -> rs -> AmountStorage.toMoney(rs.getObject(1))).get(0);
+    }
+
+    private Money balanceOf(TreeNode<Account> chart, Long id) {
+        Optional<TreeNode<Account>> node = chart.findNode(data -> data.getId().equals(id));
+        Assert.assertTrue(node.isPresent());
+        return node.get().getData().getBalance();
+    }
+}
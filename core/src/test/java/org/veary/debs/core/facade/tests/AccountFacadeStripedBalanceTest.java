@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks that the balances of accounts striped with
+ * {@code AccountFacade#setBalanceStripes} are kept in the {@code ACCOUNT_BALANCE_STRIPE} and
+ * {@code ACCOUNT_PERIOD_BALANCE_STRIPE} rows and read back as the sum of the stripes.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class AccountFacadeStripedBalanceTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money AMOUNT = new Money(new BigDecimal("12.50"));
+    private static final int STRIPES = 4;
+    private static final int THREADS = 4;
+    private static final int POSTINGS = 10;
+
+    @Test
+    public void stripingKeepsBalance() throws SQLException {
+        this.accountFacade.setBalanceStripes(this.fromAccount, STRIPES);
+        this.accountFacade.setBalanceStripes(
+            this.accountDao.getAccountById(ASSETS_GROUP_ID), STRIPES);
+
+        Assert.assertEquals(queryLong("SELECT COUNT(*) FROM DEBS.ACCOUNT_BALANCE_STRIPE"
+            + " WHERE ACCOUNT_ID=" + this.fromAccount.getId()), STRIPES);
+        Assert.assertTrue(balanceOf(this.fromAccount.getId()).eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(balanceOf(ASSETS_GROUP_ID).eq(TX_AMOUNT.negate()));
+    }
+
+    @Test(dependsOnMethods = "stripingKeepsBalance")
+    public void concurrentPostings() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < POSTINGS; j++) {
+                        this.systemFacade.postTransaction(
+                            Transaction.newInstance(TX_DATE, TX_NARRATIVE, TX_REFERENCE, AMOUNT,
+                                false, false),
+                            Entry.newInstance(Entry.Types.FROM, this.fromAccount),
+                            Entry.newInstance(Entry.Types.TO, this.otherToAccount));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        this.systemFacade.postTransaction(
+            Transaction.newInstance(TX_DATE.minusMonths(1), TX_NARRATIVE, TX_REFERENCE, AMOUNT,
+                false, false),
+            Entry.newInstance(Entry.Types.FROM, this.fromAccount),
+            Entry.newInstance(Entry.Types.TO, this.otherToAccount));
+
+        final Money posted = AMOUNT.times(THREADS * POSTINGS + 1);
+        final Money expected = TX_AMOUNT.plus(posted).negate();
+
+        Assert.assertTrue(balanceOf(this.fromAccount.getId()).eq(expected));
+        Assert.assertTrue(balanceOf(ASSETS_GROUP_ID).eq(expected));
+        Assert.assertTrue(balanceOf(this.otherToAccount.getId()).eq(posted));
+        Assert.assertTrue(this.accountFacade.getByName(CASH_ACC_NAME).orElseThrow()
+            .getBalance().eq(expected));
+
+        // The ACCOUNT row of a striped account is not touched by postings
+        Assert.assertEquals(queryDecimal("SELECT BALANCE FROM DEBS.ACCOUNT WHERE ID="
+            + this.fromAccount.getId()).compareTo(TX_AMOUNT.negate().getValue()), 0);
+
+        // Nor are its period snapshots, which are read back with their stripes
+        Assert.assertEquals(queryDecimal(closingSql(TX_DATE))
+            .compareTo(TX_AMOUNT.negate().getValue()), 0);
+        Assert.assertEquals(queryLong("SELECT COUNT(*) FROM DEBS.ACCOUNT_PERIOD_BALANCE"
+            + " WHERE ACCOUNT_ID=" + this.fromAccount.getId()), 1);
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fromAccount, TX_DATE)
+            .eq(expected));
+        Assert.assertTrue(this.accountFacade
+            .getBalanceAsOf(this.fromAccount, TX_DATE.plusMonths(1)).eq(expected));
+        Assert.assertTrue(this.accountFacade
+            .getBalanceAsOf(this.fromAccount, TX_DATE.minusMonths(1)).eq(AMOUNT.negate()));
+    }
+
+    @Test(dependsOnMethods = "concurrentPostings")
+    public void unstripingFoldsDeltas() throws SQLException {
+        final Money expected = balanceOf(this.fromAccount.getId());
+
+        this.accountFacade.setBalanceStripes(this.fromAccount, 0);
+
+        Assert.assertEquals(queryLong("SELECT COUNT(*) FROM DEBS.ACCOUNT_BALANCE_STRIPE"
+            + " WHERE ACCOUNT_ID=" + this.fromAccount.getId()), 0);
+        Assert.assertTrue(balanceOf(this.fromAccount.getId()).eq(expected));
+        Assert.assertEquals(queryDecimal("SELECT BALANCE FROM DEBS.ACCOUNT WHERE ID="
+            + this.fromAccount.getId()).compareTo(expected.getValue()), 0);
+
+        Assert.assertEquals(queryLong("SELECT COUNT(*) FROM DEBS.ACCOUNT_PERIOD_BALANCE_STRIPE"
+            + " WHERE ACCOUNT_ID=" + this.fromAccount.getId()), 0);
+        Assert.assertEquals(queryDecimal(closingSql(TX_DATE.minusMonths(1)))
+            .compareTo(AMOUNT.negate().getValue()), 0);
+        Assert.assertEquals(queryDecimal(closingSql(TX_DATE)).compareTo(expected.getValue()), 0);
+        Assert.assertTrue(this.accountFacade
+            .getBalanceAsOf(this.fromAccount, TX_DATE.plusMonths(1)).eq(expected));
+    }
+
+    @Test(dependsOnMethods = "unstripingFoldsDeltas")
+    public void postingAfterStripesRemovedElsewhere() throws SQLException {
+        this.accountFacade.setBalanceStripes(this.otherFromAccount, STRIPES);
+        final Money before = balanceOf(this.otherFromAccount.getId());
+
+        // Removed behind the cache, which still holds the account as striped
+        final Long id = this.otherFromAccount.getId();
+        execute("UPDATE DEBS.ACCOUNT SET BALANCE=BALANCE+COALESCE((SELECT SUM(DELTA)"
+            + " FROM DEBS.ACCOUNT_BALANCE_STRIPE WHERE ACCOUNT_ID=" + id + "),0) WHERE ID=" + id);
+        execute("DELETE FROM DEBS.ACCOUNT_BALANCE_STRIPE WHERE ACCOUNT_ID=" + id);
+
+        this.systemFacade.postTransaction(
+            Transaction.newInstance(TX_DATE, TX_NARRATIVE, TX_REFERENCE, AMOUNT, false, false),
+            Entry.newInstance(Entry.Types.FROM, this.otherFromAccount),
+            Entry.newInstance(Entry.Types.TO, this.toAccount));
+
+        Assert.assertTrue(balanceOf(id).eq(before.minus(AMOUNT)));
+        Assert.assertEquals(queryDecimal("SELECT BALANCE FROM DEBS.ACCOUNT WHERE ID=" + id)
+            .compareTo(before.minus(AMOUNT).getValue()), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidStripes() {
+        this.accountFacade.setBalanceStripes(this.otherFromAccount, -1);
+    }
+
+    private String closingSql(LocalDate date) {
+        return "SELECT CLOSING FROM DEBS.ACCOUNT_PERIOD_BALANCE WHERE ACCOUNT_ID="
+            + this.fromAccount.getId() + " AND YEAR_MONTH="
+            + (date.getYear() * 100 + date.getMonthValue());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = this.injector.getInstance(DataSource.class).getConnection();
+            Statement update = conn.createStatement()) {
+            update.executeUpdate(sql);
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        return queryDecimal(sql).longValueExact();
+    }
+
+    private BigDecimal queryDecimal(String sql) throws SQLException {
+        try (Connection conn = this.injector.getInstance(DataSource.class).getConnection();
+            Statement select = conn.createStatement();
+            ResultSet rs = select.executeQuery(sql)) {
+            Assert.assertTrue(rs.next());
+            return rs.getBigDecimal(1);
+        }
+    }
+}
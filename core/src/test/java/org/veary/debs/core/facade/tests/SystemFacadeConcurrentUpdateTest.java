@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.facade.tests;
+
+import java.math.BigDecimal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.model.EntryEntity;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks that an update or delete made from a stale copy of a transaction or
+ * an account is rejected, and that it leaves the balances untouched.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeConcurrentUpdateTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money FIRST_AMOUNT = new Money(BigDecimal.valueOf(2000L));
+    private static final Money SECOND_AMOUNT = new Money(BigDecimal.valueOf(3000L));
+
+    @Test
+    public void staleUpdateIsRejected() {
+        final Transaction first = this.systemFacade.getTransactionById(this.txId).orElseThrow();
+        final Transaction second = this.systemFacade.getTransactionById(this.txId).orElseThrow();
+        Assert.assertEquals(first.getVersion(), second.getVersion());
+
+        update(first, FIRST_AMOUNT);
+        try {
+            update(second, SECOND_AMOUNT);
+            Assert.fail("The stale update should have been rejected");
+        } catch (ConcurrentUpdateException e) {
+            // expected
+        }
+
+        final Transaction fetched = this.systemFacade.getTransactionById(this.txId)
+            .orElseThrow();
+        Assert.assertEquals(fetched.getVersion(), first.getVersion() + 1);
+        Assert.assertTrue(fetched.getToEntry().getAmount().eq(FIRST_AMOUNT));
+        Assert.assertTrue(balanceOf(this.toAccount.getId()).eq(FIRST_AMOUNT));
+        Assert.assertTrue(balanceOf(this.fromAccount.getId()).eq(FIRST_AMOUNT.negate()));
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).eq(FIRST_AMOUNT));
+    }
+
+    @Test(dependsOnMethods = "staleUpdateIsRejected")
+    public void staleDeleteIsRejected() {
+        final Transaction stale = this.systemFacade.getTransactionById(this.txId).orElseThrow();
+        update(this.systemFacade.getTransactionById(this.txId).orElseThrow(), SECOND_AMOUNT);
+
+        try {
+            this.systemFacade.deleteTransaction(stale);
+            Assert.fail("The stale delete should have been rejected");
+        } catch (ConcurrentUpdateException e) {
+            // expected
+        }
+
+        Assert.assertFalse(this.systemFacade.getTransactionById(this.txId).orElseThrow()
+            .isDeleted());
+        Assert.assertTrue(balanceOf(this.toAccount.getId()).eq(SECOND_AMOUNT));
+
+        this.systemFacade.deleteTransaction(
+            this.systemFacade.getTransactionById(this.txId).orElseThrow());
+        Assert.assertTrue(balanceOf(this.toAccount.getId()).isZero());
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).isZero());
+    }
+
+    @Test
+    public void staleAccountUpdateIsRejected() {
+        final Account first = this.accountFacade.getById(this.otherToAccount.getId())
+            .orElseThrow();
+        final Account second = this.accountFacade.getById(this.otherToAccount.getId())
+            .orElseThrow();
+
+        this.accountFacade.update(first, null, "First", null, null, false);
+        try {
+            this.accountFacade.update(second, null, "Second", null, null, false);
+            Assert.fail("The stale update should have been rejected");
+        } catch (ConcurrentUpdateException e) {
+            // expected
+        }
+
+        final Account fetched = this.accountFacade.getById(this.otherToAccount.getId())
+            .orElseThrow();
+        Assert.assertEquals(fetched.getDescription(), "First");
+        Assert.assertEquals(fetched.getVersion(), first.getVersion() + 1);
+    }
+
+    private void update(Transaction original, Money amount) {
+        this.systemFacade.updateTransaction(original,
+            Transaction.newInstance(original.getDate(), original.getNarrative(),
+                original.getReference(), amount, false, false),
+            new EntryEntity(original.getFromEntry()), new EntryEntity(original.getToEntry()));
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.multibindings.OptionalBinder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.Posting;
+import org.veary.debs.core.PostingMode;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.core.model.EntryEntity;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+import org.veary.debs.tests.GuicePersistTestModule;
+import org.veary.debs.tests.JndiTestBase;
+
+/**
+ * <b>Purpose:</b> Checks that in {@link PostingMode#DEFERRED} mode the balance changes are
+ * journaled by the postings and folded into the balances by the {@link BalanceMaterializer}.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeDeferredPostingTest extends JndiTestBase {
+
+    private static final Long ASSETS_GROUP_ID = Long.valueOf(3);
+    private static final Long EXPENSES_GROUP_ID = Long.valueOf(7);
+    private static final Money ZERO = new Money(BigDecimal.ZERO);
+    private static final Money AMOUNT = new Money(new BigDecimal("40.25"));
+    private static final LocalDate DATE = LocalDate.now();
+    private static final long TIMEOUT = 10000;
+
+    private Account cash;
+    private Account fuel;
+
+    @Override
+    protected Injector createInjector() {
+        return Guice.createInjector(new GuicePersistTestModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                OptionalBinder.newOptionalBinder(binder(), PostingMode.class).setBinding()
+                    .toInstance(PostingMode.DEFERRED);
+            }
+        });
+    }
+
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        this.accountDao.createAccount(Account.newInstance("Cash Acc", "Cash Description",
+            ASSETS_GROUP_ID, Account.Types.ASSET));
+        this.accountDao.createAccount(Account.newInstance("Fuel", "Fuel Description",
+            EXPENSES_GROUP_ID, Account.Types.EXPENSE));
+        this.cash = this.accountDao.getAccountByName("Cash Acc");
+        this.fuel = this.accountDao.getAccountByName("Fuel");
+    }
+
+    @AfterClass
+    @Override
+    public void teardown() {
+        this.injector.getInstance(BalanceMaterializer.class).shutdown();
+        super.teardown();
+    }
+
+    @Test
+    public void postingsAreMaterialized() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            post(AMOUNT);
+        }
+
+        Assert.assertTrue(this.systemFacade.awaitBalances(TIMEOUT));
+
+        final Money total = AMOUNT.times(5);
+        Assert.assertTrue(balanceOf(this.cash.getId()).eq(total.negate()));
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(total));
+        Assert.assertTrue(balanceOf(ASSETS_GROUP_ID).eq(total.negate()));
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).eq(total));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fuel, DATE.minusMonths(1)
+            .withDayOfMonth(1)).eq(ZERO));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.fuel,
+            DATE.plusMonths(1)).eq(total));
+    }
+
+    @Test(dependsOnMethods = "postingsAreMaterialized")
+    public void updatesAndDeletesAreMaterialized() throws InterruptedException {
+        final Long id = post(AMOUNT);
+        final Transaction original = this.systemFacade.getTransactionById(id).orElseThrow();
+        this.systemFacade.updateTransaction(original,
+            Transaction.newInstance(DATE, "Narrative", "Reference", AMOUNT.times(2), false,
+                false),
+            new EntryEntity(original.getFromEntry()),
+            new EntryEntity(original.getToEntry()));
+
+        Assert.assertTrue(this.systemFacade.awaitBalances(TIMEOUT));
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(AMOUNT.times(7)));
+
+        this.systemFacade.deleteTransaction(
+            this.systemFacade.getTransactionById(id).orElseThrow());
+
+        Assert.assertTrue(this.systemFacade.awaitBalances(TIMEOUT));
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(AMOUNT.times(5)));
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).eq(AMOUNT.times(5)));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.cash, DATE)
+            .eq(AMOUNT.times(5).negate()));
+    }
+
+    @Test(dependsOnMethods = "updatesAndDeletesAreMaterialized")
+    public void bulkPostingsAreMaterialized() throws InterruptedException {
+        final List<Long> ids = this.systemFacade.postTransactions(List.of(
+            Posting.of(Transaction.newInstance(DATE, "Narrative", "Reference", AMOUNT, false,
+                false), Entry.newInstance(Entry.Types.FROM, this.cash),
+                Entry.newInstance(Entry.Types.TO, this.fuel)),
+            Posting.of(Transaction.newInstance(DATE, "Narrative", "Reference", AMOUNT, false,
+                false), Entry.newInstance(Entry.Types.FROM, this.fuel),
+                Entry.newInstance(Entry.Types.TO, this.cash))));
+        Assert.assertEquals(ids.size(), 2);
+
+        // The two postings cancel out
+        Assert.assertTrue(this.systemFacade.awaitBalances(TIMEOUT));
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(AMOUNT.times(5)));
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).eq(AMOUNT.times(5)));
+        Assert.assertTrue(this.transactionDao.isMaterialized(
+            this.transactionDao.getPostingSequence()));
+    }
+
+    @Test(dependsOnMethods = "bulkPostingsAreMaterialized")
+    public void detailsOnlyUpdateJournalsNothing() throws InterruptedException {
+        final Long id = post(AMOUNT);
+        Assert.assertTrue(this.systemFacade.awaitBalances(TIMEOUT));
+        final long sequence = this.transactionDao.getPostingSequence();
+
+        final Transaction original = this.systemFacade.getTransactionById(id).orElseThrow();
+        this.systemFacade.updateTransaction(original,
+            Transaction.newInstance(DATE, "Corrected", "Reference", AMOUNT, false, false),
+            new EntryEntity(original.getFromEntry()),
+            new EntryEntity(original.getToEntry()));
+
+        Assert.assertEquals(this.transactionDao.getPostingSequence(), sequence);
+        Assert.assertEquals(this.systemFacade.getTransactionById(id).orElseThrow()
+            .getNarrative(), "Corrected");
+
+        this.systemFacade.deleteTransaction(
+            this.systemFacade.getTransactionById(id).orElseThrow());
+        Assert.assertTrue(this.systemFacade.awaitBalances(TIMEOUT));
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(AMOUNT.times(5)));
+    }
+
+    @Test(dependsOnMethods = "detailsOnlyUpdateJournalsNothing")
+    public void shutdownFoldsTheJournal() {
+        post(AMOUNT);
+        final long sequence = this.transactionDao.getPostingSequence();
+
+        // Once shutdown returns the worker has stopped and nothing is left in the journal
+        this.injector.getInstance(BalanceMaterializer.class).shutdown();
+        Assert.assertTrue(this.transactionDao.isMaterialized(sequence));
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(AMOUNT.times(6)));
+        Assert.assertEquals(this.transactionDao.materializeBalances(1), 0);
+    }
+
+    @Test(dependsOnMethods = "shutdownFoldsTheJournal")
+    public void journalIsFoldedInBatches() throws InterruptedException {
+        this.injector.getInstance(BalanceMaterializer.class).shutdown();
+
+        post(AMOUNT);
+        post(AMOUNT);
+
+        // Nothing folds the journal now that the worker has stopped
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(AMOUNT.times(6)));
+        Assert.assertFalse(this.systemFacade.awaitBalances(100));
+
+        final long sequence = this.transactionDao.getPostingSequence();
+        Assert.assertFalse(this.transactionDao.isMaterialized(sequence));
+
+        // Each posting journals two rows
+        Assert.assertEquals(this.transactionDao.materializeBalances(3), 3);
+        Assert.assertEquals(this.transactionDao.materializeBalances(3), 1);
+        Assert.assertEquals(this.transactionDao.materializeBalances(3), 0);
+
+        Assert.assertTrue(this.transactionDao.isMaterialized(sequence));
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(AMOUNT.times(8)));
+        Assert.assertTrue(balanceOf(this.cash.getId()).eq(AMOUNT.times(8).negate()));
+    }
+
+    private Long post(Money amount) {
+        return this.systemFacade.postTransaction(
+            Transaction.newInstance(DATE, "Narrative", "Reference", amount, false, false),
+            Entry.newInstance(Entry.Types.FROM, this.cash),
+            Entry.newInstance(Entry.Types.TO, this.fuel));
+    }
+
+    private Money balanceOf(Long id) {
+        return this.accountFacade.getById(id).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.TransactionCriteria;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks the cursor based {@code forEachTransaction} scan.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeForEachTxTest extends AbstractSystemFacadeTestBase {
+
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+
+        Transaction transaction = Transaction.newInstance(TX_DATE.minusMonths(1), TX_NARRATIVE,
+            TX_REFERENCE, TX_AMOUNT, false, false);
+        this.systemFacade.postTransaction(transaction,
+            Entry.newInstance(Entry.Types.FROM, this.otherFromAccount),
+            Entry.newInstance(Entry.Types.TO, this.otherToAccount));
+    }
+
+    @Test
+    public void visitAll() {
+        final List<Long> ids = new ArrayList<>();
+        this.systemFacade.forEachTransaction(
+            TransactionCriteria.newInstance().withFetchSize(1), tx -> ids.add(tx.getId()));
+
+        final List<Long> expected = new ArrayList<>();
+        this.systemFacade.getAllTransactions(false).forEach(tx -> expected.add(tx.getId()));
+
+        Assert.assertEquals(ids.size(), 2);
+        Assert.assertTrue(ids.containsAll(expected));
+    }
+
+    @Test
+    public void visitWithCriteria() {
+        final List<Transaction> visited = new ArrayList<>();
+        this.systemFacade.forEachTransaction(
+            TransactionCriteria.newInstance().withAccount(this.toAccount), visited::add);
+
+        Assert.assertEquals(visited.size(), 1);
+        Transaction transaction = visited.get(0);
+        Assert.assertEquals(transaction.getId(), this.txId);
+        Assert.assertEquals(transaction.getDate(), TX_DATE);
+        Assert.assertEquals(transaction.getToEntry().getAccountId(), this.toAccount.getId());
+        Assert.assertTrue(transaction.getToEntry().getAmount().eq(TX_AMOUNT));
+
+        visited.clear();
+        this.systemFacade.forEachTransaction(TransactionCriteria.newInstance()
+            .withRange(DateRange.of(TX_DATE.minusDays(1), TX_DATE.plusDays(1)))
+            .withAccount(this.otherToAccount), visited::add);
+        Assert.assertTrue(visited.isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void fetchSizeInvalid() {
+        TransactionCriteria.newInstance().withFetchSize(0);
+    }
+}
@@ -33,6 +33,7 @@ import java.util.Optional;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import org.veary.debs.core.DateRange;
 import org.veary.debs.core.Money;
 import org.veary.debs.model.Entry;
 import org.veary.debs.model.Transaction;
@@ -113,4 +114,19 @@ public class SystemFacadeGetAllTxPeriodTest extends AbstractSystemFacadeTestBase
         Assert.assertTrue(listBoth.size() == 2);
         */
     }
+
+    @Test(dependsOnMethods = "getAllOverPeriod")
+    public void getAllOverRange() {
+        List<Transaction> list = this.systemFacade
+            .getAllTransactionsOverRange(DateRange.of(PAST_DATE, PAST_DATE.plusDays(1)), true);
+        Assert.assertEquals(list.size(), 2);
+
+        list = this.systemFacade
+            .getAllTransactionsOverRange(DateRange.of(PAST_DATE, PAST_DATE.plusDays(1)), false);
+        Assert.assertEquals(list.size(), 1);
+
+        list = this.systemFacade.getAllTransactionsOverRange(
+            DateRange.of(PAST_DATE.minusDays(1), PAST_DATE), true);
+        Assert.assertTrue(list.isEmpty());
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.dao.PostingCoordinator;
+import org.veary.debs.core.model.TransactionEntity;
+import org.veary.debs.dao.TransactionDao;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks that concurrent postings written in batches by the
+ * {@link PostingCoordinator} are all created, and that a failing posting does not fail the
+ * others in its batch, whatever it throws.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeGroupCommitTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money AMOUNT = new Money(new BigDecimal("7.35"));
+    private static final int THREADS = 8;
+    private static final int POSTINGS = 10;
+
+    @Test
+    public void concurrentPostings() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<List<Long>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    final List<Long> ids = new ArrayList<>();
+                    for (int j = 0; j < POSTINGS; j++) {
+                        ids.add(this.systemFacade.postTransaction(newTransaction(TX_NARRATIVE),
+                            Entry.newInstance(Entry.Types.FROM, this.otherFromAccount),
+                            Entry.newInstance(Entry.Types.TO, this.otherToAccount)));
+                    }
+                    return ids;
+                }));
+            }
+
+            final Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                ids.addAll(future.get());
+            }
+            Assert.assertEquals(ids.size(), THREADS * POSTINGS);
+        } finally {
+            executor.shutdown();
+        }
+
+        final Money total = AMOUNT.times(THREADS * POSTINGS);
+        Assert.assertTrue(this.accountDao.getAccountById(this.otherToAccount.getId())
+            .getBalance().eq(total));
+        Assert.assertTrue(this.accountDao.getAccountById(this.otherFromAccount.getId())
+            .getBalance().eq(total.negate()));
+        Assert.assertEquals(
+            this.systemFacade.getTransactionsForAccount(this.otherToAccount, false).size(),
+            THREADS * POSTINGS);
+    }
+
+    @Test(dependsOnMethods = "concurrentPostings")
+    public void failedPostingIsIsolated() throws InterruptedException {
+        final PostingCoordinator coordinator = this.injector
+            .getInstance(PostingCoordinator.class);
+        final Money before = this.accountDao.getAccountById(this.otherToAccount.getId())
+            .getBalance();
+
+        final List<CompletableFuture<Long>> good = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            good.add(coordinator.submit(newEntity(TX_NARRATIVE)));
+        }
+        // Too long for the NARRATIVE column
+        final CompletableFuture<Long> bad = coordinator.submit(newEntity("x".repeat(300)));
+        for (int i = 0; i < 5; i++) {
+            good.add(coordinator.submit(newEntity(TX_NARRATIVE)));
+        }
+
+        for (CompletableFuture<Long> future : good) {
+            Assert.assertNotNull(future.join());
+        }
+        try {
+            bad.get();
+            Assert.fail("The posting should have failed");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RuntimeException);
+        }
+
+        Assert.assertTrue(this.accountDao.getAccountById(this.otherToAccount.getId())
+            .getBalance().eq(before.plus(AMOUNT.times(10))));
+    }
+
+    @Test(dependsOnMethods = "failedPostingIsIsolated", timeOut = 30000)
+    public void errorDoesNotStrandCallers() throws InterruptedException {
+        // Throws an Error for the postings narrated "error", and delegates the others
+        final TransactionDao dao = (TransactionDao) Proxy.newProxyInstance(
+            TransactionDao.class.getClassLoader(), new Class<?>[] { TransactionDao.class },
+            (proxy, method, args) -> {
+                if (args != null && args[0] instanceof List) {
+                    for (Object transaction : (List<?>) args[0]) {
+                        failOnError((Transaction) transaction);
+                    }
+                } else if (args != null && args[0] instanceof Transaction) {
+                    failOnError((Transaction) args[0]);
+                }
+                try {
+                    return method.invoke(this.transactionDao, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        final PostingCoordinator coordinator = new PostingCoordinator(dao);
+
+        try {
+            final List<CompletableFuture<Long>> good = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                good.add(coordinator.submit(newEntity(TX_NARRATIVE)));
+            }
+            final CompletableFuture<Long> bad = coordinator.submit(newEntity("error"));
+            for (int i = 0; i < 5; i++) {
+                good.add(coordinator.submit(newEntity(TX_NARRATIVE)));
+            }
+
+            for (CompletableFuture<Long> future : good) {
+                Assert.assertNotNull(future.join());
+            }
+            try {
+                bad.get();
+                Assert.fail("The posting should have failed");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof AssertionError);
+            }
+
+            // The writer survived the error
+            Assert.assertNotNull(coordinator.submit(newEntity(TX_NARRATIVE)).join());
+        } finally {
+            coordinator.shutdown();
+        }
+    }
+
+    private static void failOnError(Transaction transaction) {
+        if ("error".equals(transaction.getNarrative())) {
+            throw new AssertionError("error");
+        }
+    }
+
+    private TransactionEntity newEntity(String narrative) {
+        final TransactionEntity entity = (TransactionEntity) newTransaction(narrative);
+        entity.setEntries(Entry.newInstance(Entry.Types.FROM, this.otherFromAccount),
+            Entry.newInstance(Entry.Types.TO, this.otherToAccount));
+        return entity;
+    }
+
+    private static Transaction newTransaction(String narrative) {
+        return Transaction.newInstance(TX_DATE, narrative, TX_REFERENCE, AMOUNT, false, false);
+    }
+}
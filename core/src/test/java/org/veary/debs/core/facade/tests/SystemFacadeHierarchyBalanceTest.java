@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks that the group account balances are rolled up as part of posting and
+ * deleting a transaction.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeHierarchyBalanceTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money ZERO = new Money(BigDecimal.ZERO);
+
+    @Test
+    public void postTransactionUpdatesGroups() {
+        Assert.assertTrue(this.accountDao.getAccountById(ASSETS_GROUP_ID).getBalance()
+            .eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(this.accountDao.getAccountById(NETWORTH_GROUP_ID).getBalance()
+            .eq(TX_AMOUNT.negate()));
+        Assert.assertTrue(this.accountDao.getAccountById(EXPENSES_GROUP_ID).getBalance()
+            .eq(TX_AMOUNT));
+        Assert.assertTrue(this.accountDao.getAccountById(INCOME_AND_EXPENSES_GROUP_ID)
+            .getBalance().eq(TX_AMOUNT));
+        Assert.assertTrue(this.accountDao.getAccountById(BALANCE_GROUP_ID).getBalance()
+            .eq(ZERO));
+    }
+
+    @Test(dependsOnMethods = "postTransactionUpdatesGroups")
+    public void deleteTransactionUpdatesGroups() {
+        Optional<Transaction> result = this.systemFacade.getTransactionById(this.txId);
+        Assert.assertFalse(result.isEmpty());
+
+        this.systemFacade.deleteTransaction(result.get());
+
+        Assert.assertTrue(this.accountDao.getAccountById(ASSETS_GROUP_ID).getBalance()
+            .eq(ZERO));
+        Assert.assertTrue(this.accountDao.getAccountById(NETWORTH_GROUP_ID).getBalance()
+            .eq(ZERO));
+        Assert.assertTrue(this.accountDao.getAccountById(EXPENSES_GROUP_ID).getBalance()
+            .eq(ZERO));
+        Assert.assertTrue(this.accountDao.getAccountById(INCOME_AND_EXPENSES_GROUP_ID)
+            .getBalance().eq(ZERO));
+    }
+}
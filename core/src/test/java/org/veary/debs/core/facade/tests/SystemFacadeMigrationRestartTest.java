@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.facade.tests;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.dao.JdbcBatch;
+import org.veary.debs.core.dao.RealAdminDao;
+import org.veary.debs.dao.Registry;
+import org.veary.debs.exceptions.DebsException;
+import org.veary.persist.PersistenceManagerFactory;
+
+/**
+ * <b>Purpose:</b> Checks that a migration which fails part way is resumed, rather than
+ * repeated, when it is run again.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeMigrationRestartTest extends AbstractSystemFacadeTestBase {
+
+    @Test
+    public void conversionIsNotRepeated() throws SQLException {
+        final Registry registry = this.injector.getInstance(Registry.class);
+        final Registry failing = key -> "alterEntryAmountToBigint".equals(key)
+            ? "ALTER TABLE DEBS.NO_SUCH_TABLE ALTER COLUMN AMOUNT BIGINT"
+            : registry.getSql(key);
+
+        try {
+            createAdminDao(failing).migrateDatabase();
+            Assert.fail("The migration should have failed");
+        } catch (DebsException expected) {
+            Assert.assertEquals(queryString("SELECT COUNT(*) FROM DEBS.SCHEMA_VERSION_STEP"
+                + " WHERE VERSION=5"), "3");
+        }
+
+        createAdminDao(registry).migrateDatabase();
+
+        Assert.assertEquals(queryString("SELECT AMOUNT FROM DEBS.ENTRY WHERE ACCOUNT_ID="
+            + this.toAccount.getId()), "10000000");
+        Assert.assertEquals(queryString("SELECT BALANCE FROM DEBS.ACCOUNT WHERE ID="
+            + this.toAccount.getId()), "10000000");
+        Assert.assertEquals(queryString("SELECT TYPE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+            + " WHERE TABLE_SCHEMA='DEBS' AND TABLE_NAME='ENTRY' AND COLUMN_NAME='AMOUNT'"),
+            "BIGINT");
+        Assert.assertEquals(queryString("SELECT COUNT(*) FROM DEBS.SCHEMA_VERSION_STEP"), "0");
+        Assert.assertEquals(queryString("SELECT COUNT(*) FROM DEBS.SCHEMA_VERSION"
+            + " WHERE VERSION=5"), "1");
+    }
+
+    private RealAdminDao createAdminDao(Registry registry) {
+        return new RealAdminDao(registry,
+            this.injector.getInstance(PersistenceManagerFactory.class),
+            AmountStorage.MINOR_UNITS, this.injector.getInstance(JdbcBatch.class),
+            BalanceMode.MATERIALIZED);
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Connection conn = this.injector.getInstance(DataSource.class).getConnection();
+            Statement select = conn.createStatement();
+            ResultSet rs = select.executeQuery(sql)) {
+            Assert.assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
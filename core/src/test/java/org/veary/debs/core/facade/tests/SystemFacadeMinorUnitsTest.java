@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.facade.tests;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.multibindings.OptionalBinder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.BalanceMode;
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.dao.JdbcBatch;
+import org.veary.debs.core.dao.RealAdminDao;
+import org.veary.debs.dao.Registry;
+import org.veary.debs.exceptions.DebsException;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
+import org.veary.debs.tests.GuicePersistTestModule;
+import org.veary.persist.PersistenceManagerFactory;
+
+/**
+ * <b>Purpose:</b> Checks that in {@link AmountStorage#MINOR_UNITS} mode the amounts are
+ * migrated to, and stored as, {@code BIGINT} minor units.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeMinorUnitsTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money CENTS = new Money(new BigDecimal("12.34"));
+
+    @Override
+    protected Injector createInjector() {
+        return Guice.createInjector(new GuicePersistTestModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                OptionalBinder.newOptionalBinder(binder(), AmountStorage.class).setBinding()
+                    .toInstance(AmountStorage.MINOR_UNITS);
+            }
+        });
+    }
+
+    @Test
+    public void columnsAreBigint() throws SQLException {
+        Assert.assertEquals(queryString("SELECT TYPE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+            + " WHERE TABLE_SCHEMA='DEBS' AND TABLE_NAME='ENTRY' AND COLUMN_NAME='AMOUNT'"),
+            "BIGINT");
+        Assert.assertEquals(queryString("SELECT TYPE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+            + " WHERE TABLE_SCHEMA='DEBS' AND TABLE_NAME='ACCOUNT' AND COLUMN_NAME='BALANCE'"),
+            "BIGINT");
+        Assert.assertEquals(queryString("SELECT TYPE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+            + " WHERE TABLE_SCHEMA='DEBS' AND TABLE_NAME='ACCOUNT_PERIOD_BALANCE'"
+            + " AND COLUMN_NAME='CLOSING'"), "BIGINT");
+        Assert.assertEquals(queryString("SELECT TYPE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+            + " WHERE TABLE_SCHEMA='DEBS' AND TABLE_NAME='ACCOUNT_BALANCE_STRIPE'"
+            + " AND COLUMN_NAME='DELTA'"), "BIGINT");
+        Assert.assertEquals(queryString("SELECT TYPE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+            + " WHERE TABLE_SCHEMA='DEBS' AND TABLE_NAME='BALANCE_JOURNAL'"
+            + " AND COLUMN_NAME='DEBITS'"), "BIGINT");
+        Assert.assertEquals(queryString("SELECT TYPE_NAME FROM INFORMATION_SCHEMA.COLUMNS"
+            + " WHERE TABLE_SCHEMA='DEBS' AND TABLE_NAME='ACCOUNT_PERIOD_BALANCE_STRIPE'"
+            + " AND COLUMN_NAME='CREDITS'"), "BIGINT");
+    }
+
+    @Test
+    public void amountsRoundTrip() throws SQLException {
+        Transaction transaction = this.systemFacade.getTransactionById(this.txId).orElseThrow();
+        Assert.assertTrue(transaction.getToEntry().getAmount().eq(TX_AMOUNT));
+        Assert.assertTrue(transaction.getFromEntry().getAmount().eq(TX_AMOUNT.negate()));
+        Assert.assertEquals(queryString("SELECT AMOUNT FROM DEBS.ENTRY WHERE ID="
+            + transaction.getToEntry().getId()), "10000000");
+
+        final Long id = this.systemFacade.postTransaction(
+            Transaction.newInstance(TX_DATE, TX_NARRATIVE, TX_REFERENCE, CENTS, false, false),
+            Entry.newInstance(Entry.Types.FROM, this.otherFromAccount),
+            Entry.newInstance(Entry.Types.TO, this.otherToAccount));
+
+        Assert.assertTrue(this.systemFacade.getTransactionById(id).orElseThrow().getToEntry()
+            .getAmount().eq(CENTS));
+        Assert.assertTrue(this.accountFacade.getById(this.otherToAccount.getId()).orElseThrow()
+            .getBalance().eq(CENTS));
+        Assert.assertTrue(this.accountFacade.getById(this.otherFromAccount.getId())
+            .orElseThrow().getBalance().eq(CENTS.negate()));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.otherToAccount, TX_DATE)
+            .eq(CENTS));
+
+        final List<TransactionSummary> summaries = this.systemFacade
+            .getTransactionSummariesForAccount(this.otherToAccount, false);
+        Assert.assertEquals(summaries.size(), 1);
+        Assert.assertTrue(summaries.get(0).getAmount().eq(CENTS));
+        Assert.assertTrue(this.systemFacade.getTransactionSummariesForAccountOverRange(
+            DateRange.of(TX_DATE, TX_DATE.plusDays(1)), this.otherFromAccount, false).get(0)
+            .getRunningBalance().orElseThrow().eq(CENTS.negate()));
+    }
+
+    @Test(expectedExceptions = DebsException.class)
+    public void cannotRevert() {
+        new RealAdminDao(this.injector.getInstance(Registry.class),
+            this.injector.getInstance(PersistenceManagerFactory.class), AmountStorage.DECIMAL,
+            this.injector.getInstance(JdbcBatch.class), BalanceMode.MATERIALIZED)
+            .migrateDatabase();
+    }
+
+    @Test
+    public void toMoney() {
+        Assert.assertTrue(AmountStorage.toMoney(Long.valueOf(1234)).eq(CENTS));
+        Assert.assertTrue(AmountStorage.toMoney(new BigDecimal("12.34")).eq(CENTS));
+        Assert.assertEquals(AmountStorage.MINOR_UNITS.toParameter(CENTS), Long.valueOf(1234));
+        Assert.assertEquals(AmountStorage.DECIMAL.toParameter(CENTS), new BigDecimal("12.34"));
+        Assert.assertTrue(AmountStorage.MINOR_UNITS.fromSum(new BigDecimal("1234")).eq(CENTS));
+        Assert.assertTrue(AmountStorage.DECIMAL.fromSum(new BigDecimal("12.34")).eq(CENTS));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void toMoneyUnsupported() {
+        AmountStorage.toMoney("12.34");
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Connection conn = this.injector.getInstance(DataSource.class).getConnection();
+            Statement select = conn.createStatement();
+            ResultSet rs = select.executeQuery(sql)) {
+            Assert.assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
@@ -25,6 +25,8 @@
 package org.veary.debs.core.facade.tests;
 
 import org.testng.annotations.Test;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.core.dao.PostingCoordinator;
 import org.veary.debs.core.facade.RealSystemFacade;
 import org.veary.debs.tests.JndiTestBase;
 
@@ -40,7 +42,8 @@ public class SystemFacadeNullParamTest extends JndiTestBase {
 
     @Test(expectedExceptions = NullPointerException.class)
     public void constructorParam() {
-        new RealSystemFacade(null, null);
+        new RealSystemFacade(null, this.injector.getInstance(BalanceMaterializer.class),
+            this.injector.getInstance(PostingCoordinator.class));
     }
 
     @Test(expectedExceptions = NullPointerException.class)
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.facade.tests;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.Posting;
+import org.veary.debs.exceptions.DebsException;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks {@code SystemFacade#postTransactions}: the balances of the accounts
+ * and their groups, the monthly snapshots, and that a batch is posted entirely or not at all.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadePostTransactionsTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money AMOUNT = new Money(new BigDecimal("42.10"));
+    private static final LocalDate EARLIER = TX_DATE.minusMonths(2).withDayOfMonth(5);
+
+    @Test
+    public void postTransactions() {
+        final Money cash = balanceOf(this.fromAccount.getId());
+        final Money fuel = balanceOf(this.toAccount.getId());
+        final Money expenses = balanceOf(EXPENSES_GROUP_ID);
+        final Money assets = balanceOf(ASSETS_GROUP_ID);
+        final Money root = balanceOf(BALANCE_GROUP_ID);
+
+        final List<Long> ids = this.systemFacade.postTransactions(List.of(
+            newPosting(TX_DATE, TX_NARRATIVE, this.fromAccount, this.otherToAccount),
+            newPosting(EARLIER, TX_NARRATIVE, this.otherFromAccount, this.toAccount),
+            newPosting(TX_DATE, TX_NARRATIVE, this.fromAccount, this.toAccount)));
+
+        Assert.assertEquals(ids.size(), 3);
+        Assert.assertEquals(new HashSet<>(ids).size(), 3);
+        final Transaction earlier = this.systemFacade.getTransactionById(ids.get(1))
+            .orElseThrow();
+        Assert.assertEquals(earlier.getDate(), EARLIER);
+        Assert.assertEquals(earlier.getFromEntry().getAccountId(), this.otherFromAccount.getId());
+        Assert.assertTrue(earlier.getToEntry().getAmount().eq(AMOUNT));
+
+        Assert.assertTrue(balanceOf(this.fromAccount.getId()).eq(cash.minus(AMOUNT.times(2))));
+        Assert.assertTrue(balanceOf(this.toAccount.getId()).eq(fuel.plus(AMOUNT.times(2))));
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).eq(expenses.plus(AMOUNT.times(3))));
+        Assert.assertTrue(balanceOf(ASSETS_GROUP_ID).eq(assets.minus(AMOUNT.times(3))));
+        Assert.assertTrue(balanceOf(BALANCE_GROUP_ID).eq(root));
+
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.toAccount, EARLIER)
+            .eq(AMOUNT));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.toAccount, TX_DATE)
+            .eq(fuel.plus(AMOUNT.times(2))));
+    }
+
+    @Test(dependsOnMethods = "postTransactions")
+    public void failedBatchWritesNothing() {
+        final Money food = balanceOf(this.otherToAccount.getId());
+        final int count = this.systemFacade
+            .getTransactionsForAccount(this.otherToAccount, false).size();
+
+        try {
+            // Too long for the NARRATIVE column
+            this.systemFacade.postTransactions(List.of(
+                newPosting(TX_DATE, TX_NARRATIVE, this.fromAccount, this.otherToAccount),
+                newPosting(TX_DATE, "x".repeat(300), this.fromAccount, this.otherToAccount)));
+            Assert.fail("The batch should have failed");
+        } catch (DebsException e) {
+            // expected
+        }
+
+        Assert.assertTrue(balanceOf(this.otherToAccount.getId()).eq(food));
+        Assert.assertEquals(this.systemFacade
+            .getTransactionsForAccount(this.otherToAccount, false).size(), count);
+    }
+
+    @Test(dependsOnMethods = "failedBatchWritesNothing")
+    public void laterMonthOpensBeforeEarlierPosting() {
+        final LocalDate later = TX_DATE.plusMonths(1).withDayOfMonth(1);
+        final Money fuel = balanceOf(this.toAccount.getId());
+
+        this.systemFacade.postTransactions(List.of(
+            newPosting(TX_DATE, TX_NARRATIVE, this.fromAccount, this.toAccount),
+            newPosting(later, TX_NARRATIVE, this.fromAccount, this.toAccount)));
+
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.toAccount, TX_DATE)
+            .eq(fuel.plus(AMOUNT)));
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.toAccount, later)
+            .eq(fuel.plus(AMOUNT.times(2))));
+        // Read from the closing balance of the snapshot created for the later month
+        Assert.assertTrue(this.accountFacade.getBalanceAsOf(this.toAccount, later.plusMonths(1))
+            .eq(fuel.plus(AMOUNT.times(2))));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void sharedEntry() {
+        final Entry toEntry = Entry.newInstance(Entry.Types.TO, this.toAccount);
+        this.systemFacade.postTransactions(List.of(
+            Posting.of(newTransaction(TX_DATE, TX_NARRATIVE),
+                Entry.newInstance(Entry.Types.FROM, this.fromAccount), toEntry),
+            Posting.of(newTransaction(TX_DATE, TX_NARRATIVE),
+                Entry.newInstance(Entry.Types.FROM, this.fromAccount), toEntry)));
+    }
+
+    @Test
+    public void rejectedBatchLeavesPostingsUntouched() {
+        final Posting first = newPosting(TX_DATE, TX_NARRATIVE, this.fromAccount,
+            this.toAccount);
+        final Entry toEntry = Entry.newInstance(Entry.Types.TO, this.toAccount);
+        try {
+            this.systemFacade.postTransactions(List.of(first,
+                Posting.of(newTransaction(TX_DATE, TX_NARRATIVE),
+                    Entry.newInstance(Entry.Types.FROM, this.fromAccount), toEntry),
+                Posting.of(newTransaction(TX_DATE, TX_NARRATIVE),
+                    Entry.newInstance(Entry.Types.FROM, this.fromAccount), toEntry)));
+            Assert.fail("The batch should have been rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        Assert.assertTrue(first.getFromEntry().getAmount().isZero());
+        Assert.assertTrue(first.getToEntry().getAmount().isZero());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void wrongEntryType() {
+        Posting.of(newTransaction(TX_DATE, TX_NARRATIVE),
+            Entry.newInstance(Entry.Types.TO, this.fromAccount),
+            Entry.newInstance(Entry.Types.TO, this.toAccount));
+    }
+
+    @Test
+    public void emptyBatch() {
+        Assert.assertTrue(this.systemFacade.postTransactions(List.of()).isEmpty());
+    }
+
+    private static Posting newPosting(LocalDate date, String narrative, Account from,
+        Account to) {
+        return Posting.of(newTransaction(date, narrative),
+            Entry.newInstance(Entry.Types.FROM, from), Entry.newInstance(Entry.Types.TO, to));
+    }
+
+    private static Transaction newTransaction(LocalDate date, String narrative) {
+        return Transaction.newInstance(date, narrative, TX_REFERENCE, AMOUNT, false, false);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.Money;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
+
+/**
+ * <b>Purpose:</b> Checks the running balance returned with the transaction summaries of an
+ * account.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeRunningBalanceTest extends AbstractSystemFacadeTestBase {
+
+    private static final Money REFUND = new Money(new BigDecimal("150.25"));
+    private static final Money DELETED = new Money(new BigDecimal("999.99"));
+
+    @Test
+    public void runningBalance() {
+        // Fuel: +TX_AMOUNT (setUp), -REFUND, and a deleted +DELETED
+        this.systemFacade.postTransaction(
+            Transaction.newInstance(TX_DATE, TX_NARRATIVE, TX_REFERENCE, REFUND, false, false),
+            Entry.newInstance(Entry.Types.FROM, this.toAccount),
+            Entry.newInstance(Entry.Types.TO, this.otherFromAccount));
+        final Long deletedId = this.systemFacade.postTransaction(
+            Transaction.newInstance(TX_DATE, TX_NARRATIVE, TX_REFERENCE, DELETED, false, false),
+            Entry.newInstance(Entry.Types.FROM, this.fromAccount),
+            Entry.newInstance(Entry.Types.TO, this.toAccount));
+        this.systemFacade.deleteTransaction(
+            this.systemFacade.getTransactionById(deletedId).orElseThrow());
+
+        final DateRange range = DateRange.of(TX_DATE, TX_DATE.plusDays(1));
+        final Money afterRefund = TX_AMOUNT.minus(REFUND);
+
+        // Most recent first
+        List<TransactionSummary> list = this.systemFacade
+            .getTransactionSummariesForAccountOverRange(range, this.toAccount, false);
+        Assert.assertEquals(list.size(), 2);
+        Assert.assertTrue(list.get(0).getRunningBalance().orElseThrow().eq(afterRefund));
+        Assert.assertTrue(list.get(1).getRunningBalance().orElseThrow().eq(TX_AMOUNT));
+
+        list = this.systemFacade.getTransactionSummariesForAccountOverRange(range,
+            this.toAccount, true);
+        Assert.assertEquals(list.size(), 3);
+        Assert.assertEquals(list.get(0).getId(), deletedId);
+        Assert.assertTrue(list.get(0).getRunningBalance().orElseThrow().eq(afterRefund));
+        Assert.assertTrue(list.get(1).getRunningBalance().orElseThrow().eq(afterRefund));
+        Assert.assertTrue(list.get(2).getRunningBalance().orElseThrow().eq(TX_AMOUNT));
+
+        Assert.assertTrue(this.accountFacade.getById(this.toAccount.getId()).orElseThrow()
+            .getBalance().eq(afterRefund));
+    }
+
+    @Test
+    public void notOnOtherSummaries() {
+        Assert.assertTrue(this.systemFacade.getTransactionSummariesForAccount(this.toAccount,
+            false).get(0).getRunningBalance().isEmpty());
+    }
+}
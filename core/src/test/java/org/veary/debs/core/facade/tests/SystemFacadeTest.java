@@ -26,6 +26,8 @@ package org.veary.debs.core.facade.tests;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.core.dao.PostingCoordinator;
 import org.veary.debs.core.facade.RealSystemFacade;
 import org.veary.debs.tests.JndiTestBase;
 
@@ -41,7 +43,9 @@ public class SystemFacadeTest extends JndiTestBase {
 
     @Test
     public void instantiation() {
-        Assert.assertNotNull(new RealSystemFacade(this.transactionDao, this.accountFacade));
+        Assert.assertNotNull(new RealSystemFacade(this.transactionDao,
+            this.injector.getInstance(BalanceMaterializer.class),
+            this.injector.getInstance(PostingCoordinator.class)));
     }
 
     @Test
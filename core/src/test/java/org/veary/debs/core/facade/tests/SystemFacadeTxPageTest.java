@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.veary.debs.core.PageKey;
+import org.veary.debs.core.PageRequest;
+import org.veary.debs.core.TransactionPage;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
+
+/**
+ * <b>Purpose:</b> Checks the keyset paginated {@link TransactionSummary} queries.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeTxPageTest extends AbstractSystemFacadeTestBase {
+
+    private static final int PAGE_SIZE = 2;
+    private static final int TX_COUNT = 7;
+    private static final String SELF_ACC_NAME = "Self";
+
+    private Account selfAccount;
+
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+
+        // Two transactions share each earlier date, so the ID has to break the ties.
+        post(this.otherFromAccount, this.otherToAccount, 1);
+        post(this.fromAccount, this.otherToAccount, 1);
+        post(this.otherFromAccount, this.toAccount, 2);
+        post(this.fromAccount, this.toAccount, 2);
+
+        // A transfer between an account and itself is listed once for the account
+        this.accountDao.createAccount(Account.newInstance(SELF_ACC_NAME, SELF_ACC_NAME,
+            ASSETS_GROUP_ID, Account.Types.ASSET));
+        this.selfAccount = this.accountDao.getAccountByName(SELF_ACC_NAME);
+        post(this.selfAccount, this.selfAccount, 3);
+        post(this.fromAccount, this.selfAccount, 4);
+    }
+
+    @Test
+    public void pageThroughAll() {
+        final List<TransactionSummary> expected = this.systemFacade.getTransactionSummaries(false);
+        Assert.assertEquals(expected.size(), TX_COUNT);
+
+        TransactionPage page = this.systemFacade
+            .getTransactionSummaryPage(PageRequest.first(PAGE_SIZE), false);
+        Assert.assertFalse(page.hasNewer());
+        Assert.assertNull(page.getNewerKey());
+        Assert.assertEquals(page.getTotalCount(), TX_COUNT);
+
+        final List<TransactionPage> pages = new ArrayList<>();
+        final List<Long> ids = new ArrayList<>();
+        pages.add(page);
+        ids.addAll(ids(page));
+
+        while (page.hasOlder()) {
+            page = this.systemFacade.getTransactionSummaryPage(
+                PageRequest.older(page.getOlderKey(), PAGE_SIZE), false);
+            Assert.assertTrue(page.hasNewer());
+            pages.add(page);
+            ids.addAll(ids(page));
+        }
+
+        Assert.assertEquals(pages.size(), 4);
+        Assert.assertEquals(page.getContent().size(), 1);
+        Assert.assertNull(page.getOlderKey());
+
+        final List<Long> expectedIds = new ArrayList<>();
+        expected.forEach(summary -> expectedIds.add(summary.getId()));
+        Assert.assertEquals(ids, expectedIds);
+
+        // ...and back again
+        for (int i = pages.size() - 1; i > 0; i--) {
+            TransactionPage newer = this.systemFacade.getTransactionSummaryPage(
+                PageRequest.newer(pages.get(i).getNewerKey(), PAGE_SIZE), false);
+            Assert.assertEquals(ids(newer), ids(pages.get(i - 1)));
+            Assert.assertEquals(newer.hasNewer(), i > 1);
+            Assert.assertTrue(newer.hasOlder());
+        }
+    }
+
+    @Test
+    public void pageForAccount() {
+        TransactionPage page = this.systemFacade.getTransactionSummaryPageForAccount(
+            PageRequest.first(PAGE_SIZE), this.otherToAccount, false);
+        Assert.assertEquals(page.getTotalCount(), 2);
+        Assert.assertEquals(page.getContent().size(), 2);
+        Assert.assertFalse(page.hasOlder());
+
+        page = this.systemFacade.getTransactionSummaryPageForAccount(
+            PageRequest.first(PAGE_SIZE), this.toAccount, false);
+        Assert.assertEquals(page.getTotalCount(), 3);
+        Assert.assertTrue(page.hasOlder());
+
+        page = this.systemFacade.getTransactionSummaryPageForAccount(
+            PageRequest.older(page.getOlderKey(), PAGE_SIZE), this.toAccount, false);
+        Assert.assertEquals(page.getContent().size(), 1);
+        Assert.assertEquals(page.getContent().get(0).getToAccountId(), this.toAccount.getId());
+        Assert.assertFalse(page.hasOlder());
+        Assert.assertFalse(page.isCounted());
+        Assert.assertEquals(page.getTotalCount(), TransactionPage.UNCOUNTED);
+    }
+
+    @Test
+    public void pageForAccountListsTransferToItselfOnce() {
+        final Account self = this.selfAccount;
+        TransactionPage page = this.systemFacade.getTransactionSummaryPageForAccount(
+            PageRequest.first(1), self, false);
+        Assert.assertEquals(page.getTotalCount(), 2);
+        Assert.assertEquals(page.getContent().get(0).getFromAccountId(), self.getId());
+        Assert.assertTrue(page.hasOlder());
+
+        page = this.systemFacade.getTransactionSummaryPageForAccount(
+            PageRequest.older(page.getOlderKey(), 1), self, false);
+        Assert.assertEquals(page.getContent().get(0).getFromAccountId(),
+            this.fromAccount.getId());
+        Assert.assertFalse(page.hasOlder());
+    }
+
+    @Test
+    public void pageKeyRoundTrip() {
+        PageKey key = PageKey.of(TX_DATE, this.txId);
+        Assert.assertEquals(PageKey.parse(key.toString()), key);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void pageKeyInvalid() {
+        PageKey.parse("not-a-key");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void pageSizeInvalid() {
+        PageRequest.first(0);
+    }
+
+    private void post(Account from, Account to, int daysAgo) {
+        Transaction transaction = Transaction.newInstance(TX_DATE.minusDays(daysAgo),
+            TX_NARRATIVE, TX_REFERENCE, TX_AMOUNT, false, false);
+        this.systemFacade.postTransaction(transaction, Entry.newInstance(Entry.Types.FROM, from),
+            Entry.newInstance(Entry.Types.TO, to));
+    }
+
+    private static List<Long> ids(TransactionPage page) {
+        final List<Long> list = new ArrayList<>();
+        page.getContent().forEach(summary -> list.add(summary.getId()));
+        return list;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.facade.tests;
+
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.DateRange;
+import org.veary.debs.model.TransactionSummary;
+
+/**
+ * <b>Purpose:</b> Checks the {@link TransactionSummary} list queries.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeTxSummaryTest extends AbstractSystemFacadeTestBase {
+
+    @Test
+    public void getSummaries() {
+        List<TransactionSummary> list = this.systemFacade.getTransactionSummaries(false);
+        Assert.assertEquals(list.size(), 1);
+
+        TransactionSummary summary = list.get(0);
+        Assert.assertEquals(summary.getId(), this.txId);
+        Assert.assertEquals(summary.getDate(), TX_DATE);
+        Assert.assertEquals(summary.getReference(), TX_REFERENCE);
+        Assert.assertEquals(summary.getNarrative(), TX_NARRATIVE);
+        Assert.assertTrue(summary.getAmount().eq(TX_AMOUNT));
+        Assert.assertEquals(summary.getFromAccountId(), this.fromAccount.getId());
+        Assert.assertEquals(summary.getFromAccountName(), CASH_ACC_NAME);
+        Assert.assertEquals(summary.getToAccountId(), this.toAccount.getId());
+        Assert.assertEquals(summary.getToAccountName(), FUEL_ACC_NAME);
+        Assert.assertFalse(summary.isDeleted());
+    }
+
+    @Test
+    public void getSummariesForAccount() {
+        Assert.assertEquals(
+            this.systemFacade.getTransactionSummariesForAccount(this.toAccount, false).size(), 1);
+        Assert.assertTrue(this.systemFacade
+            .getTransactionSummariesForAccount(this.otherToAccount, false).isEmpty());
+    }
+
+    @Test
+    public void getSummariesOverRange() {
+        DateRange today = DateRange.of(TX_DATE, TX_DATE.plusDays(1));
+        DateRange yesterday = DateRange.of(TX_DATE.minusDays(1), TX_DATE);
+
+        Assert.assertEquals(
+            this.systemFacade.getTransactionSummariesOverRange(today, false).size(), 1);
+        Assert.assertTrue(
+            this.systemFacade.getTransactionSummariesOverRange(yesterday, false).isEmpty());
+        Assert.assertEquals(this.systemFacade
+            .getTransactionSummariesForAccountOverRange(today, this.fromAccount, false).size(), 1);
+        Assert.assertTrue(this.systemFacade
+            .getTransactionSummariesForAccountOverRange(yesterday, this.fromAccount, false)
+            .isEmpty());
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.facade.tests;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.jndi.JndiIntegration;
+import com.google.inject.name.Names;
+import com.google.inject.util.Modules;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.veary.debs.core.GuiceUnitOfWorkModule;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.Transactional;
+import org.veary.debs.core.dao.UnitOfWorkDataSource;
+import org.veary.debs.facade.SystemFacade;
+import org.veary.debs.model.Account;
+import org.veary.debs.model.Entry;
+import org.veary.debs.model.Transaction;
+import org.veary.debs.tests.GuicePersistTestModule;
+import org.veary.debs.tests.JndiTestBase;
+
+/**
+ * <b>Purpose:</b> Checks that the postings made within a unit of work are committed together
+ * when it ends, or not at all, and that {@link Transactional} methods start or join one.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class SystemFacadeUnitOfWorkTest extends JndiTestBase {
+
+    /**
+     * Posts within a unit of work started by {@link Transactional}.
+     */
+    public static class Poster {
+
+        private final SystemFacade facade;
+
+        @Inject
+        public Poster(SystemFacade facade) {
+            this.facade = facade;
+        }
+
+        @Transactional
+        public void post(Account from, Account to, boolean fail) {
+            postOne(this.facade, from, to);
+            if (fail) {
+                throw new IllegalStateException("fail");
+            }
+        }
+
+        @Transactional
+        public void postTwice(Account from, Account to, boolean fail) {
+            postOne(this.facade, from, to);
+            post(from, to, fail);
+        }
+    }
+
+    private static final Long ASSETS_GROUP_ID = Long.valueOf(3);
+    private static final Long EXPENSES_GROUP_ID = Long.valueOf(7);
+    private static final Money AMOUNT = new Money(new BigDecimal("12.50"));
+
+    private Account cash;
+    private Account fuel;
+    private UnitOfWorkDataSource unitOfWork;
+    private DataSource target;
+
+    @Override
+    protected Injector createInjector() {
+        return Guice.createInjector(Modules.override(new GuicePersistTestModule())
+            .with(new AbstractModule() {
+                @Override
+                protected void configure() {
+                    bind(DataSource.class)
+                        .annotatedWith(Names.named(UnitOfWorkDataSource.TARGET))
+                        .toProvider(JndiIntegration.fromJndi(DataSource.class,
+                            "java:/comp/env/jdbc/debs")); //$NON-NLS-1$
+                    install(new GuiceUnitOfWorkModule());
+                }
+            }));
+    }
+
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        this.accountDao.createAccount(Account.newInstance("Cash Acc", "Cash Description",
+            ASSETS_GROUP_ID, Account.Types.ASSET));
+        this.accountDao.createAccount(Account.newInstance("Fuel", "Fuel Description",
+            EXPENSES_GROUP_ID, Account.Types.EXPENSE));
+        this.cash = this.accountDao.getAccountByName("Cash Acc");
+        this.fuel = this.accountDao.getAccountByName("Fuel");
+        this.unitOfWork = this.injector.getInstance(UnitOfWorkDataSource.class);
+        this.target = this.injector.getInstance(
+            Key.get(DataSource.class, Names.named(UnitOfWorkDataSource.TARGET)));
+    }
+
+    @Test
+    public void commitPublishesPostings() throws SQLException {
+        final Money fuel = balanceOf(this.fuel.getId());
+        final long count = countTransactions();
+
+        Assert.assertTrue(this.unitOfWork.begin());
+        Assert.assertFalse(this.unitOfWork.begin());
+        postOne(this.systemFacade, this.cash, this.fuel);
+        postOne(this.systemFacade, this.cash, this.fuel);
+
+        // The unit of work sees its own postings, other connections do not
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(fuel.plus(AMOUNT.times(2))));
+        Assert.assertEquals(countTransactions(), count);
+
+        this.unitOfWork.commit();
+        Assert.assertFalse(UnitOfWorkDataSource.isActive());
+        Assert.assertEquals(countTransactions(), count + 2);
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(fuel.plus(AMOUNT.times(2))));
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).eq(fuel.plus(AMOUNT.times(2))));
+    }
+
+    @Test(dependsOnMethods = "commitPublishesPostings")
+    public void rollbackDiscardsPostings() throws SQLException {
+        final Money fuel = balanceOf(this.fuel.getId());
+        final long count = countTransactions();
+
+        Assert.assertTrue(this.unitOfWork.begin());
+        postOne(this.systemFacade, this.cash, this.fuel);
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(fuel.plus(AMOUNT)));
+        this.unitOfWork.rollback();
+
+        Assert.assertEquals(countTransactions(), count);
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(fuel));
+        Assert.assertTrue(balanceOf(EXPENSES_GROUP_ID).eq(fuel));
+    }
+
+    @Test(dependsOnMethods = "rollbackDiscardsPostings")
+    public void transactionalMethods() throws SQLException {
+        final Poster poster = this.injector.getInstance(Poster.class);
+        final Money fuel = balanceOf(this.fuel.getId());
+        final long count = countTransactions();
+
+        poster.postTwice(this.cash, this.fuel, false);
+        Assert.assertFalse(UnitOfWorkDataSource.isActive());
+        Assert.assertEquals(countTransactions(), count + 2);
+
+        // The nested call fails, so the outer call's posting is rolled back too
+        try {
+            poster.postTwice(this.cash, this.fuel, true);
+            Assert.fail("The posting should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertFalse(UnitOfWorkDataSource.isActive());
+        Assert.assertEquals(countTransactions(), count + 2);
+        Assert.assertTrue(balanceOf(this.fuel.getId()).eq(fuel.plus(AMOUNT.times(2))));
+    }
+
+    @Test(dependsOnMethods = "transactionalMethods")
+    public void rollbackToStartOnlyBeforeWriting() throws SQLException {
+        final long count = countTransactions();
+        Assert.assertFalse(UnitOfWorkDataSource.rollbackToStart());
+
+        Assert.assertTrue(this.unitOfWork.begin());
+        balanceOf(this.fuel.getId());
+        Assert.assertFalse(UnitOfWorkDataSource.isRollbackOnly());
+        this.unitOfWork.setRollbackOnly();
+        Assert.assertTrue(UnitOfWorkDataSource.isRollbackOnly());
+        Assert.assertTrue(UnitOfWorkDataSource.rollbackToStart());
+        Assert.assertFalse(UnitOfWorkDataSource.isRollbackOnly());
+        postOne(this.systemFacade, this.cash, this.fuel);
+        Assert.assertFalse(UnitOfWorkDataSource.rollbackToStart());
+        this.unitOfWork.commit();
+
+        // The mark was cleared, so the posting made afterwards is committed
+        Assert.assertEquals(countTransactions(), count + 1);
+    }
+
+    @Test(dependsOnMethods = "rollbackToStartOnlyBeforeWriting")
+    public void uncommittedChartIsNotShared() throws Exception {
+        Assert.assertTrue(this.unitOfWork.begin());
+        final Long id = this.accountFacade.create(Account.newInstance("Uncommitted",
+            "Uncommitted Description", EXPENSES_GROUP_ID, Account.Types.EXPENSE));
+        Assert.assertTrue(inChart(id));
+
+        // Another thread must neither see the unit's chart nor cache one built from its rows
+        Assert.assertFalse(CompletableFuture.supplyAsync(() -> Boolean.valueOf(inChart(id)))
+            .get(10, TimeUnit.SECONDS).booleanValue());
+        this.unitOfWork.rollback();
+
+        Assert.assertFalse(inChart(id));
+    }
+
+    private boolean inChart(Long id) {
+        return this.accountFacade.getChartOfAccounts()
+            .findNode(data -> data.getId().equals(id)).isPresent();
+    }
+
+    private Money balanceOf(Long id) {
+        return this.accountDao.getAccountById(id).getBalance();
+    }
+
+    private long countTransactions() throws SQLException {
+        try (Connection conn = this.target.getConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM DEBS.TRANSACTION")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void postOne(SystemFacade facade, Account from, Account to) {
+        facade.postTransaction(
+            Transaction.newInstance(LocalDate.now(), "Narrative", "Reference", AMOUNT, false,
+                false),
+            Entry.newInstance(Entry.Types.FROM, from), Entry.newInstance(Entry.Types.TO, to));
+    }
+}
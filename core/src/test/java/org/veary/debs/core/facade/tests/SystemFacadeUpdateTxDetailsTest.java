@@ -24,7 +24,13 @@
 
 package org.veary.debs.core.facade.tests;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -80,4 +86,66 @@ public class SystemFacadeUpdateTxDetailsTest extends AbstractSystemFacadeTestBas
             .getAccountById(original.getToEntry().getAccountId());
         Assert.assertTrue(toAccount.getBalance().eq(TX_AMOUNT));
     }
+
+    /**
+     * Changing only the time an entry was cleared is written, and leaves the balances alone.
+     */
+    @Test(dependsOnMethods = "updateTransactionObjectDetailsOnly")
+    public void clearedTimestampOnly() {
+        Transaction original = this.systemFacade.getTransactionById(this.txId).orElseThrow();
+        this.systemFacade.updateTransaction(original, newCleared(original),
+            new EntryEntity(original.getFromEntry()), new EntryEntity(original.getToEntry()));
+
+        original = this.systemFacade.getTransactionById(this.txId).orElseThrow();
+        Assert.assertTrue(original.getToEntry().isCleared());
+        final LocalDateTime cleared = LocalDateTime.of(2019, 8, 21, 10, 30);
+
+        final EntryEntity toEntry = new EntryEntity(original.getToEntry());
+        toEntry.setClearedTimestamp(cleared);
+        this.systemFacade.updateTransaction(original, newCleared(original),
+            new EntryEntity(original.getFromEntry()), toEntry);
+
+        final Transaction fetched = this.systemFacade.getTransactionById(this.txId)
+            .orElseThrow();
+        Assert.assertEquals(fetched.getToEntry().getClearedTimestamp(), cleared);
+        Assert.assertTrue(fetched.getToEntry().isCleared());
+        Assert.assertTrue(this.accountDao.getAccountById(original.getToEntry().getAccountId())
+            .getBalance().eq(TX_AMOUNT));
+    }
+
+    /**
+     * Changing only the narrative of a cleared transaction writes no {@code ENTRY} or
+     * {@code ACCOUNT} rows: they are locked by another connection, and the update would
+     * otherwise wait for it and fail.
+     */
+    @Test(dependsOnMethods = "clearedTimestampOnly")
+    public void narrativeOnlyWritesNoEntriesOrBalances() throws SQLException {
+        final Transaction original = this.systemFacade.getTransactionById(this.txId)
+            .orElseThrow();
+
+        try (Connection conn = this.injector.getInstance(DataSource.class).getConnection();
+            Statement lock = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            lock.executeUpdate("UPDATE DEBS.ENTRY SET DELETED=DELETED WHERE ID IN ("
+                + original.getFromEntry().getId() + "," + original.getToEntry().getId() + ")");
+            lock.executeUpdate("UPDATE DEBS.ACCOUNT SET BALANCE=BALANCE");
+            try {
+                this.systemFacade.updateTransaction(original,
+                    Transaction.newInstance(original.getDate(), "Narrative only",
+                        original.getReference(), TX_AMOUNT, true, false),
+                    new EntryEntity(original.getFromEntry()),
+                    new EntryEntity(original.getToEntry()));
+            } finally {
+                conn.rollback();
+            }
+        }
+
+        Assert.assertEquals(this.systemFacade.getTransactionById(this.txId).orElseThrow()
+            .getNarrative(), "Narrative only");
+    }
+
+    private static Transaction newCleared(Transaction original) {
+        return Transaction.newInstance(original.getDate(), original.getNarrative(),
+            original.getReference(), TX_AMOUNT, true, false);
+    }
 }
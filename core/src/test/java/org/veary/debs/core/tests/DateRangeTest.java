@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.tests;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.DateRange;
+
+public class DateRangeTest {
+
+    @Test
+    public void yearMonth() {
+        DateRange range = DateRange.of(YearMonth.of(2020, 2));
+        Assert.assertEquals(range.getStart(), LocalDate.of(2020, 2, 1));
+        Assert.assertEquals(range.getEnd(), LocalDate.of(2020, 3, 1));
+        Assert.assertTrue(range.contains(LocalDate.of(2020, 2, 1)));
+        Assert.assertTrue(range.contains(LocalDate.of(2020, 2, 29)));
+        Assert.assertFalse(range.contains(LocalDate.of(2020, 3, 1)));
+        Assert.assertFalse(range.contains(LocalDate.of(2020, 1, 31)));
+        Assert.assertEquals(range,
+            DateRange.of(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 3, 1)));
+    }
+
+    @Test
+    public void emptyRange() {
+        LocalDate date = LocalDate.of(2020, 2, 1);
+        Assert.assertFalse(DateRange.of(date, date).contains(date));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void endBeforeStart() {
+        DateRange.of(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 1, 31));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void nullPeriod() {
+        DateRange.of(null);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.core.tests;
+
+import java.math.BigDecimal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.MoneyAccumulator;
+
+public class MoneyAccumulatorTest {
+
+    @Test
+    public void accumulate() {
+        final MoneyAccumulator total = new MoneyAccumulator();
+        Assert.assertTrue(total.toMoney().isZero());
+
+        total.add(new Money(new BigDecimal("10.25"))).add(Money.ofMinorUnits(75));
+        Assert.assertTrue(total.toMoney().eq(new Money(BigDecimal.valueOf(11))));
+
+        total.subtract(new Money(BigDecimal.valueOf(20)));
+        Assert.assertTrue(total.isMinus());
+        Assert.assertEquals(total.toString(), "-9.00");
+
+        total.reset().addAbsolute(Money.ofMinorUnits(-150)).addAbsolute(Money.ofMinorUnits(50));
+        Assert.assertTrue(total.toMoney().eq(Money.ofMinorUnits(200)));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void addNull() {
+        new MoneyAccumulator().add(null);
+    }
+}
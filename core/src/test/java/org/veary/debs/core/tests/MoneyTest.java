@@ -55,4 +55,35 @@ public class MoneyTest {
         Assert.assertTrue(money.isMinus());
         Assert.assertTrue(money.eq(new Money(BigDecimal.valueOf(-100000L))));
     }
+
+    @Test
+    public void rounding() {
+        Assert.assertEquals(new Money(new BigDecimal("1.005")).getMinorUnits(), 100L);
+        Assert.assertEquals(new Money(new BigDecimal("1.015")).getMinorUnits(), 102L);
+        Assert.assertEquals(new Money(new BigDecimal("-1.005")).getMinorUnits(), -100L);
+        Assert.assertTrue(new Money(new BigDecimal("10.00")).times(0.125)
+            .eq(Money.ofMinorUnits(125)));
+    }
+
+    @Test
+    public void minorUnits() {
+        Money money = Money.ofMinorUnits(12345);
+        Assert.assertEquals(money.getValue(), new BigDecimal("123.45"));
+        Assert.assertTrue(money.eq(new Money(new BigDecimal("123.45"))));
+        Assert.assertTrue(money.negate().eq(Money.ofMinorUnits(-12345)));
+    }
+
+    @Test
+    public void toStringFormat() {
+        Assert.assertEquals(Money.ofMinorUnits(0).toString(), "0.00");
+        Assert.assertEquals(Money.ofMinorUnits(5).toString(), "0.05");
+        Assert.assertEquals(Money.ofMinorUnits(-5).toString(), "-0.05");
+        Assert.assertEquals(Money.ofMinorUnits(-123456).toString(), "-1234.56");
+        Assert.assertEquals(new Money(VALUE).toString(), "100000.00");
+    }
+
+    @Test(expectedExceptions = ArithmeticException.class)
+    public void overflow() {
+        Money.ofMinorUnits(Long.MAX_VALUE).plus(Money.ofMinorUnits(1));
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.veary.debs.core.tests;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.RetryPolicy;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
+import org.veary.debs.exceptions.DebsException;
+
+public class RetryPolicyTest {
+
+    private static final DebsException LOCK_TIMEOUT = new DebsException(
+        new SQLException("Timeout trying to lock table", "HYT00", 50200));
+    private static final DebsException DEADLOCK = new DebsException(
+        new SQLException("Deadlock detected", "40001", 40001));
+
+    @Test
+    public void retriesLockContention() {
+        final RetryPolicy policy = new RetryPolicy(3, 1, 2);
+        final AtomicInteger calls = new AtomicInteger();
+
+        final String result = policy.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw LOCK_TIMEOUT;
+            }
+            if (calls.get() == 2) {
+                throw DEADLOCK;
+            }
+            return "done";
+        });
+
+        Assert.assertEquals(result, "done");
+        Assert.assertEquals(calls.get(), 3);
+        Assert.assertEquals(policy.getRetryCount(), 2L);
+        Assert.assertEquals(policy.getExhaustedCount(), 0L);
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() {
+        final RetryPolicy policy = new RetryPolicy(3, 0, 0);
+        final AtomicInteger calls = new AtomicInteger();
+
+        try {
+            policy.execute(() -> {
+                calls.incrementAndGet();
+                throw LOCK_TIMEOUT;
+            });
+            Assert.fail("The last failure should have been rethrown");
+        } catch (DebsException e) {
+            Assert.assertSame(e, LOCK_TIMEOUT);
+        }
+
+        Assert.assertEquals(calls.get(), 3);
+        Assert.assertEquals(policy.getRetryCount(), 2L);
+        Assert.assertEquals(policy.getExhaustedCount(), 1L);
+    }
+
+    @Test
+    public void otherFailuresAreNotRetried() {
+        final RetryPolicy policy = new RetryPolicy();
+        final AtomicInteger calls = new AtomicInteger();
+
+        try {
+            policy.execute(() -> {
+                calls.incrementAndGet();
+                throw new ConcurrentUpdateException("stale");
+            });
+            Assert.fail("The failure should have been rethrown");
+        } catch (ConcurrentUpdateException e) {
+            // expected
+        }
+
+        Assert.assertEquals(calls.get(), 1);
+        Assert.assertEquals(policy.getRetryCount(), 0L);
+        Assert.assertFalse(RetryPolicy.isRetryable(
+            new DebsException(new SQLException("Syntax error", "42000", 42000))));
+        Assert.assertFalse(RetryPolicy.isRetryable(
+            new DebsException(new SQLException("Unique index violation", "23505", 23505))));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void noAttempts() {
+        new RetryPolicy(0, 1, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void backoffAboveMaximum() {
+        new RetryPolicy(2, 10, 5);
+    }
+}
@@ -47,7 +47,7 @@ public class ValidatorTest {
 
     @Test(
         expectedExceptions = IllegalStateException.class,
-        expectedExceptionsMessageRegExp = "Parameter 'dataMap' must contain exactly 8 entries")
+        expectedExceptionsMessageRegExp = "Parameter 'dataMap' must contain exactly 9 entries")
     public void entryCountException() {
         Map<String, Object> dataMap = new HashMap<>();
         dataMap.put(Account.Fields.ID.toString(), Long.valueOf(1));
@@ -72,6 +72,7 @@ public class ValidatorTest {
         dataMap.put(Account.Fields.NAME.toString(), "Test"); //$NON-NLS-1$
         dataMap.put(Account.Fields.DESCRIPTION.toString(), "Desc"); //$NON-NLS-1$
         dataMap.put(Account.Fields.PARENT_ID.toString(), Long.valueOf(1));
+        dataMap.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         dataMap.put("Bad Key", Account.Types.ASSET); //$NON-NLS-1$
         Account.newInstance(dataMap);
     }
@@ -89,6 +90,7 @@ public class ValidatorTest {
         dataMap.put(Account.Fields.DESCRIPTION.toString(), null);
         dataMap.put(Account.Fields.PARENT_ID.toString(), Long.valueOf(1));
         dataMap.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET);
+        dataMap.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         Account.newInstance(dataMap);
     }
 
@@ -102,6 +102,7 @@ public class AccountTest {
         dataMap.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
 
         Account object = Account.newInstance(dataMap);
         Assert.assertNotNull(object);
@@ -119,6 +120,7 @@ public class AccountTest {
         dataMap.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
 
         Account object = Account.newInstance(dataMap);
 
@@ -237,6 +239,7 @@ public class AccountTest {
         dataMap.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
 
         Account object1 = Account.newInstance(dataMap);
         Account object2 = Account.newInstance(dataMap);
@@ -259,6 +262,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         Account object1 = Account.newInstance(dataMap1);
 
         dataMap1 = new HashMap<>();
@@ -270,6 +274,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         Account object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
 
@@ -282,6 +287,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
 
@@ -294,6 +300,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
 
@@ -306,6 +313,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
 
@@ -318,6 +326,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
 
@@ -330,6 +339,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), UPDATED_DESCRIPTION);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
 
@@ -342,6 +352,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), UPDATED_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
 
@@ -354,6 +365,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.LIABILITY.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         object2 = Account.newInstance(dataMap1);
         Assert.assertFalse(object1.equals(object2));
     }
@@ -369,6 +381,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.DESCRIPTION.toString(), REAL_DESC);
         dataMap1.put(Account.Fields.PARENT_ID.toString(), REAL_PARENT_ID);
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(), Account.Types.ASSET.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         Account object1 = Account.newInstance(dataMap1);
         Assert.assertNotNull(object1);
         Assert.assertEquals(object1.getDisplayBalance(), "100,000.00");
@@ -376,6 +389,7 @@ public class AccountTest {
         dataMap1.put(Account.Fields.BALANCE.toString(), BigDecimal.valueOf(-123456));
         dataMap1.put(Account.Fields.ACCOUNT_TYPE.toString(),
             Account.Types.RETAINED_EARNINGS.getId());
+        dataMap1.put(Account.Fields.VERSION.toString(), Integer.valueOf(0));
         Account object2 = Account.newInstance(dataMap1);
         Assert.assertNotNull(object2);
         Assert.assertEquals(object2.getDisplayBalance(), "123,456.00");
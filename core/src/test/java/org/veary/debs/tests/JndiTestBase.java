@@ -35,7 +35,7 @@ public abstract class JndiTestBase {
         this.tomcatJndi = new TomcatJNDI();
         this.tomcatJndi.processContextXml(contextXml);
         this.tomcatJndi.start();
-        this.injector = Guice.createInjector(new GuicePersistTestModule());
+        this.injector = createInjector();
         this.accountDao = this.injector.getInstance(AccountDao.class);
         this.accountFacade = this.injector.getInstance(RealAccountFacade.class);
         this.transactionDao = this.injector.getInstance(TransactionDao.class);
@@ -43,6 +43,17 @@ public abstract class JndiTestBase {
         this.employeeDao = this.injector.getInstance(EmployeeDao.class);
         this.adminFacade = this.injector.getInstance(AdminFacade.class);
         this.adminFacade.initializeDatabase();
+        this.adminFacade.migrateDatabase();
+    }
+
+    /**
+     * Creates the {@code Injector} used by the test. Subclasses may override this to install
+     * additional modules.
+     *
+     * @return {@link Injector}
+     */
+    protected Injector createInjector() {
+        return Guice.createInjector(new GuicePersistTestModule());
     }
 
     @AfterClass
@@ -1,9 +1,9 @@
 INSERT INTO DEBS.ACCOUNT(NAME,DESCRIPTION,PARENT_ID,ACCOUNT_TYPE) VALUES('Cash','Cash desc',0,1);
 INSERT INTO DEBS.ACCOUNT(NAME,DESCRIPTION,PARENT_ID,ACCOUNT_TYPE) VALUES('Fuel','Fuel desc',0,2);
 
-INSERT INTO DEBS.ENTRY(AMOUNT,ETYPE,ACCOUNT_ID,CLEARED_TS) VALUES(-1000.00,1,1,CURRENT_TIMESTAMP);
-INSERT INTO DEBS.ENTRY(AMOUNT,ETYPE,ACCOUNT_ID,CLEARED_TS) VALUES(1000.00,2,2,CURRENT_TIMESTAMP);
-INSERT INTO DEBS.TRANSACTION(TDATE,REFERENCE,NARRATIVE,EID_FROM,EID_TO) VALUES(CURRENT_DATE,'Ref 1','Nar 1',1,2);
+INSERT INTO DEBS.ENTRY(ID,AMOUNT,ETYPE,ACCOUNT_ID,CLEARED_TS) VALUES(1,-1000.00,1,1,CURRENT_TIMESTAMP);
+INSERT INTO DEBS.ENTRY(ID,AMOUNT,ETYPE,ACCOUNT_ID,CLEARED_TS) VALUES(2,1000.00,2,2,CURRENT_TIMESTAMP);
+INSERT INTO DEBS.TRANSACTION(ID,TDATE,REFERENCE,NARRATIVE,EID_FROM,EID_TO) VALUES(1,CURRENT_DATE,'Ref 1','Nar 1',1,2);
 
 SELECT TX.ID,TX.CREATED,TX.DELETED,TX.REFERENCE,TX.NARRATIVE,TX.TDATE,
 FE.ID AS "FROM_ID",FE.DELETED AS "FROM_DELETED",FE.AMOUNT AS "FROM_AMOUNT",FE.ETYPE AS "FROM_ETYPE",FE.ACCOUNT_ID AS "FROM_ACCOUNT_ID",FE.CLEARED AS "FROM_CLEARED",FE.CLEARED_TS as "FROM_CLEARED_TS",FE.CREATED AS "FROM_CREATED",
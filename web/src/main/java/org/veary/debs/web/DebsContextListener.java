@@ -31,13 +31,16 @@ import javax.servlet.ServletContextListener;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.veary.debs.core.dao.BalanceMaterializer;
+import org.veary.debs.core.dao.PostingCoordinator;
 import org.veary.debs.facade.AdminFacade;
 
 /**
  * <b>Purpose:</b> Application specific {@link ServletContextListener}.
  *
  * <p><b>Responsibility:</b> Checks if the {@code WEB-INF/db} directory exists, if it does not,
- * then it is created and the database initialized.
+ * then it is created and the database initialized. Outstanding schema migrations are applied
+ * on every startup.
  *
  * @author Marc L. Veary
  * @since 1.0
@@ -50,13 +53,15 @@ public class DebsContextListener implements ServletContextListener {
     @Override
     public void contextInitialized(ServletContextEvent sce) {
         LOG.trace(LOG_CALLED);
+        final Injector injector = (Injector) sce.getServletContext()
+            .getAttribute(Injector.class.getName());
+        final AdminFacade facade = injector.getInstance(AdminFacade.class);
         if (sce.getServletContext().getAttribute("INIT_DB") != null) {
-            final Injector injector = (Injector) sce.getServletContext()
-                .getAttribute(Injector.class.getName());
             LOG.info("Initializing the database");
-            final AdminFacade facade = injector.getInstance(AdminFacade.class);
             facade.initializeDatabase();
         }
+        LOG.info("Migrating the database");
+        facade.migrateDatabase();
     }
 
     @Override
@@ -64,6 +69,8 @@ public class DebsContextListener implements ServletContextListener {
         LOG.trace(LOG_CALLED);
         final Injector injector = (Injector) sce.getServletContext()
             .getAttribute(Injector.class.getName());
+        injector.getInstance(PostingCoordinator.class).shutdown();
+        injector.getInstance(BalanceMaterializer.class).shutdown();
         final AdminFacade facade = injector.getInstance(AdminFacade.class);
         facade.backupDatabase(
             (String) sce.getServletContext().getAttribute(GuiceContextListener.BACKUP_DIR_KEY));
@@ -28,6 +28,7 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.jndi.JndiIntegration;
+import com.google.inject.multibindings.OptionalBinder;
 import com.google.inject.name.Names;
 import com.google.inject.servlet.GuiceServletContextListener;
 import com.google.inject.servlet.ServletModule;
@@ -48,7 +49,13 @@ import javax.sql.DataSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.struts2.dispatcher.filter.StrutsPrepareAndExecuteFilter;
+import org.veary.debs.core.AmountStorage;
+import org.veary.debs.core.BalanceMode;
 import org.veary.debs.core.GuiceDebsCoreModule;
+import org.veary.debs.core.GuiceUnitOfWorkModule;
+import org.veary.debs.core.PostingMode;
+import org.veary.debs.core.RetryPolicy;
+import org.veary.debs.core.dao.UnitOfWorkDataSource;
 import org.veary.debs.exceptions.DebsException;
 import org.veary.debs.web.internal.PdfDocumentGenerator;
 import org.veary.debs.web.struts2.DocumentGenerator;
@@ -119,6 +126,7 @@ public final class GuiceContextListener extends GuiceServletContextListener {
                 protected void configure() {
                     bind(Context.class).to(InitialContext.class);
                     bind(DataSource.class)
+                        .annotatedWith(Names.named(UnitOfWorkDataSource.TARGET))
                         .toProvider(JndiIntegration.fromJndi(DataSource.class,
                             "java:/comp/env/jdbc/debs"));
                     bind(PageBean.class).to(RealPageBean.class);
@@ -126,9 +134,34 @@ public final class GuiceContextListener extends GuiceServletContextListener {
                     bind(DocumentGenerator.class).to(PdfDocumentGenerator.class);
                     bindConstant().annotatedWith(Names.named("SQL_DIR"))
                         .to(GuiceContextListener.this.sqlDir);
+                    final String balanceMode = new Config().get("account.balance.mode");
+                    if (!balanceMode.isEmpty()) {
+                        OptionalBinder.newOptionalBinder(binder(), BalanceMode.class)
+                            .setBinding().toInstance(BalanceMode.valueOf(balanceMode));
+                    }
+                    final String postingMode = new Config().get("account.posting.mode");
+                    if (!postingMode.isEmpty()) {
+                        OptionalBinder.newOptionalBinder(binder(), PostingMode.class)
+                            .setBinding().toInstance(PostingMode.valueOf(postingMode));
+                    }
+                    final String amountStorage = new Config().get("account.amount.storage");
+                    if (!amountStorage.isEmpty()) {
+                        OptionalBinder.newOptionalBinder(binder(), AmountStorage.class)
+                            .setBinding().toInstance(AmountStorage.valueOf(amountStorage));
+                    }
+                    final String retryAttempts = new Config().get("transaction.retry.attempts");
+                    if (!retryAttempts.isEmpty()) {
+                        final Config config = new Config();
+                        OptionalBinder.newOptionalBinder(binder(), RetryPolicy.class)
+                            .setBinding().toInstance(new RetryPolicy(
+                                Integer.parseInt(retryAttempts),
+                                Long.parseLong(config.get("transaction.retry.backoff.initial")),
+                                Long.parseLong(config.get("transaction.retry.backoff.max"))));
+                    }
                 }
             },
             new GuiceDebsCoreModule(),
+            new GuiceUnitOfWorkModule(),
             new Struts2GuicePluginModule(),
             new ServletModule() {
 
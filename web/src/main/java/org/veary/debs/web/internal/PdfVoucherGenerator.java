@@ -38,12 +38,11 @@ import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 
 import java.io.ByteArrayOutputStream;
-import java.math.BigDecimal;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.veary.debs.core.Money;
+import org.veary.debs.core.MoneyAccumulator;
 
 /**
  * Support class for creating vouchers in PDF.
@@ -145,7 +144,7 @@ final class PdfVoucherGenerator {
 
         final PdfPTable table = generateTableHeader();
 
-        Money balance = new Money(BigDecimal.ZERO);
+        final MoneyAccumulator balance = new MoneyAccumulator();
 
         for (final VoucherEntryBean bean : data) {
             final PdfPCell c0 = new PdfPCell(new Phrase(bean.getDate(), defaultFont));
@@ -169,7 +168,7 @@ final class PdfVoucherGenerator {
             c3.setVerticalAlignment(Element.ALIGN_MIDDLE);
             table.addCell(c3);
 
-            balance = balance.plus(bean.getAmount());
+            balance.add(bean.getAmount());
         }
 
         final PdfPCell fc0 = new PdfPCell(new Phrase(" "));
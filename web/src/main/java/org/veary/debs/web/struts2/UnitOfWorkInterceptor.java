@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.web.struts2;
+
+import com.opensymphony.xwork2.Action;
+import com.opensymphony.xwork2.ActionInvocation;
+import com.opensymphony.xwork2.interceptor.AbstractInterceptor;
+
+import java.util.Objects;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.veary.debs.Messages;
+import org.veary.debs.core.dao.UnitOfWorkDataSource;
+import org.veary.debs.exceptions.DebsException;
+
+/**
+ * <b>Purpose:</b> Runs each action within one unit of work.
+ *
+ * <p><b>Responsibility:</b> Starts a unit of work with the {@link UnitOfWorkDataSource} before
+ * the action is invoked, so that everything it writes is committed once, or not at all. The
+ * unit of work is ended just before the result is executed, so that a page is never rendered,
+ * nor a redirect sent, for writes which then fail to commit. If the commit fails, the unit of
+ * work is rolled back and the {@code error} result is executed instead. If a DAO rolled back a
+ * statement which failed while the action ran, the unit of work is rolled back too, but the
+ * action's result is kept unless it is {@code success}: an action which caught the failure,
+ * such as a conflicting edit, reports it itself. It is also rolled back if the action throws.
+ *
+ * <p>An action marked as a {@link PostingAction} is invoked outside any unit of work, so that
+ * its postings are group committed with those of concurrent requests.
+ *
+ * <p><b>Note:</b> Annotated for JSR330.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public final class UnitOfWorkInterceptor extends AbstractInterceptor {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOG = LogManager.getLogger(UnitOfWorkInterceptor.class);
+    private static final String LOG_CALLED = "called";
+
+    private final transient UnitOfWorkDataSource unitOfWork;
+
+    /**
+     * Constructor.
+     *
+     * @param unitOfWork {@link UnitOfWorkDataSource}
+     */
+    @Inject
+    public UnitOfWorkInterceptor(UnitOfWorkDataSource unitOfWork) {
+        LOG.trace(LOG_CALLED);
+        this.unitOfWork = Objects.requireNonNull(unitOfWork,
+            Messages.getParameterIsNull("unitOfWork"));
+    }
+
+    @Override
+    public String intercept(ActionInvocation invocation) throws Exception {
+        LOG.trace(LOG_CALLED);
+        if (invocation.getAction() instanceof PostingAction || !this.unitOfWork.begin()) {
+            return invocation.invoke();
+        }
+
+        invocation.addPreResultListener((actionInvocation, resultCode) -> {
+            if (!UnitOfWorkDataSource.isActive()) {
+                return;
+            }
+            if (UnitOfWorkDataSource.isRollbackOnly()) {
+                LOG.warn("Rolling back an action in which a statement failed: {}",
+                    actionInvocation.getProxy().getActionName());
+                this.unitOfWork.rollback();
+                if (Action.SUCCESS.equals(resultCode)) {
+                    actionInvocation.setResultCode(Action.ERROR);
+                }
+                return;
+            }
+            try {
+                this.unitOfWork.commit();
+            } catch (DebsException e) {
+                LOG.error("Failed to commit the unit of work of the action", e);
+                actionInvocation.setResultCode(Action.ERROR);
+            }
+        });
+
+        try {
+            return invocation.invoke();
+        } finally {
+            // Only still active if the action threw before its result was executed
+            this.unitOfWork.rollback();
+        }
+    }
+}
@@ -32,6 +32,7 @@ import javax.inject.Inject;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.exceptions.DebsException;
 import org.veary.debs.facade.AccountFacade;
 import org.veary.debs.model.Account;
@@ -115,6 +116,10 @@ public final class AccountEdit extends AccountBaseAction {
                 this.bean.getDescription(), Long.valueOf(this.selectedGroupId),
                 Account.Types.getType(Integer.valueOf(this.bean.getTypeId())),
                 this.bean.isDeleted());
+        } catch (ConcurrentUpdateException e) {
+            LOG.warn(e.getMessage());
+            addActionError(getText("AccountEdit.conflict"));
+            return Action.INPUT;
         } catch (PersistenceException e) {
             LOG.error(e);
             return Action.ERROR;
@@ -137,6 +142,11 @@ public final class AccountEdit extends AccountBaseAction {
         }
         this.original = result.get();
 
+        if (!String.valueOf(this.original.getVersion()).equals(this.bean.getVersion())) {
+            addActionError(getText("AccountEdit.conflict"));
+            return;
+        }
+
         if (!this.original.getName().equals(this.bean.getName())) {
             result = this.accountFacade.getByName(this.bean.getName());
             if (result.isPresent()) {
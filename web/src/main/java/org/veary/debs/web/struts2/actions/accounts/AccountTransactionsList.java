@@ -30,13 +30,10 @@ import com.opensymphony.xwork2.Action;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
 import java.nio.file.Path;
-import java.time.Month;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,18 +46,22 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.struts2.interceptor.SessionAware;
 import org.apache.struts2.util.ServletContextAware;
+import org.veary.debs.core.DateRange;
 import org.veary.debs.core.Money;
+import org.veary.debs.core.MoneyAccumulator;
+import org.veary.debs.core.PageKey;
+import org.veary.debs.core.PageRequest;
+import org.veary.debs.core.TransactionPage;
 import org.veary.debs.facade.AccountFacade;
 import org.veary.debs.facade.SystemFacade;
 import org.veary.debs.model.Account;
-import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.debs.web.GuiceContextListener;
 import org.veary.debs.web.internal.VoucherEntryBean;
 import org.veary.debs.web.internal.WebConstants;
 import org.veary.debs.web.struts2.DocumentGenerator;
 import org.veary.debs.web.struts2.PageBean;
 import org.veary.debs.web.struts2.actions.BaseAction;
-import org.veary.debs.web.struts2.actions.TransactionDateSorter;
 import org.veary.debs.web.struts2.actions.beans.AccountTransactionBean;
 
 /**
@@ -86,9 +87,6 @@ public final class AccountTransactionsList extends BaseAction
     private static final Logger LOG = LogManager.getLogger(AccountTransactionsList.class);
     private static final String LOG_CALLED = "called";
 
-    private static final Comparator<AccountTransactionBean> decendingDateOrder = new TransactionDateSorter<>(
-        TransactionDateSorter.SortDirection.DECENDING);
-
     private final SystemFacade systemFacade;
     private final AccountFacade accountFacade;
     private final boolean showVoucherModal;
@@ -98,14 +96,19 @@ public final class AccountTransactionsList extends BaseAction
     private ServletContext context;
     private Long id;
     private List<AccountTransactionBean> transactions;
-    private BigDecimal fromColumnTotal = BigDecimal.ZERO;
-    private BigDecimal toColumnTotal = BigDecimal.ZERO;
+    private final MoneyAccumulator fromColumnTotal = new MoneyAccumulator();
+    private final MoneyAccumulator toColumnTotal = new MoneyAccumulator();
     private Account account;
     private String voucherDate;
     private String voucherNumber;
     private Map<String, Object> sessionMap;
     private String listView;
     private Boolean includeDeleted;
+    private String older;
+    private String newer;
+    private long total = TransactionPage.UNCOUNTED;
+    private TransactionPage page;
+    private Money openingBalance;
 
     /**
      * Constructor.
@@ -160,13 +163,16 @@ public final class AccountTransactionsList extends BaseAction
             this.account = result.get();
 
             if (this.listView.equals(LIST_VIEW_ALL)) {
-                this.transactions = transactionListToBeanList(
-                    this.systemFacade.getTransactionsForAccount(this.account,
-                        this.includeDeleted.booleanValue()));
+                this.page = this.systemFacade.getTransactionSummaryPageForAccount(
+                    getPageRequest(), this.account, this.includeDeleted.booleanValue());
+                this.transactions = transactionListToBeanList(this.page.getContent());
             } else {
+                final YearMonth period = getSelectedPeriod();
+                this.openingBalance = this.accountFacade.getBalanceAsOf(this.account,
+                    period.atDay(1).minusDays(1));
                 this.transactions = transactionListToBeanList(
-                    this.systemFacade.getTransactionsForAccountOverPeriod(
-                        getSelectedPeriod(),
+                    this.systemFacade.getTransactionSummariesForAccountOverRange(
+                        DateRange.of(period),
                         this.account,
                         this.includeDeleted.booleanValue()));
             }
@@ -202,13 +208,13 @@ public final class AccountTransactionsList extends BaseAction
         List<VoucherEntryBean> data;
         if (this.listView.equals(LIST_VIEW_ALL)) {
             data = transactionListToVoucherBeanList(
-                this.systemFacade.getTransactionsForAccount(acc,
+                this.systemFacade.getTransactionSummariesForAccount(acc,
                     this.includeDeleted.booleanValue()),
                 acc);
         } else {
             data = transactionListToVoucherBeanList(
-                this.systemFacade.getTransactionsForAccountOverPeriod(
-                    getSelectedPeriod(),
+                this.systemFacade.getTransactionSummariesForAccountOverRange(
+                    DateRange.of(getSelectedPeriod()),
                     acc,
                     this.includeDeleted.booleanValue()),
                 acc);
@@ -273,15 +279,69 @@ public final class AccountTransactionsList extends BaseAction
         this.includeDeleted = includeDeleted;
     }
 
+    public void setOlder(String older) {
+        this.older = older;
+    }
+
+    public void setNewer(String newer) {
+        this.newer = newer;
+    }
+
+    /**
+     * Sets the total count of the first page, which is carried along to the pages after it.
+     *
+     * @param total the number of transactions
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * Returns {@code true} if the transactions are being listed a page at a time.
+     *
+     * @return boolean
+     */
+    public boolean isPaged() {
+        return this.page != null;
+    }
+
+    public String getOlderKey() {
+        return this.page == null || this.page.getOlderKey() == null ? null
+            : this.page.getOlderKey().toString();
+    }
+
+    public String getNewerKey() {
+        return this.page == null || this.page.getNewerKey() == null ? null
+            : this.page.getNewerKey().toString();
+    }
+
+    public long getTotalCount() {
+        if (this.page == null) {
+            return 0L;
+        }
+        return this.page.isCounted() ? this.page.getTotalCount() : this.total;
+    }
+
+    /**
+     * Returns the balance of the account at the start of the selected month, or {@code null}
+     * if all the transactions are being listed.
+     *
+     * @return {@code String}
+     */
+    public String getOpeningBalance() {
+        return this.openingBalance == null ? null
+            : String.format(WebConstants.CURRENCY_DISPLAY_FORMAT, this.openingBalance.getValue());
+    }
+
     public String getFromColumnTotal() {
-        if (this.fromColumnTotal.signum() == -1) {
-            return new Money(this.fromColumnTotal).negate().toString();
+        if (this.fromColumnTotal.isMinus()) {
+            return this.fromColumnTotal.toMoney().negate().toString();
         }
-        return new Money(this.fromColumnTotal).toString();
+        return this.fromColumnTotal.toString();
     }
 
     public String getToColumnTotal() {
-        return new Money(this.toColumnTotal).toString();
+        return this.toColumnTotal.toString();
     }
 
     public Account getAccount() {
@@ -309,66 +369,53 @@ public final class AccountTransactionsList extends BaseAction
     }
 
     private List<AccountTransactionBean>
-        transactionListToBeanList(List<Transaction> transactions) {
+        transactionListToBeanList(List<TransactionSummary> transactions) {
         LOG.trace(LOG_CALLED);
 
-        BigDecimal fromTotal = BigDecimal.ZERO;
-        BigDecimal toTotal = BigDecimal.ZERO;
+        this.fromColumnTotal.reset();
+        this.toColumnTotal.reset();
         List<AccountTransactionBean> list = new ArrayList<>(transactions.size());
 
-        for (Transaction obj : transactions) {
+        for (TransactionSummary obj : transactions) {
             AccountTransactionBean bean = new AccountTransactionBean(obj);
-
-            if (obj.getFromEntry().getAccountId().equals(this.id)) {
-                bean.setOtherAccountName(
-                    getAccountFromId(obj.getToEntry().getAccountId()).getName());
-                bean.setAmountFrom(String.format(WebConstants.CURRENCY_DISPLAY_FORMAT,
-                    obj.getFromEntry().getAmount().getValue().abs()));
-                bean.setOtherAccountId(obj.getToEntry().getAccountId().toString());
-                fromTotal = fromTotal.add(obj.getFromEntry().getAmount().getValue().abs());
+            final Money amount = obj.getAmount();
+
+            if (obj.getFromAccountId().equals(this.id)) {
+                bean.setOtherAccountName(obj.getToAccountName());
+                bean.setAmountFrom(
+                    String.format(WebConstants.CURRENCY_DISPLAY_FORMAT, amount.getValue().abs()));
+                bean.setOtherAccountId(obj.getToAccountId().toString());
+                this.fromColumnTotal.addAbsolute(amount);
             } else {
-                bean.setOtherAccountName(
-                    getAccountFromId(obj.getFromEntry().getAccountId()).getName());
-                bean.setAmountTo(String.format(WebConstants.CURRENCY_DISPLAY_FORMAT,
-                    obj.getToEntry().getAmount().getValue()));
-                bean.setOtherAccountId(obj.getFromEntry().getAccountId().toString());
-                toTotal = toTotal.add(obj.getToEntry().getAmount().getValue());
+                bean.setOtherAccountName(obj.getFromAccountName());
+                bean.setAmountTo(
+                    String.format(WebConstants.CURRENCY_DISPLAY_FORMAT, amount.getValue()));
+                bean.setOtherAccountId(obj.getFromAccountId().toString());
+                this.toColumnTotal.add(amount);
+            }
+            if (this.openingBalance != null) {
+                obj.getRunningBalance().ifPresent(running -> bean.setRunningBalance(
+                    String.format(WebConstants.CURRENCY_DISPLAY_FORMAT,
+                        this.openingBalance.plus(running).getValue())));
             }
             list.add(bean);
         }
 
-        this.fromColumnTotal = fromTotal;
-        this.toColumnTotal = toTotal;
-
-        Collections.sort(list, decendingDateOrder);
-
         return Collections.unmodifiableList(list);
     }
 
-    private Account getAccountFromId(Long id) {
-        LOG.trace(LOG_CALLED);
-        Optional<Account> result = this.accountFacade.getById(id);
-        if (result.isEmpty()) {
-            throw new AssertionError(
-                String.format(
-                    "AccountFacade.getById() returned an empty result for ID: %s", id));
-        }
-        return result.get();
-    }
-
     private List<VoucherEntryBean>
-        transactionListToVoucherBeanList(List<Transaction> transactions, Account account) {
+        transactionListToVoucherBeanList(List<TransactionSummary> transactions,
+            Account account) {
         LOG.trace(LOG_CALLED);
 
         final List<VoucherEntryBean> voucherList = new ArrayList<>(transactions.size());
 
-        for (Transaction obj : transactions) {
+        for (TransactionSummary obj : transactions) {
 
-            Money amount;
-            if (obj.getFromEntry().getAccountId().equals(account.getId())) {
-                amount = obj.getFromEntry().getAmount();
-            } else {
-                amount = obj.getToEntry().getAmount();
+            Money amount = obj.getAmount();
+            if (obj.getFromAccountId().equals(account.getId())) {
+                amount = amount.negate();
             }
 
             VoucherEntryBean bean = new VoucherEntryBean(
@@ -383,14 +430,34 @@ public final class AccountTransactionsList extends BaseAction
         return Collections.unmodifiableList(voucherList);
     }
 
+    /**
+     * Returns the page requested by the {@code older} or {@code newer} parameter, or the first
+     * page if neither has been set (or the key is not valid).
+     */
+    private PageRequest getPageRequest() {
+        LOG.trace(LOG_CALLED);
+
+        try {
+            if (this.older != null && !this.older.isEmpty()) {
+                return PageRequest.older(PageKey.parse(this.older), PageRequest.DEFAULT_SIZE);
+            }
+            if (this.newer != null && !this.newer.isEmpty()) {
+                return PageRequest.newer(PageKey.parse(this.newer), PageRequest.DEFAULT_SIZE);
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Ignoring page key: {}", e.getMessage());
+        }
+
+        return PageRequest.first(PageRequest.DEFAULT_SIZE);
+    }
+
     private YearMonth getSelectedPeriod() {
         LOG.trace(LOG_CALLED);
 
         YearMonth period = YearMonth.now();
-        final Month month = period.getMonth();
 
         if (this.listView.equals(LIST_VIEW_LAST_MONTH)) {
-            period = YearMonth.of(period.getYear(), month.minus(1));
+            period = period.minusMonths(1);
         }
 
         LOG.trace("Selected Period: {}", period);
@@ -410,6 +477,6 @@ public final class AccountTransactionsList extends BaseAction
 
     public String getTotal() {
         return String.format(WebConstants.CURRENCY_DISPLAY_FORMAT,
-            this.toColumnTotal.subtract(this.fromColumnTotal));
+            this.toColumnTotal.toMoney().minus(this.fromColumnTotal.toMoney()).getValue());
     }
 }
@@ -38,6 +38,7 @@ import org.veary.debs.model.Account;
 public final class AccountBean {
 
     private String id;
+    private String version;
     private String name;
     private String typeId;
     private String typeName;
@@ -52,6 +53,7 @@ public final class AccountBean {
 
     public AccountBean(Account object) {
         this.id = object.getId().toString();
+        this.version = String.valueOf(object.getVersion());
         this.name = object.getName();
         this.typeId = object.getType().getId().toString();
         this.typeName = object.getType().toString().replace('_', ' ');
@@ -77,6 +79,14 @@ public final class AccountBean {
         this.id = id;
     }
 
+    public String getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -28,6 +28,7 @@ import java.util.Objects;
 
 import org.veary.debs.Messages;
 import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.debs.web.struts2.DateSorter;
 
 /**
@@ -44,6 +45,7 @@ public final class AccountTransactionBean implements DateSorter {
     private String reference;
     private String amountFrom = "";
     private String amountTo = "";
+    private String runningBalance = "";
     private String otherAccountName;
     private String otherAccountId;
     private boolean deleted;
@@ -68,6 +70,20 @@ public final class AccountTransactionBean implements DateSorter {
         this.deleted = object.isDeleted();
     }
 
+    /**
+     * Constructor.
+     *
+     * @param object {@link TransactionSummary}
+     */
+    public AccountTransactionBean(TransactionSummary object) {
+        Objects.requireNonNull(object, Messages.getParameterIsNull("object"));
+        this.id = Objects.requireNonNull(object.getId()).toString();
+        this.date = Objects.requireNonNull(object.getDate()).toString();
+        this.narrative = Objects.requireNonNull(object.getNarrative());
+        this.reference = Objects.requireNonNull(object.getReference());
+        this.deleted = object.isDeleted();
+    }
+
     public String getId() {
         return this.id;
     }
@@ -109,6 +125,14 @@ public final class AccountTransactionBean implements DateSorter {
         this.amountTo = amountTo;
     }
 
+    public String getRunningBalance() {
+        return this.runningBalance;
+    }
+
+    public void setRunningBalance(String runningBalance) {
+        this.runningBalance = runningBalance;
+    }
+
     public String getOtherAccountName() {
         return this.otherAccountName;
     }
@@ -25,12 +25,14 @@
 package org.veary.debs.web.struts2.actions.beans;
 
 import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.debs.web.internal.WebConstants;
 import org.veary.debs.web.struts2.DateSorter;
 
 public final class TransactionBean implements DateSorter {
 
     private String id;
+    private String version;
     private String date;
     private String narrative;
     private String amount;
@@ -48,6 +50,7 @@ public final class TransactionBean implements DateSorter {
 
     public TransactionBean(Transaction object) {
         this.id = object.getId().toString();
+        this.version = String.valueOf(object.getVersion());
         this.date = object.getDate().toString();
         this.narrative = object.getNarrative();
         this.fromAccountId = object.getFromEntry().getAccountId().toString();
@@ -60,6 +63,22 @@ public final class TransactionBean implements DateSorter {
         this.toCleared = object.getToEntry().isCleared();
     }
 
+    public TransactionBean(TransactionSummary object) {
+        this.id = object.getId().toString();
+        this.date = object.getDate().toString();
+        this.narrative = object.getNarrative();
+        this.fromAccountId = object.getFromAccountId().toString();
+        this.fromAccountName = object.getFromAccountName();
+        this.toAccountId = object.getToAccountId().toString();
+        this.toAccountName = object.getToAccountName();
+        this.amount = String.format(WebConstants.CURRENCY_DISPLAY_FORMAT,
+            object.getAmount().getValue());
+        this.reference = object.getReference();
+        this.deleted = object.isDeleted();
+        this.fromCleared = object.isFromCleared();
+        this.toCleared = object.isToCleared();
+    }
+
     public String getId() {
         return this.id;
     }
@@ -68,6 +87,14 @@ public final class TransactionBean implements DateSorter {
         this.id = id;
     }
 
+    public String getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
     public String getAmount() {
         return this.amount;
     }
@@ -28,7 +28,6 @@ import com.opensymphony.xwork2.Action;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,10 +38,9 @@ import org.apache.logging.log4j.Logger;
 import org.veary.debs.facade.AccountFacade;
 import org.veary.debs.facade.SystemFacade;
 import org.veary.debs.model.Account;
-import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.debs.web.struts2.PageBean;
 import org.veary.debs.web.struts2.actions.BaseAction;
-import org.veary.debs.web.struts2.actions.TransactionDateSorter;
 import org.veary.debs.web.struts2.actions.beans.AccountTransactionBean;
 import org.veary.tree.TreeNode;
 
@@ -59,9 +57,6 @@ public final class HomePageAction extends BaseAction {
     private static final Logger LOG = LogManager.getLogger(HomePageAction.class);
     private static final String LOG_CALLED = "called";
 
-    private static final Comparator<AccountTransactionBean> decendingDateOrder = new TransactionDateSorter<>(
-        TransactionDateSorter.SortDirection.DECENDING);
-
     private final SystemFacade systemFacade;
     private final AccountFacade accountFacade;
 
@@ -118,7 +113,7 @@ public final class HomePageAction extends BaseAction {
             } else {
                 this.showChartBalance = false;
                 this.transactions = transactionListToBeanList(
-                    this.systemFacade.getTransactionsForAccount(result.get(), false));
+                    this.systemFacade.getTransactionSummariesForAccount(result.get(), false));
             }
         }
 
@@ -150,41 +145,25 @@ public final class HomePageAction extends BaseAction {
     }
 
     private List<AccountTransactionBean>
-        transactionListToBeanList(List<Transaction> transactions) {
+        transactionListToBeanList(List<TransactionSummary> transactions) {
 
         List<AccountTransactionBean> list = new ArrayList<>(transactions.size());
 
-        for (Transaction obj : transactions) {
+        for (TransactionSummary obj : transactions) {
             AccountTransactionBean bean = new AccountTransactionBean(obj);
-            if (obj.getFromEntry().getAccountId().equals(this.id)) {
-
-                bean.setOtherAccountName(
-                    getAccountFromId(obj.getToEntry().getAccountId()).getName());
-                bean.setAmountFrom(obj.getFromEntry().getAmount().toString());
-                bean.setOtherAccountId(obj.getToEntry().getAccountId().toString());
+            if (obj.getFromAccountId().equals(this.id)) {
+                bean.setOtherAccountName(obj.getToAccountName());
+                bean.setAmountFrom(obj.getAmount().negate().toString());
+                bean.setOtherAccountId(obj.getToAccountId().toString());
             } else {
-                bean.setOtherAccountName(
-                    getAccountFromId(obj.getFromEntry().getAccountId()).getName());
-                bean.setAmountTo(obj.getToEntry().getAmount().toString());
-                bean.setOtherAccountId(obj.getFromEntry().getAccountId().toString());
+                bean.setOtherAccountName(obj.getFromAccountName());
+                bean.setAmountTo(obj.getAmount().toString());
+                bean.setOtherAccountId(obj.getFromAccountId().toString());
             }
 
             list.add(bean);
         }
 
-        Collections.sort(list, decendingDateOrder);
-
         return Collections.unmodifiableList(list);
     }
-
-    private Account getAccountFromId(Long id) {
-        LOG.trace(LOG_CALLED);
-        Optional<Account> result = this.accountFacade.getById(id);
-        if (result.isEmpty()) {
-            throw new AssertionError(
-                String.format(
-                    "AccountFacade.getById() returned an empty result for ID: %s", id));
-        }
-        return result.get();
-    }
 }
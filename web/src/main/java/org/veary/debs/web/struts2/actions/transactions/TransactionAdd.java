@@ -48,6 +48,7 @@ import org.veary.debs.model.Entry;
 import org.veary.debs.model.Transaction;
 import org.veary.debs.web.Config;
 import org.veary.debs.web.struts2.PageBean;
+import org.veary.debs.web.struts2.PostingAction;
 import org.veary.debs.web.struts2.actions.beans.TransactionBean;
 
 /**
@@ -58,7 +59,8 @@ import org.veary.debs.web.struts2.actions.beans.TransactionBean;
  * @author Marc L. Veary
  * @since 1.0
  */
-public final class TransactionAdd extends TransactionBaseAction implements SessionAware {
+public final class TransactionAdd extends TransactionBaseAction
+    implements SessionAware, PostingAction {
 
     private static final Logger LOG = LogManager.getLogger(TransactionAdd.class);
     private static final String LOG_CALLED = "called";
@@ -38,6 +38,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.veary.debs.core.Money;
 import org.veary.debs.core.utils.Validator;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
 import org.veary.debs.facade.AccountFacade;
 import org.veary.debs.facade.SystemFacade;
 import org.veary.debs.model.Entry;
@@ -45,7 +46,6 @@ import org.veary.debs.model.Entry.Types;
 import org.veary.debs.model.Transaction;
 import org.veary.debs.web.struts2.PageBean;
 import org.veary.debs.web.struts2.actions.beans.TransactionBean;
-import org.veary.persist.exceptions.PersistenceException;
 
 /**
  * <b>Purpose:</b> ?
@@ -113,6 +113,11 @@ public final class TransactionEdit extends TransactionBaseAction {
         }
         this.original = result.get();
 
+        if (!String.valueOf(this.original.getVersion()).equals(this.bean.getVersion())) {
+            addActionError(getText("TransactionEdit.conflict"));
+            return Action.INPUT;
+        }
+
         Transaction updated = Transaction.newInstance(
             LocalDate.parse(this.bean.getDate()),
             this.bean.getNarrative(),
@@ -129,9 +134,10 @@ public final class TransactionEdit extends TransactionBaseAction {
         try {
             this.systemFacade.updateTransaction(this.original, updated, updatedFromEntry,
                 updatedToEntry);
-        } catch (PersistenceException e) {
-            LOG.error(e);
-            return Action.ERROR;
+        } catch (ConcurrentUpdateException e) {
+            LOG.warn(e.getMessage());
+            addActionError(getText("TransactionEdit.conflict"));
+            return Action.INPUT;
         }
 
         return Action.SUCCESS;
@@ -30,7 +30,6 @@ import java.time.Month;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,11 +39,14 @@ import javax.inject.Inject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.struts2.interceptor.SessionAware;
+import org.veary.debs.core.DateRange;
+import org.veary.debs.core.PageKey;
+import org.veary.debs.core.PageRequest;
+import org.veary.debs.core.TransactionPage;
 import org.veary.debs.facade.AccountFacade;
 import org.veary.debs.facade.SystemFacade;
-import org.veary.debs.model.Transaction;
+import org.veary.debs.model.TransactionSummary;
 import org.veary.debs.web.struts2.PageBean;
-import org.veary.debs.web.struts2.actions.TransactionDateSorter;
 import org.veary.debs.web.struts2.actions.beans.TransactionBean;
 
 /**
@@ -67,9 +69,6 @@ public final class TransactionList extends TransactionBaseAction implements Sess
     private static final Logger LOG = LogManager.getLogger(TransactionList.class);
     private static final String LOG_CALLED = "called";
 
-    private static final Comparator<TransactionBean> decendingDateOrder = new TransactionDateSorter<>(
-        TransactionDateSorter.SortDirection.DECENDING);
-
     private final Map<String, String> viewMap;
     private String id;
 
@@ -77,6 +76,10 @@ public final class TransactionList extends TransactionBaseAction implements Sess
     private String listView;
     private Boolean includeDeleted;
     private Map<String, Object> sessionMap;
+    private String older;
+    private String newer;
+    private long total = TransactionPage.UNCOUNTED;
+    private TransactionPage page;
 
     /**
      * Constructor.
@@ -111,12 +114,13 @@ public final class TransactionList extends TransactionBaseAction implements Sess
         }
 
         if (this.listView.equals(LIST_VIEW_ALL)) {
-            this.transactions = transactionListToBeanList(
-                this.systemFacade.getAllTransactions(this.includeDeleted.booleanValue()));
+            this.page = this.systemFacade.getTransactionSummaryPage(getPageRequest(),
+                this.includeDeleted.booleanValue());
+            this.transactions = transactionListToBeanList(this.page.getContent());
         } else {
             YearMonth period = getSelectedPeriod();
             this.transactions = transactionListToBeanList(
-                this.systemFacade.getAllTransactionsOverPeriod(period,
+                this.systemFacade.getTransactionSummariesOverRange(DateRange.of(period),
                     this.includeDeleted.booleanValue()));
         }
 
@@ -153,24 +157,83 @@ public final class TransactionList extends TransactionBaseAction implements Sess
         this.includeDeleted = includeDeleted;
     }
 
-    private List<TransactionBean> transactionListToBeanList(List<Transaction> transactions) {
+    public void setOlder(String older) {
+        this.older = older;
+    }
+
+    public void setNewer(String newer) {
+        this.newer = newer;
+    }
+
+    /**
+     * Sets the total count of the first page, which is carried along to the pages after it.
+     *
+     * @param total the number of transactions
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * Returns {@code true} if the transactions are being listed a page at a time.
+     *
+     * @return boolean
+     */
+    public boolean isPaged() {
+        return this.page != null;
+    }
+
+    public String getOlderKey() {
+        return this.page == null || this.page.getOlderKey() == null ? null
+            : this.page.getOlderKey().toString();
+    }
+
+    public String getNewerKey() {
+        return this.page == null || this.page.getNewerKey() == null ? null
+            : this.page.getNewerKey().toString();
+    }
+
+    public long getTotalCount() {
+        if (this.page == null) {
+            return 0L;
+        }
+        return this.page.isCounted() ? this.page.getTotalCount() : this.total;
+    }
+
+    private List<TransactionBean> transactionListToBeanList(
+        List<TransactionSummary> transactions) {
         LOG.trace(LOG_CALLED);
 
         List<TransactionBean> list = new ArrayList<>(transactions.size());
 
-        for (Transaction obj : transactions) {
-            TransactionBean bean = new TransactionBean(obj);
-            list.add(bean);
-            bean.setFromAccountName(
-                getAccountFromId(obj.getFromEntry().getAccountId()).getName());
-            bean.setToAccountName(getAccountFromId(obj.getToEntry().getAccountId()).getName());
+        for (TransactionSummary obj : transactions) {
+            list.add(new TransactionBean(obj));
         }
 
-        Collections.sort(list, decendingDateOrder);
-
         return Collections.unmodifiableList(list);
     }
 
+    /**
+     * Returns the page requested by the {@code older} or {@code newer} parameter, or the first
+     * page if neither has been set (or the key is not valid).
+     */
+    private PageRequest getPageRequest() {
+        LOG.trace(LOG_CALLED);
+
+        try {
+            if (this.older != null && !this.older.isEmpty()) {
+                return PageRequest.older(PageKey.parse(this.older), PageRequest.DEFAULT_SIZE);
+            }
+            if (this.newer != null && !this.newer.isEmpty()) {
+                return PageRequest.newer(PageKey.parse(this.newer), PageRequest.DEFAULT_SIZE);
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Ignoring page key: {}", e.getMessage());
+        }
+
+        return PageRequest.first(PageRequest.DEFAULT_SIZE);
+    }
+
     private YearMonth getSelectedPeriod() {
         LOG.trace(LOG_CALLED);
 
@@ -36,6 +36,7 @@ document.addEventListener('readystatechange', event => {
           <th class="w-56"><span class="block truncate text-left">Description</span></th>
           <th class="w-32"><span class="block truncate text-right">Amount From</span></th>
           <th class="w-32"><span class="block truncate text-right">Amount To</span></th>
+          <th class="w-32"><span class="block truncate text-right">Balance</span></th>
           <th class="w-40"><span class="block truncate text-left pl-2">Other Account</span></th>
           <th class="w-48"><span class="block text-left">Reference</span></th>
           <th class="w-6"><span class="block text-left">X</span></th>
@@ -46,11 +47,18 @@ document.addEventListener('readystatechange', event => {
           <td colspan="3"></td>
           <td><div class="text-right font-bold"><@s.property value="fromColumnTotal"/></div></td>
           <td><div class="text-right font-bold"><@s.property value="toColumnTotal"/></div></td>
-          <td><#if total?starts_with("-")><div class="text-right font-bold text-red-700"><#else><div class="text-right font-bold"></#if>TOTAL: <@s.property value="total"/></div></td>
-          <td colspan="2"></td>
+          <td><#if total?starts_with("-")><div class="text-right font-bold text-red-700"><#else><div class="text-right font-bold"></#if><@s.if test="paged">PAGE </@s.if>TOTAL: <@s.property value="total"/></div></td>
+          <td colspan="3"></td>
         </tr>
       </tfoot>
       <tbody>
+<#if openingBalance??>
+        <tr class="border-b border-gray-600">
+          <td colspan="5"></td>
+          <td><#if openingBalance?starts_with("-")><div class="text-right font-bold text-red-700"><#else><div class="text-right font-bold"></#if>OPENING: <@s.property value="openingBalance"/></div></td>
+          <td colspan="3"></td>
+        </tr>
+</#if>
 <@s.iterator value="transactions" status="stats">
 <@s.if test="#stats.odd == true">
         <tr class="bg-purple-200">
@@ -63,6 +71,7 @@ document.addEventListener('readystatechange', event => {
           <td><span class="block truncate text-left"><@s.property value="narrative"/></span></td>
           <td><span class="block truncate text-right"><@s.property value="amountFrom"/></span></td>
           <td><span class="block truncate text-right"><@s.property value="amountTo"/></span></td>
+          <td><span class="block truncate text-right"><@s.property value="runningBalance"/></span></td>
           <td><span class="block truncate text-left pl-2"><@s.property value="otherAccountName"/></span></td>
           <td><span class="block truncate text-left"><@s.property value="reference"/></span></td>
           <td><span class="block truncate text-left"><input type="checkbox" <@s.if test="deleted">checked</@s.if> disabled></span></td>
@@ -71,4 +80,5 @@ document.addEventListener('readystatechange', event => {
       </tbody>
     </table>
   </div>
+<@f.pageNav/>
 </@f.accountsPage>
@@ -91,6 +91,22 @@
 </@s.form>
 </#macro>
 
+<#macro pageNav>
+<@s.if test="paged">
+<div class="w-full p-3">
+  <div class="float-left"><@s.if test="totalCount >= 0"><@s.property value="totalCount"/> transaction(s)</@s.if></div>
+  <div class="float-right">
+<@s.if test="newerKey != null">
+    <a href="<@s.url><@s.if test="id != null"><@s.param name="id" value="id"/></@s.if><@s.param name="newer" value="newerKey"/><@s.param name="total" value="totalCount"/><@s.param name="includeDeleted" value="includeDeleted"/></@s.url>" title="Newer Transactions" class="pr-4 border-b border-dotted border-black">&laquo; Newer</a>
+</@s.if>
+<@s.if test="olderKey != null">
+    <a href="<@s.url><@s.if test="id != null"><@s.param name="id" value="id"/></@s.if><@s.param name="older" value="olderKey"/><@s.param name="total" value="totalCount"/><@s.param name="includeDeleted" value="includeDeleted"/></@s.url>" title="Older Transactions" class="border-b border-dotted border-black">Older &raquo;</a>
+</@s.if>
+  </div>
+</div>
+</@s.if>
+</#macro>
+
 <#macro groupHierarchy type>
 <table class="table-fixed w-full">
 <@s.iterator value="groups" status="stats">
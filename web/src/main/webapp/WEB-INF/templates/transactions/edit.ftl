@@ -8,6 +8,8 @@
 </@f.contentHeader>
 <@s.form autocomplete="off">
 <@s.hidden name="bean.id" id="id"/>
+<@s.hidden name="bean.version" id="version"/>
+<div class="mt-6 font-bold text-red-700 italic"><@s.actionerror/></div>
   <div class="flex mt-6 mb-2 items-center">
     <div class="w-32">
 <@s.label for="date" value="Date:" class="inline-block font-bold"/>
@@ -44,4 +44,5 @@
     </tbody>
   </table>      
 </div>
+<@f.pageNav/>
 </@f.accountsPage>
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 ColonelBlimp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.veary.debs.web.struts2;
+
+import com.opensymphony.xwork2.Action;
+import com.opensymphony.xwork2.ActionInvocation;
+import com.opensymphony.xwork2.ActionProxy;
+import com.opensymphony.xwork2.interceptor.PreResultListener;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.veary.debs.core.Money;
+import org.veary.debs.core.dao.JdbcBatch;
+import org.veary.debs.core.dao.PostingCoordinator;
+import org.veary.debs.core.dao.UnitOfWorkDataSource;
+import org.veary.debs.dao.TransactionDao;
+import org.veary.debs.exceptions.ConcurrentUpdateException;
+import org.veary.debs.model.Transaction;
+
+/**
+ * <b>Purpose:</b> Checks that the {@link UnitOfWorkInterceptor} runs ordinary actions within a
+ * unit of work without overriding the result of one which handled a failed statement, and that
+ * the postings of concurrent {@link PostingAction}s are group committed by the
+ * {@link PostingCoordinator}.
+ *
+ * @author Marc L. Veary
+ * @since 1.0
+ */
+public class UnitOfWorkInterceptorTest {
+
+    private static final int THREADS = 8;
+
+    private final UnitOfWorkInterceptor interceptor = new UnitOfWorkInterceptor(
+        new UnitOfWorkDataSource(new JdbcDataSource()));
+
+    @Test
+    public void actionRunsInUnitOfWork() throws Exception {
+        final String result = this.interceptor.intercept(newInvocation(new Object(), () -> {
+            Assert.assertTrue(UnitOfWorkDataSource.isActive());
+            return Action.SUCCESS;
+        }));
+
+        Assert.assertEquals(result, Action.SUCCESS);
+        Assert.assertFalse(UnitOfWorkDataSource.isActive());
+    }
+
+    @Test
+    public void rollbackOnlyMapsToError() throws Exception {
+        final UnitOfWorkDataSource unitOfWork = new UnitOfWorkDataSource(new JdbcDataSource());
+        final String result = new UnitOfWorkInterceptor(unitOfWork)
+            .intercept(newInvocation(new Object(), () -> {
+                unitOfWork.setRollbackOnly();
+                return Action.SUCCESS;
+            }));
+
+        Assert.assertEquals(result, Action.ERROR);
+        Assert.assertFalse(UnitOfWorkDataSource.isActive());
+    }
+
+    @Test
+    public void staleEditKeepsInput() throws Exception {
+        final JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:interceptor");
+        final UnitOfWorkDataSource unitOfWork = new UnitOfWorkDataSource(target);
+        final JdbcBatch batch = new JdbcBatch(unitOfWork);
+
+        // As RealTransactionDao.updateTransaction does when the version has moved on
+        final String result = new UnitOfWorkInterceptor(unitOfWork)
+            .intercept(newInvocation(new Object(), () -> {
+                try {
+                    batch.inTransaction(conn -> {
+                        throw new ConcurrentUpdateException("stale");
+                    });
+                    return Action.SUCCESS;
+                } catch (ConcurrentUpdateException e) {
+                    Assert.assertTrue(UnitOfWorkDataSource.isRollbackOnly());
+                    return Action.INPUT;
+                }
+            }));
+
+        Assert.assertEquals(result, Action.INPUT);
+        Assert.assertFalse(UnitOfWorkDataSource.isActive());
+    }
+
+    @Test(timeOut = 30000)
+    public void postingActionsAreBatched() throws Exception {
+        final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch submitted = new CountDownLatch(THREADS);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicLong ids = new AtomicLong();
+
+        // Holds the first posting written on its own until every action has submitted its own
+        final TransactionDao dao = (TransactionDao) Proxy.newProxyInstance(
+            TransactionDao.class.getClassLoader(), new Class<?>[] { TransactionDao.class },
+            (proxy, method, args) -> {
+                if ("createTransaction".equals(method.getName())) {
+                    release.await();
+                    batches.add(Integer.valueOf(1));
+                    return Long.valueOf(ids.incrementAndGet());
+                }
+                if ("createTransactions".equals(method.getName())) {
+                    final List<Long> created = new ArrayList<>();
+                    for (int i = 0; i < ((List<?>) args[0]).size(); i++) {
+                        created.add(Long.valueOf(ids.incrementAndGet()));
+                    }
+                    batches.add(Integer.valueOf(created.size()));
+                    return created;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        final PostingCoordinator coordinator = new PostingCoordinator(dao);
+
+        final PostingAction action = new PostingAction() {
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> this.interceptor.intercept(
+                    newInvocation(action, () -> {
+                        Assert.assertFalse(UnitOfWorkDataSource.isActive());
+                        final Future<Long> id = coordinator.submit(newTransaction());
+                        submitted.countDown();
+                        Assert.assertNotNull(id.get());
+                        return Action.SUCCESS;
+                    }))));
+            }
+
+            Assert.assertTrue(submitted.await(10, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<String> future : futures) {
+                Assert.assertEquals(future.get(), Action.SUCCESS);
+            }
+        } finally {
+            executor.shutdown();
+            coordinator.shutdown();
+        }
+
+        int total = 0;
+        int largest = 0;
+        for (Integer size : batches) {
+            total += size.intValue();
+            largest = Math.max(largest, size.intValue());
+        }
+        Assert.assertEquals(total, THREADS);
+        Assert.assertTrue(largest > 1, "The postings were not batched: " + batches);
+    }
+
+    /**
+     * Returns an {@code ActionInvocation} which runs the referenced work as its action, then
+     * notifies its {@code PreResultListener}s before returning the result code.
+     */
+    private static ActionInvocation newInvocation(Object action, Callable<String> work) {
+        final List<PreResultListener> listeners = new ArrayList<>();
+        final String[] resultCode = new String[1];
+        return (ActionInvocation) Proxy.newProxyInstance(
+            ActionInvocation.class.getClassLoader(), new Class<?>[] { ActionInvocation.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getAction":
+                        return action;
+                    case "getProxy":
+                        return Proxy.newProxyInstance(ActionProxy.class.getClassLoader(),
+                            new Class<?>[] { ActionProxy.class },
+                            (actionProxy, proxyMethod, proxyArgs) -> "test");
+                    case "addPreResultListener":
+                        listeners.add((PreResultListener) args[0]);
+                        return null;
+                    case "setResultCode":
+                        resultCode[0] = (String) args[0];
+                        return null;
+                    case "invoke":
+                        resultCode[0] = work.call();
+                        for (PreResultListener listener : listeners) {
+                            listener.beforeResult((ActionInvocation) proxy, resultCode[0]);
+                        }
+                        return resultCode[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static Transaction newTransaction() {
+        return Transaction.newInstance(LocalDate.now(), "Narrative", "Reference",
+            new Money(new BigDecimal("7.35")), false, false);
+    }
+}